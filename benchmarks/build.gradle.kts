@@ -0,0 +1,50 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.6.8"
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":mapping-core"))
+    jmh(project(":runtime"))
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+// Results are written as JSON so CI can publish them with the build artifacts
+jmh {
+    jmhVersion.set("1.35")
+    fork.set(1)
+    warmupIterations.set(2)
+    iterations.set(3)
+    resultFormat.set("JSON")
+    resultsFile.set(project.file("build/reports/jmh/results.json"))
+    includes.set(listOf(providers.gradleProperty("jmhIncludes").getOrElse(".*")))
+
+    // -PjmhQuick (CI): 1 s iterations and a reduced MappingPlannerBenchmark matrix, about a minute in total;
+    // run without it locally for the full matrix with the JMH default iteration time
+    if (providers.gradleProperty("jmhQuick").isPresent) {
+        warmupIterations.set(1)
+        iterations.set(2)
+        warmup.set("1s")
+        timeOnIteration.set("1s")
+        mapOf(
+            "fields" to listOf("100", "1000"),
+            "depth" to listOf("5"),
+            "sources" to listOf("4"),
+            "lombok" to listOf("false", "true")
+        ).forEach { (name, values) ->
+            benchmarkParameters.put(name, objects.listProperty<String>().value(values))
+        }
+    }
+}
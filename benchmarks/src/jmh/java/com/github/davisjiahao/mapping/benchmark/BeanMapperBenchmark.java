@@ -0,0 +1,152 @@
+package com.github.davisjiahao.mapping.benchmark;
+
+import com.github.davisjiahao.mapping.runtime.BeanMapper;
+import com.github.davisjiahao.mapping.runtime.BeanMappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BeanMapperBenchmark
+ *
+ * 运行时转换器与插件生成的静态代码对比，预热后两者应当接近
+ *
+ * @author daviswujiahao
+ * @date 2022/12/17 15:20
+ * @since 1.0
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BeanMapperBenchmark {
+
+    public static class Source {
+        private Long id;
+        private String name;
+        private Integer age;
+        private String email;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+
+    public static class Target {
+        private Long id;
+        private String name;
+        private Integer age;
+        private String email;
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+
+    private Source source;
+
+    private BeanMapper<Source, Target> mapper;
+
+    private Method[] getters;
+
+    private Method[] setters;
+
+    @Setup
+    public void setUp() {
+        source = new Source();
+        source.setId(1L);
+        source.setName("name");
+        source.setAge(18);
+        source.setEmail("name@example.com");
+        mapper = BeanMappers.get(Source.class, Target.class);
+        String[] names = {"Id", "Name", "Age", "Email"};
+        getters = new Method[names.length];
+        setters = new Method[names.length];
+        try {
+            for (int i = 0; i < names.length; i++) {
+                getters[i] = Source.class.getMethod("get" + names[i]);
+                setters[i] = Target.class.getMethod("set" + names[i], getters[i].getReturnType());
+            }
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 与插件生成的方法体相同
+     */
+    @Benchmark
+    public Target generated() {
+        Target newEntity = new Target();
+        newEntity.setId(source.getId());
+        newEntity.setName(source.getName());
+        newEntity.setAge(source.getAge());
+        newEntity.setEmail(source.getEmail());
+        return newEntity;
+    }
+
+    @Benchmark
+    public Target runtime() {
+        return mapper.map(source);
+    }
+
+    /**
+     * 原来的反射复制方式，作为对照
+     */
+    @Benchmark
+    public Target reflection() throws ReflectiveOperationException {
+        Target newEntity = new Target();
+        for (int i = 0; i < getters.length; i++) {
+            setters[i].invoke(newEntity, getters[i].invoke(source));
+        }
+        return newEntity;
+    }
+
+    /**
+     * 每次都查缓存
+     */
+    @Benchmark
+    public Target runtimeLookup() {
+        return BeanMappers.get(Source.class, Target.class).map(source);
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.davisjiahao.mapping.benchmark;
+
+import com.github.davisjiahao.mapping.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MappingPlannerBenchmark
+ *
+ * 合成类结构上的属性解析与匹配耗时：字段数、继承深度、来源参数个数、lombok / 显式 get、set
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingPlannerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int fields;
+
+    @Param({"1", "5", "10"})
+    public int depth;
+
+    @Param({"1", "4", "16"})
+    public int sources;
+
+    @Param({"false", "true"})
+    public boolean lombok;
+
+    private ClassModel targetModel;
+
+    private List<ClassModel> sourceModels;
+
+    private PropertySet target;
+
+    private List<SourceParameter> sourceParameters;
+
+    @Setup
+    public void setUp() {
+        targetModel = chain("Target", 0, 1);
+        sourceModels = new ArrayList<>(sources);
+        for (int i = 0; i < sources; i++) {
+            sourceModels.add(chain("Source" + i, i, sources));
+        }
+        target = PropertyResolver.resolve(targetModel);
+        sourceParameters = resolveSources();
+    }
+
+    /**
+     * 只解析目标类（含父类链）
+     */
+    @Benchmark
+    public PropertySet resolveTarget() {
+        return PropertyResolver.resolve(targetModel);
+    }
+
+    /**
+     * 属性已解析，只做匹配
+     */
+    @Benchmark
+    public MappingPlan planResolved() {
+        return MappingPlanner.plan(target, sourceParameters, false);
+    }
+
+    /**
+     * 一次完整生成：解析目标与全部来源后匹配
+     */
+    @Benchmark
+    public MappingPlan resolveAndPlan() {
+        return MappingPlanner.plan(PropertyResolver.resolve(targetModel), resolveSources(), false);
+    }
+
+    private List<SourceParameter> resolveSources() {
+        List<SourceParameter> result = new ArrayList<>(sourceModels.size());
+        for (int i = 0; i < sourceModels.size(); i++) {
+            ClassModel model = sourceModels.get(i);
+            result.add(new SourceParameter("source" + i, model.getName(), PropertyResolver.resolve(model)));
+        }
+        return result;
+    }
+
+    /**
+     * 生成深度为 depth 的继承链，字段平均分布在各层；offset/step 控制该类包含哪些属性
+     */
+    private ClassModel chain(String name, int offset, int step) {
+        ClassModel current = null;
+        int perLevel = Math.max(1, fields / depth);
+        int index = offset;
+        for (int level = 0; level < depth; level++) {
+            ClassModel model = new ClassModel(name + "Level" + level).setSuperClass(current).setLombokData(lombok);
+            int end = level == depth - 1 ? fields : Math.min(fields, (level + 1) * perLevel);
+            for (; index < end; index += step) {
+                String field = "field" + index;
+                String suffix = "Field" + index;
+                model.addField(new ClassModel.FieldModel(field, "java.lang.String", false));
+                if (!lombok) {
+                    model.addMethod(new ClassModel.MethodModel("get" + suffix, "java.lang.String"));
+                    model.addMethod(new ClassModel.MethodModel("set" + suffix, "java.lang.String"));
+                }
+            }
+            current = model;
+        }
+        return current;
+    }
+}
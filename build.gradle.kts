@@ -18,6 +18,7 @@ plugins {
 
 
 dependencies {
+    implementation(project(":mapping-core"))
     implementation("com.google.guava:guava:31.0.1-jre")
     implementation("com.squareup:javapoet:1.13.0")
     implementation("io.vavr:vavr:0.10.4")
@@ -0,0 +1,49 @@
+package com.github.davisjiahao.mapping;
+
+/**
+ * Assignment
+ *
+ * 目标对象的一次 set 调用；full 模式下没有来源的属性 source、matchKind 为 null
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class Assignment {
+    private final Property target;
+    private final SourceAccessor source;
+    private final MatchKind matchKind;
+
+    public Assignment(Property target, SourceAccessor source) {
+        this(target, source, source == null ? null : MatchKind.EXACT);
+    }
+
+    public Assignment(Property target, SourceAccessor source, MatchKind matchKind) {
+        this.target = target;
+        this.source = source;
+        this.matchKind = matchKind;
+    }
+
+    public Property getTarget() {
+        return target;
+    }
+
+    public SourceAccessor getSource() {
+        return source;
+    }
+
+    public MatchKind getMatchKind() {
+        return matchKind;
+    }
+
+    /**
+     * 匹配的可信度，没有来源时为 0
+     */
+    public double getConfidence() {
+        return matchKind == null ? 0 : matchKind.getConfidence();
+    }
+
+    public boolean isMapped() {
+        return source != null;
+    }
+}
@@ -0,0 +1,261 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ClassModel
+ *
+ * 与 PSI / javax.lang.model 无关的类结构：字段、方法、父类
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class ClassModel {
+    private final String name;
+    private ClassModel superClass;
+    /**
+     * 类上的 lombok 注解是否为所有字段生成 get（@Data、@Value、@Getter）/ set（@Data、@Setter）
+     */
+    private boolean lombokGetter;
+    private boolean lombokSetter;
+    /**
+     * 类上的 @Value：字段默认为 final（字段上的 @NonFinal 除外）
+     */
+    private boolean lombokValue;
+    /**
+     * 类上的 @Accessors，null 表示没有
+     */
+    private LombokAccessors lombokAccessors;
+    private final List<FieldModel> fields = new ArrayList<>();
+    private final List<MethodModel> methods = new ArrayList<>();
+
+    public ClassModel(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ClassModel getSuperClass() {
+        return superClass;
+    }
+
+    public ClassModel setSuperClass(ClassModel superClass) {
+        this.superClass = superClass;
+        return this;
+    }
+
+    public boolean isLombokData() {
+        return lombokGetter && lombokSetter;
+    }
+
+    /**
+     * lombok 的 @Data：所有字段生成 get、set
+     */
+    public ClassModel setLombokData(boolean lombokData) {
+        this.lombokGetter = lombokData;
+        this.lombokSetter = lombokData;
+        return this;
+    }
+
+    public boolean isLombokGetter() {
+        return lombokGetter;
+    }
+
+    public ClassModel setLombokGetter(boolean lombokGetter) {
+        this.lombokGetter = lombokGetter;
+        return this;
+    }
+
+    public boolean isLombokSetter() {
+        return lombokSetter;
+    }
+
+    public ClassModel setLombokSetter(boolean lombokSetter) {
+        this.lombokSetter = lombokSetter;
+        return this;
+    }
+
+    public boolean isLombokValue() {
+        return lombokValue;
+    }
+
+    /**
+     * lombok 的 @Value：所有字段生成 get，没有 @NonFinal 的字段视为 final
+     */
+    public ClassModel setLombokValue(boolean lombokValue) {
+        this.lombokValue = lombokValue;
+        if (lombokValue) {
+            this.lombokGetter = true;
+        }
+        return this;
+    }
+
+    public LombokAccessors getLombokAccessors() {
+        return lombokAccessors;
+    }
+
+    public ClassModel setLombokAccessors(LombokAccessors lombokAccessors) {
+        this.lombokAccessors = lombokAccessors;
+        return this;
+    }
+
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+
+    public List<MethodModel> getMethods() {
+        return methods;
+    }
+
+    public ClassModel addField(FieldModel field) {
+        fields.add(field);
+        return this;
+    }
+
+    public ClassModel addMethod(MethodModel method) {
+        methods.add(method);
+        return this;
+    }
+
+    public static class FieldModel {
+        private final String name;
+        private final String typeName;
+        private final boolean staticFinal;
+        private boolean staticField;
+        /**
+         * final 字段 lombok 不生成 set；@Value 类中的字段由 {@link #lombokNonFinal} 决定
+         */
+        private boolean finalField;
+        /**
+         * 字段上的 @Getter / @Setter，null 表示没有，按类上的注解
+         */
+        private Boolean lombokGetter;
+        private Boolean lombokSetter;
+        /**
+         * 字段上的 @NonFinal
+         */
+        private boolean lombokNonFinal;
+        /**
+         * 字段上的 @Accessors，null 表示没有，按类上的注解
+         */
+        private LombokAccessors lombokAccessors;
+
+        public FieldModel(String name, String typeName, boolean staticFinal) {
+            this.name = name;
+            this.typeName = typeName;
+            this.staticFinal = staticFinal;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        public boolean isStaticFinal() {
+            return staticFinal;
+        }
+
+        public boolean isStatic() {
+            return staticField || staticFinal;
+        }
+
+        public FieldModel setStatic(boolean staticField) {
+            this.staticField = staticField;
+            return this;
+        }
+
+        public boolean isFinal() {
+            return finalField || staticFinal;
+        }
+
+        public FieldModel setFinal(boolean finalField) {
+            this.finalField = finalField;
+            return this;
+        }
+
+        public Boolean getLombokGetter() {
+            return lombokGetter;
+        }
+
+        public FieldModel setLombokGetter(Boolean lombokGetter) {
+            this.lombokGetter = lombokGetter;
+            return this;
+        }
+
+        public Boolean getLombokSetter() {
+            return lombokSetter;
+        }
+
+        public FieldModel setLombokSetter(Boolean lombokSetter) {
+            this.lombokSetter = lombokSetter;
+            return this;
+        }
+
+        public boolean isLombokNonFinal() {
+            return lombokNonFinal;
+        }
+
+        public FieldModel setLombokNonFinal(boolean lombokNonFinal) {
+            this.lombokNonFinal = lombokNonFinal;
+            return this;
+        }
+
+        public LombokAccessors getLombokAccessors() {
+            return lombokAccessors;
+        }
+
+        public FieldModel setLombokAccessors(LombokAccessors lombokAccessors) {
+            this.lombokAccessors = lombokAccessors;
+            return this;
+        }
+    }
+
+    /**
+     * lombok 的 @Accessors：fluent 时 get、set 都以属性名命名；prefix 为生成方法名前从字段名去掉的前缀（chain 不影响方法名）
+     */
+    public static class LombokAccessors {
+        private final boolean fluent;
+        private final List<String> prefixes;
+
+        public LombokAccessors(boolean fluent, List<String> prefixes) {
+            this.fluent = fluent;
+            this.prefixes = prefixes;
+        }
+
+        public boolean isFluent() {
+            return fluent;
+        }
+
+        public List<String> getPrefixes() {
+            return prefixes;
+        }
+    }
+
+    public static class MethodModel {
+        private final String name;
+        /**
+         * set 方法为参数类型，get 方法为返回类型
+         */
+        private final String typeName;
+
+        public MethodModel(String name, String typeName) {
+            this.name = name;
+            this.typeName = typeName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.List;
+
+/**
+ * MappingPlan
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class MappingPlan {
+    private final List<Assignment> assignments;
+    private final List<Property> unmapped;
+
+    public MappingPlan(List<Assignment> assignments, List<Property> unmapped) {
+        this.assignments = assignments;
+        this.unmapped = unmapped;
+    }
+
+    /**
+     * 按目标属性顺序的 set 调用
+     */
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * 没有来源的目标属性
+     */
+    public List<Property> getUnmapped() {
+        return unmapped;
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.*;
+
+/**
+ * MappingPlanner
+ *
+ * 匹配规则：基础类型参数按参数名匹配，其他参数按 get 方法匹配，先出现的来源优先（名字的归一化见 {@link PropertyMatcher}）；
+ * full 模式保留没有来源的目标属性，matched 模式跳过
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public final class MappingPlanner {
+
+    private static final Set<String> BASE_TYPES = new HashSet<>(Arrays.asList(
+            "byte", "char", "character", "boolean", "int", "integer", "double", "float",
+            "long", "short", "bigdecimal", "string", "date", "datetime"));
+
+    private MappingPlanner() {
+    }
+
+    /**
+     * 按简单类名判断是否基础类型（大小写不敏感）
+     */
+    public static boolean isBaseTypeName(String simpleName) {
+        return simpleName != null && BASE_TYPES.contains(simpleName.toLowerCase());
+    }
+
+    /**
+     * 属性 key -> 来源
+     */
+    public static Map<String, SourceAccessor> indexSources(List<SourceParameter> parameters) {
+        int expected = 0;
+        for (SourceParameter parameter : parameters) {
+            expected += parameter.isBaseType() ? 1 : parameter.getProperties().size();
+        }
+        Map<String, SourceAccessor> result = new HashMap<>(Math.max(16, expected * 4 / 3 + 1));
+        for (SourceParameter parameter : parameters) {
+            if (parameter.isBaseType()) {
+                result.putIfAbsent(parameter.getName().toLowerCase(), new SourceAccessor(parameter, null));
+                continue;
+            }
+            for (Property property : parameter.getProperties().getProperties()) {
+                if (property.isReadable()) {
+                    result.putIfAbsent(property.getKey(), new SourceAccessor(parameter, property));
+                }
+            }
+        }
+        return result;
+    }
+
+    public static MappingPlan plan(PropertySet target, List<SourceParameter> parameters, boolean isMatched) {
+        return plan(target, parameters, isMatched, MatchOptions.EXACT);
+    }
+
+    /**
+     * 按配置的命名策略、前缀和别名匹配，每个 Assignment 带有匹配方式和可信度
+     */
+    public static MappingPlan plan(PropertySet target, List<SourceParameter> parameters, boolean isMatched, MatchOptions options) {
+        PropertyMatcher matcher = new PropertyMatcher(parameters, options);
+        List<Property> writable = target.getWritableProperties();
+        List<Assignment> assignments = new ArrayList<>(writable.size());
+        List<Property> unmapped = new ArrayList<>();
+        for (Property property : writable) {
+            Assignment assignment = matcher.match(property);
+            if (!assignment.isMapped()) {
+                unmapped.add(property);
+                if (isMatched) {
+                    continue;
+                }
+            }
+            assignments.add(assignment);
+        }
+        return new MappingPlan(assignments, unmapped);
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.davisjiahao.mapping;
+
+/**
+ * MatchKind
+ *
+ * 目标属性与来源的匹配方式，按可信度从高到低排列，匹配时依次尝试
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 15:00
+ * @since 1.0
+ **/
+public enum MatchKind {
+    /**
+     * 忽略大小写后名字相同
+     */
+    EXACT(1.0),
+    /**
+     * 通过别名注解（如 @JsonProperty）匹配
+     */
+    ALIAS(0.95),
+    /**
+     * 忽略下划线、中划线后名字相同
+     */
+    NORMALIZED(0.9),
+    /**
+     * 去掉配置的前缀后名字相同
+     */
+    PREFIX(0.6);
+
+    private final double confidence;
+
+    MatchKind(double confidence) {
+        this.confidence = confidence;
+    }
+
+    /**
+     * 可信度，0 到 1
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+}
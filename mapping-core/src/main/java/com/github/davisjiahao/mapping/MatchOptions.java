@@ -0,0 +1,49 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MatchOptions
+ *
+ * 属性匹配的配置，不可变
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 15:00
+ * @since 1.0
+ **/
+public final class MatchOptions {
+
+    /**
+     * 原有行为：只做忽略大小写的完全匹配
+     */
+    public static final MatchOptions EXACT = new MatchOptions(NamingStrategy.EXACT, Collections.emptyList());
+
+    private final NamingStrategy strategy;
+
+    private final List<String> prefixes;
+
+    /**
+     * @param prefixes 属性名开头可以忽略的单词，如 src、source，大小写不敏感
+     */
+    public MatchOptions(NamingStrategy strategy, List<String> prefixes) {
+        this.strategy = strategy;
+        List<String> normalized = new ArrayList<>(prefixes.size());
+        for (String prefix : prefixes) {
+            String canonical = PropertyMatcher.canonical(prefix);
+            if (!canonical.isEmpty()) {
+                normalized.add(canonical);
+            }
+        }
+        this.prefixes = Collections.unmodifiableList(normalized);
+    }
+
+    public NamingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public List<String> getPrefixes() {
+        return prefixes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.davisjiahao.mapping;
+
+/**
+ * NamingStrategy
+ *
+ * 属性名的匹配策略
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 15:00
+ * @since 1.0
+ **/
+public enum NamingStrategy {
+    /**
+     * 忽略大小写的完全匹配：userId / userID
+     */
+    EXACT,
+    /**
+     * 再忽略下划线、中划线，驼峰与蛇形命名互相匹配：userId / user_id / USER_ID；
+     * 配置了前缀时，去掉前缀后仍可匹配：srcName / name
+     */
+    NORMALIZED
+}
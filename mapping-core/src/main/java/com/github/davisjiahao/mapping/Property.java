@@ -0,0 +1,84 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Property
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class Property {
+    /**
+     * 归一化后的属性 key（小写），用于 get/set 匹配
+     */
+    private final String key;
+    private String getterName;
+    private String setterName;
+    private String typeName;
+    /**
+     * 别名注解（如 @JsonProperty）声明的其他名字
+     */
+    private Set<String> aliases = Collections.emptySet();
+
+    public Property(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public Property setGetterName(String getterName) {
+        this.getterName = getterName;
+        return this;
+    }
+
+    public String getSetterName() {
+        return setterName;
+    }
+
+    public Property setSetterName(String setterName) {
+        this.setterName = setterName;
+        return this;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public Property setTypeName(String typeName) {
+        this.typeName = typeName;
+        return this;
+    }
+
+    public Set<String> getAliases() {
+        return aliases;
+    }
+
+    public Property addAliases(Collection<String> names) {
+        if (!names.isEmpty()) {
+            if (aliases.isEmpty()) {
+                aliases = new LinkedHashSet<>();
+            }
+            aliases.addAll(names);
+        }
+        return this;
+    }
+
+    public boolean isReadable() {
+        return getterName != null;
+    }
+
+    public boolean isWritable() {
+        return setterName != null;
+    }
+}
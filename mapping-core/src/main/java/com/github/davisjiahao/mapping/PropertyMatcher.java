@@ -0,0 +1,208 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PropertyMatcher
+ *
+ * 为全部来源属性预先计算归一化的名字并建立哈希索引，每个目标属性按 {@link MatchKind} 的顺序查找，
+ * n 个来源属性、m 个目标属性的匹配为 O(n + m)，不做两两比较。
+ * 同一个索引中名字冲突时先出现的来源优先
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 15:00
+ * @since 1.0
+ **/
+public final class PropertyMatcher {
+
+    private static final String[] ACCESSOR_PREFIXES = {"get", "set", "is"};
+
+    private final MatchOptions options;
+
+    /**
+     * 属性 key（小写名）-> 来源
+     */
+    private final Map<String, SourceAccessor> exact;
+
+    /**
+     * 归一化名 -> 来源，EXACT 策略下与 exact 相同
+     */
+    private final Map<String, SourceAccessor> byName;
+
+    /**
+     * 归一化的别名 -> 来源
+     */
+    private final Map<String, SourceAccessor> byAlias;
+
+    /**
+     * 去掉前缀后的归一化名 -> 来源
+     */
+    private final Map<String, SourceAccessor> byPrefixStripped;
+
+    public PropertyMatcher(List<SourceParameter> parameters, MatchOptions options) {
+        this.options = options;
+        this.exact = MappingPlanner.indexSources(parameters);
+        boolean normalized = options.getStrategy() == NamingStrategy.NORMALIZED;
+        int capacity = Math.max(16, exact.size() * 4 / 3 + 1);
+        this.byName = normalized ? new HashMap<>(capacity) : exact;
+        this.byAlias = new HashMap<>();
+        this.byPrefixStripped = new HashMap<>();
+
+        for (SourceParameter parameter : parameters) {
+            if (parameter.isBaseType()) {
+                index(parameter.getName(), new SourceAccessor(parameter, null), normalized);
+                continue;
+            }
+            for (Property property : parameter.getProperties().getProperties()) {
+                if (!property.isReadable()) {
+                    continue;
+                }
+                SourceAccessor accessor = new SourceAccessor(parameter, property);
+                index(nameOf(property), accessor, normalized);
+                for (String alias : property.getAliases()) {
+                    byAlias.putIfAbsent(form(alias), accessor);
+                }
+            }
+        }
+    }
+
+    private void index(String name, SourceAccessor accessor, boolean normalized) {
+        if (!normalized) {
+            return;
+        }
+        byName.putIfAbsent(canonical(name), accessor);
+        String stripped = stripPrefix(name);
+        if (stripped != null) {
+            byPrefixStripped.putIfAbsent(stripped, accessor);
+        }
+    }
+
+    /**
+     * 查找目标属性的来源，找不到时返回 source 为 null 的 Assignment
+     */
+    public Assignment match(Property target) {
+        SourceAccessor source = exact.get(target.getKey());
+        if (source != null) {
+            return new Assignment(target, source, MatchKind.EXACT);
+        }
+        String name = form(nameOf(target));
+        source = findByAlias(target, name);
+        if (source != null) {
+            return new Assignment(target, source, MatchKind.ALIAS);
+        }
+        if (options.getStrategy() != NamingStrategy.NORMALIZED) {
+            return new Assignment(target, null, null);
+        }
+        source = byName.get(name);
+        if (source != null) {
+            return new Assignment(target, source, MatchKind.NORMALIZED);
+        }
+        // 来源带前缀（srcName -> name），或目标带前缀（name -> srcName），或两边都带
+        source = byPrefixStripped.get(name);
+        String stripped = stripPrefix(nameOf(target));
+        if (source == null && stripped != null) {
+            source = byName.get(stripped) != null ? byName.get(stripped) : byPrefixStripped.get(stripped);
+        }
+        return source != null ? new Assignment(target, source, MatchKind.PREFIX) : new Assignment(target, null, null);
+    }
+
+    /**
+     * 来源的别名与目标的名字相同，或目标的别名与来源的名字、别名相同
+     */
+    private SourceAccessor findByAlias(Property target, String name) {
+        SourceAccessor source = byAlias.get(name);
+        if (source != null) {
+            return source;
+        }
+        for (String alias : target.getAliases()) {
+            String aliasForm = form(alias);
+            source = byName.get(aliasForm) != null ? byName.get(aliasForm) : byAlias.get(aliasForm);
+            if (source != null) {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按策略计算索引用的名字
+     */
+    private String form(String name) {
+        return options.getStrategy() == NamingStrategy.NORMALIZED ? canonical(name) : name.toLowerCase();
+    }
+
+    /**
+     * 去掉配置的前缀（第一个单词）后的归一化名，没有前缀或去掉后为空时返回 null
+     */
+    private String stripPrefix(String name) {
+        if (options.getPrefixes().isEmpty()) {
+            return null;
+        }
+        int end = firstWordEnd(name);
+        if (end >= name.length()) {
+            return null;
+        }
+        String rest = canonical(name.substring(end));
+        return !rest.isEmpty() && options.getPrefixes().contains(canonical(name.substring(0, end))) ? rest : null;
+    }
+
+    /**
+     * 小写字母和数字，忽略其他字符：userId、user_id、USER_ID 都归一化为 userid
+     */
+    static String canonical(String name) {
+        StringBuilder result = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toLowerCase(c));
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * 第一个单词的结束位置：分隔符、小写到大写（srcName）、连续大写的最后一个（URLValue）
+     */
+    static int firstWordEnd(String name) {
+        int start = 0;
+        while (start < name.length() && !Character.isLetterOrDigit(name.charAt(start))) {
+            start++;
+        }
+        for (int i = start + 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            char previous = name.charAt(i - 1);
+            if (!Character.isLetterOrDigit(c)) {
+                return i;
+            }
+            if (Character.isUpperCase(c) && (Character.isLowerCase(previous) || Character.isDigit(previous))) {
+                return i;
+            }
+            if (Character.isUpperCase(c) && Character.isUpperCase(previous)
+                    && i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1))) {
+                return i;
+            }
+        }
+        return name.length();
+    }
+
+    /**
+     * 属性的原始名字（保留大小写以便拆分单词）：去掉 get/set/is 前缀的方法名，fluent 方法直接使用方法名
+     */
+    static String nameOf(Property property) {
+        String accessor = property.getSetterName() != null ? property.getSetterName() : property.getGetterName();
+        if (accessor == null) {
+            return property.getKey();
+        }
+        for (String prefix : ACCESSOR_PREFIXES) {
+            if (accessor.length() > prefix.length() && accessor.startsWith(prefix)) {
+                char next = accessor.charAt(prefix.length());
+                if (Character.isUpperCase(next) || next == '_') {
+                    return accessor.substring(prefix.length());
+                }
+            }
+        }
+        return accessor;
+    }
+}
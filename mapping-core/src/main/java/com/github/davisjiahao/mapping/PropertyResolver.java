@@ -0,0 +1,153 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PropertyResolver
+ *
+ * 从类结构解析出属性：父类在前，key 为去掉 get/set/is 前缀后的小写名（is 只用于返回 boolean 的方法）；
+ * lombok 注解（类上的 @Data、@Value、@Getter、@Setter，字段上的 @Getter、@Setter、@NonFinal，以及 @Accessors 的 fluent / prefix）
+ * 按字段补全 get、set，boolean 字段的 get 为 isXxx；插件、注解处理器和运行时共用这一份规则
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public final class PropertyResolver {
+
+    public static final String SET_REGEX = "set(\\w+)";
+
+    public static final String GET_REGEX = "get(\\w+)";
+
+    public static final String IS_REGEX = "is(\\w+)";
+
+    private static final Pattern SET_PATTERN = Pattern.compile(SET_REGEX);
+
+    private static final Pattern GET_PATTERN = Pattern.compile(GET_REGEX);
+
+    private static final Pattern IS_PATTERN = Pattern.compile(IS_REGEX);
+
+    private static final String BOOLEAN = "boolean";
+
+    private PropertyResolver() {
+    }
+
+    /**
+     * 解析类及其父类链上的全部属性
+     */
+    public static PropertySet resolve(ClassModel classModel) {
+        PropertySet result = new PropertySet();
+        for (ClassModel current : hierarchy(classModel)) {
+            resolveDeclared(current, result);
+        }
+        return result;
+    }
+
+    /**
+     * 解析类自身声明的属性，写入 result（子类覆盖父类的同名 accessor）
+     */
+    public static void resolveDeclared(ClassModel classModel, PropertySet result) {
+        for (ClassModel.FieldModel field : classModel.getFields()) {
+            resolveLombok(classModel, field, result);
+        }
+        for (ClassModel.MethodModel method : classModel.getMethods()) {
+            String name = method.getName();
+            Matcher setter = SET_PATTERN.matcher(name);
+            if (setter.matches()) {
+                result.getOrCreate(setter.group(1).toLowerCase()).setSetterName(name).setTypeName(method.getTypeName());
+                continue;
+            }
+            Matcher getter = GET_PATTERN.matcher(name);
+            if (!getter.matches()) {
+                getter = IS_PATTERN.matcher(name);
+                if (!getter.matches() || !BOOLEAN.equals(method.getTypeName())) {
+                    continue;
+                }
+            }
+            result.getOrCreate(getter.group(1).toLowerCase()).setGetterName(name).setTypeName(method.getTypeName());
+        }
+    }
+
+    /**
+     * 字段上的 @Getter / @Setter、@Accessors 优先于类上的；final 字段（@Value 中没有 @NonFinal 的字段）没有 set；
+     * boolean 字段 isActive、active 的 get 都是 isActive；fluent 时 get、set 都以去掉前缀后的字段名命名
+     */
+    private static void resolveLombok(ClassModel classModel, ClassModel.FieldModel field, PropertySet result) {
+        String fieldName = field.getName();
+        if ("serialVersionUID".equals(fieldName) || field.isStatic() || fieldName.startsWith("$")) {
+            return;
+        }
+        boolean isFinal = field.isFinal() || (classModel.isLombokValue() && !field.isLombokNonFinal());
+        boolean getter = field.getLombokGetter() != null ? field.getLombokGetter() : classModel.isLombokGetter();
+        boolean setter = !isFinal && (field.getLombokSetter() != null ? field.getLombokSetter() : classModel.isLombokSetter());
+        if (!getter && !setter) {
+            return;
+        }
+        ClassModel.LombokAccessors accessors = field.getLombokAccessors() != null ? field.getLombokAccessors() : classModel.getLombokAccessors();
+        String name = stripPrefix(fieldName, accessors == null ? Collections.<String>emptyList() : accessors.getPrefixes());
+        if (name == null) {
+            // 配置了 prefix 但字段名不符合时 lombok 不生成
+            return;
+        }
+        boolean fluent = accessors != null && accessors.isFluent();
+        boolean primitiveBoolean = BOOLEAN.equals(field.getTypeName());
+        String propertyName = primitiveBoolean && !fluent && isPrefixed(name, "is") ? name.substring(2) : name;
+        String suffix = capitalize(propertyName);
+        Property property = result.getOrCreate(propertyName.toLowerCase()).setTypeName(field.getTypeName());
+        if (getter) {
+            property.setGetterName(fluent ? name : (primitiveBoolean ? "is" : "get") + suffix);
+        }
+        if (setter) {
+            property.setSetterName(fluent ? name : "set" + suffix);
+        }
+    }
+
+    /**
+     * 按 lombok 的规则去掉前缀：前缀后面必须是非小写字母（前缀以字母结尾时），不匹配任何前缀时返回 null
+     */
+    private static String stripPrefix(String fieldName, List<String> prefixes) {
+        if (prefixes.isEmpty()) {
+            return fieldName;
+        }
+        for (String prefix : prefixes) {
+            if (prefix.isEmpty()) {
+                return fieldName;
+            }
+            if (fieldName.length() > prefix.length() && fieldName.startsWith(prefix)) {
+                char last = prefix.charAt(prefix.length() - 1);
+                char next = fieldName.charAt(prefix.length());
+                if (!Character.isLetter(last) || !Character.isLowerCase(next)) {
+                    String name = fieldName.substring(prefix.length());
+                    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String capitalize(String name) {
+        return name.substring(0, 1).toUpperCase() + name.substring(1);
+    }
+
+    private static boolean isPrefixed(String name, String prefix) {
+        return name.length() > prefix.length() && name.startsWith(prefix) && Character.isUpperCase(name.charAt(prefix.length()));
+    }
+
+    /**
+     * 父类在前，不含 Object
+     */
+    public static List<ClassModel> hierarchy(ClassModel classModel) {
+        List<ClassModel> result = new ArrayList<>();
+        ClassModel current = classModel;
+        while (current != null && !"java.lang.Object".equals(current.getName()) && !"Object".equals(current.getName())) {
+            result.add(current);
+            current = current.getSuperClass();
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
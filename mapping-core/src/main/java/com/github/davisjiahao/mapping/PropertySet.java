@@ -0,0 +1,57 @@
+package com.github.davisjiahao.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PropertySet
+ *
+ * 按父类优先顺序保存的属性集合
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class PropertySet {
+
+    private final Map<String, Property> properties = new LinkedHashMap<>();
+
+    public Property getOrCreate(String key) {
+        return properties.computeIfAbsent(key, Property::new);
+    }
+
+    public Property get(String key) {
+        return properties.get(key);
+    }
+
+    public Collection<Property> getProperties() {
+        return properties.values();
+    }
+
+    public int size() {
+        return properties.size();
+    }
+
+    public List<Property> getWritableProperties() {
+        List<Property> result = new ArrayList<>(properties.size());
+        for (Property property : properties.values()) {
+            if (property.isWritable()) {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+
+    public List<Property> getReadableProperties() {
+        List<Property> result = new ArrayList<>(properties.size());
+        for (Property property : properties.values()) {
+            if (property.isReadable()) {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+}
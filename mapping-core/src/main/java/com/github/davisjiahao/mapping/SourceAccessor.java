@@ -0,0 +1,46 @@
+package com.github.davisjiahao.mapping;
+
+/**
+ * SourceAccessor
+ *
+ * 属性值的来源：参数本身（基础类型）或参数的 get 方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class SourceAccessor {
+    private final SourceParameter parameter;
+    /**
+     * 基础类型参数时为 null
+     */
+    private final Property property;
+
+    public SourceAccessor(SourceParameter parameter, Property property) {
+        this.parameter = parameter;
+        this.property = property;
+    }
+
+    public SourceParameter getParameter() {
+        return parameter;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public boolean isParameterItself() {
+        return property == null;
+    }
+
+    public String getTypeName() {
+        return property == null ? parameter.getTypeName() : property.getTypeName();
+    }
+
+    /**
+     * 取值表达式，如 entity.getName() 或 name
+     */
+    public String toExpression() {
+        return property == null ? parameter.getName() : parameter.getName() + "." + property.getGetterName() + "()";
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.davisjiahao.mapping;
+
+/**
+ * SourceParameter
+ *
+ * 生成方法的一个参数；properties 为 null 表示基础类型参数，直接按参数名匹配
+ *
+ * @author daviswujiahao
+ * @date 2022/12/10 16:00
+ * @since 1.0
+ **/
+public class SourceParameter {
+    private final String name;
+    private final String typeName;
+    private final PropertySet properties;
+
+    public SourceParameter(String name, String typeName, PropertySet properties) {
+        this.name = name;
+        this.typeName = typeName;
+        this.properties = properties;
+    }
+
+    public static SourceParameter baseType(String name, String typeName) {
+        return new SourceParameter(name, typeName, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public PropertySet getProperties() {
+        return properties;
+    }
+
+    public boolean isBaseType() {
+        return properties == null;
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.davisjiahao.mapping;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MappingPlannerTest {
+
+    private static ClassModel base() {
+        return new ClassModel("demo.Base")
+                .addMethod(new ClassModel.MethodModel("getId", "java.lang.Long"))
+                .addMethod(new ClassModel.MethodModel("setId", "java.lang.Long"));
+    }
+
+    private static ClassModel entity() {
+        return new ClassModel("demo.Entity").setSuperClass(base()).setLombokData(true)
+                .addField(new ClassModel.FieldModel("serialVersionUID", "long", true))
+                .addField(new ClassModel.FieldModel("CONSTANT", "java.lang.String", true))
+                .addField(new ClassModel.FieldModel("name", "java.lang.String", false))
+                .addField(new ClassModel.FieldModel("age", "int", false));
+    }
+
+    private static ClassModel dto() {
+        return new ClassModel("demo.Dto").setSuperClass(base())
+                .addMethod(new ClassModel.MethodModel("setName", "java.lang.String"))
+                .addMethod(new ClassModel.MethodModel("setExtra", "java.lang.String"));
+    }
+
+    private static List<String> setters(MappingPlan plan) {
+        return plan.getAssignments().stream()
+                .map(a -> a.getTarget().getSetterName() + "(" + (a.isMapped() ? a.getSource().toExpression() : "") + ")")
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void resolvesSuperClassFirstAndLombokFields() {
+        PropertySet properties = PropertyResolver.resolve(entity());
+        assertEquals(Arrays.asList("id", "name", "age"),
+                properties.getProperties().stream().map(Property::getKey).collect(Collectors.toList()));
+        assertEquals("getName", properties.get("name").getGetterName());
+        assertNull(properties.get("serialversionuid"));
+    }
+
+    @Test
+    public void lombokBooleanFieldsUseIsGetters() {
+        ClassModel flags = new ClassModel("demo.Flags").setLombokData(true)
+                .addField(new ClassModel.FieldModel("active", "boolean", false))
+                .addField(new ClassModel.FieldModel("isDeleted", "boolean", false))
+                .addField(new ClassModel.FieldModel("enabled", "java.lang.Boolean", false));
+        PropertySet properties = PropertyResolver.resolve(flags);
+        assertEquals("isActive", properties.get("active").getGetterName());
+        assertEquals("isDeleted", properties.get("deleted").getGetterName());
+        assertEquals("setDeleted", properties.get("deleted").getSetterName());
+        assertEquals("getEnabled", properties.get("enabled").getGetterName());
+    }
+
+    @Test
+    public void lombokFieldAnnotationsOverrideClassAnnotations() {
+        ClassModel value = new ClassModel("demo.Value").setLombokGetter(true)
+                .addField(new ClassModel.FieldModel("id", "java.lang.Long", false).setFinal(true))
+                .addField(new ClassModel.FieldModel("secret", "java.lang.String", false).setLombokGetter(false))
+                .addField(new ClassModel.FieldModel("counter", "int", false).setStatic(true));
+        ClassModel fieldsOnly = new ClassModel("demo.Plain")
+                .addField(new ClassModel.FieldModel("name", "java.lang.String", false).setLombokGetter(true).setLombokSetter(true))
+                .addField(new ClassModel.FieldModel("note", "java.lang.String", false));
+
+        PropertySet valueProperties = PropertyResolver.resolve(value);
+        assertEquals(Collections.singletonList("id"),
+                valueProperties.getProperties().stream().map(Property::getKey).collect(Collectors.toList()));
+        assertEquals("getId", valueProperties.get("id").getGetterName());
+        assertNull(valueProperties.get("id").getSetterName());
+
+        PropertySet plainProperties = PropertyResolver.resolve(fieldsOnly);
+        assertEquals("setName", plainProperties.get("name").getSetterName());
+        assertNull(plainProperties.get("note"));
+    }
+
+    @Test
+    public void isMethodsAreGettersOnlyForPrimitiveBoolean() {
+        ClassModel compiled = new ClassModel("demo.Compiled")
+                .addMethod(new ClassModel.MethodModel("isActive", "boolean"))
+                .addMethod(new ClassModel.MethodModel("isEmpty", "java.lang.String"));
+        PropertySet properties = PropertyResolver.resolve(compiled);
+        assertEquals("isActive", properties.get("active").getGetterName());
+        assertNull(properties.get("empty"));
+    }
+
+    @Test
+    public void lombokValueFieldsAreFinalUnlessNonFinal() {
+        ClassModel value = new ClassModel("demo.Value").setLombokValue(true).setLombokSetter(true)
+                .addField(new ClassModel.FieldModel("id", "java.lang.Long", false))
+                .addField(new ClassModel.FieldModel("name", "java.lang.String", false).setLombokNonFinal(true));
+        PropertySet properties = PropertyResolver.resolve(value);
+        assertEquals("getId", properties.get("id").getGetterName());
+        assertNull(properties.get("id").getSetterName());
+        assertEquals("setName", properties.get("name").getSetterName());
+    }
+
+    @Test
+    public void lombokAccessorsApplyFluentAndPrefix() {
+        ClassModel.LombokAccessors prefixed = new ClassModel.LombokAccessors(false, Arrays.asList("m", "f"));
+        ClassModel accessors = new ClassModel("demo.Accessors").setLombokData(true).setLombokAccessors(prefixed)
+                .addField(new ClassModel.FieldModel("mName", "java.lang.String", false))
+                .addField(new ClassModel.FieldModel("fIsActive", "boolean", false))
+                .addField(new ClassModel.FieldModel("mode", "java.lang.String", false))
+                .addField(new ClassModel.FieldModel("count", "int", false)
+                        .setLombokAccessors(new ClassModel.LombokAccessors(true, Collections.emptyList())));
+        PropertySet properties = PropertyResolver.resolve(accessors);
+        assertEquals("getName", properties.get("name").getGetterName());
+        assertEquals("setName", properties.get("name").getSetterName());
+        assertEquals("isActive", properties.get("active").getGetterName());
+        // mode 以 m 开头但后面是小写字母，不符合前缀规则，lombok 不生成
+        assertNull(properties.get("ode"));
+        assertNull(properties.get("mode"));
+        assertEquals("count", properties.get("count").getGetterName());
+        assertEquals("count", properties.get("count").getSetterName());
+    }
+
+    @Test
+    public void fullPlanKeepsUnmappedSetters() {
+        SourceParameter entity = new SourceParameter("entity", "demo.Entity", PropertyResolver.resolve(entity()));
+        MappingPlan plan = MappingPlanner.plan(PropertyResolver.resolve(dto()), Collections.singletonList(entity), false);
+        assertEquals(Arrays.asList("setId(entity.getId())", "setName(entity.getName())", "setExtra()"), setters(plan));
+        assertEquals(1, plan.getUnmapped().size());
+    }
+
+    @Test
+    public void matchedPlanUsesBaseTypeParameterByName() {
+        SourceParameter entity = new SourceParameter("entity", "demo.Entity", PropertyResolver.resolve(entity()));
+        SourceParameter extra = SourceParameter.baseType("extra", "java.lang.String");
+        MappingPlan plan = MappingPlanner.plan(PropertyResolver.resolve(dto()), Arrays.asList(entity, extra), true);
+        assertEquals(Arrays.asList("setId(entity.getId())", "setName(entity.getName())", "setExtra(extra)"), setters(plan));
+    }
+
+    @Test
+    public void firstSourceWins() {
+        SourceParameter first = new SourceParameter("first", "demo.Entity", PropertyResolver.resolve(entity()));
+        SourceParameter second = new SourceParameter("second", "demo.Entity", PropertyResolver.resolve(entity()));
+        MappingPlan plan = MappingPlanner.plan(PropertyResolver.resolve(dto()), Arrays.asList(first, second), true);
+        assertEquals(Arrays.asList("setId(first.getId())", "setName(first.getName())"), setters(plan));
+    }
+
+    private static ClassModel snakeSource() {
+        return new ClassModel("demo.Row")
+                .addMethod(new ClassModel.MethodModel("getUser_id", "java.lang.Long"))
+                .addMethod(new ClassModel.MethodModel("getSrcName", "java.lang.String"))
+                .addMethod(new ClassModel.MethodModel("getMail", "java.lang.String"));
+    }
+
+    private static ClassModel camelTarget() {
+        return new ClassModel("demo.User")
+                .addMethod(new ClassModel.MethodModel("setUserID", "java.lang.Long"))
+                .addMethod(new ClassModel.MethodModel("setName", "java.lang.String"))
+                .addMethod(new ClassModel.MethodModel("setEmail", "java.lang.String"));
+    }
+
+    @Test
+    public void exactOptionsKeepLowerCaseMatching() {
+        SourceParameter row = new SourceParameter("row", "demo.Row", PropertyResolver.resolve(snakeSource()));
+        MappingPlan plan = MappingPlanner.plan(PropertyResolver.resolve(camelTarget()), Collections.singletonList(row), true);
+        assertEquals(Collections.emptyList(), setters(plan));
+    }
+
+    @Test
+    public void normalizedOptionsMatchSnakeCasePrefixesAndAliases() {
+        PropertySet source = PropertyResolver.resolve(snakeSource());
+        source.get("mail").addAliases(Collections.singletonList("e_mail"));
+        PropertySet target = PropertyResolver.resolve(camelTarget());
+        target.get("email").addAliases(Collections.singletonList("e_mail"));
+        SourceParameter row = new SourceParameter("row", "demo.Row", source);
+        MatchOptions options = new MatchOptions(NamingStrategy.NORMALIZED, Collections.singletonList("src"));
+
+        MappingPlan plan = MappingPlanner.plan(target, Collections.singletonList(row), true, options);
+        assertEquals(Arrays.asList("setUserID(row.getUser_id())", "setName(row.getSrcName())", "setEmail(row.getMail())"),
+                setters(plan));
+        assertEquals(Arrays.asList(MatchKind.NORMALIZED, MatchKind.PREFIX, MatchKind.ALIAS),
+                plan.getAssignments().stream().map(Assignment::getMatchKind).collect(Collectors.toList()));
+        assertEquals(0.9, plan.getAssignments().get(0).getConfidence(), 0);
+    }
+
+    @Test
+    public void exactMatchWinsOverNormalized() {
+        ClassModel source = new ClassModel("demo.Source")
+                .addMethod(new ClassModel.MethodModel("getUser_id", "java.lang.Long"))
+                .addMethod(new ClassModel.MethodModel("getUserId", "java.lang.Long"));
+        SourceParameter parameter = new SourceParameter("source", "demo.Source", PropertyResolver.resolve(source));
+        MappingPlan plan = MappingPlanner.plan(PropertyResolver.resolve(camelTarget()), Collections.singletonList(parameter), true,
+                new MatchOptions(NamingStrategy.NORMALIZED, Collections.emptyList()));
+        assertEquals(Collections.singletonList("setUserID(source.getUserId())"), setters(plan));
+        assertEquals(MatchKind.EXACT, plan.getAssignments().get(0).getMatchKind());
+    }
+
+    @Test
+    public void splitsFirstWordOfCamelAndSnakeNames() {
+        assertEquals(3, PropertyMatcher.firstWordEnd("srcName"));
+        assertEquals(3, PropertyMatcher.firstWordEnd("src_name"));
+        assertEquals(3, PropertyMatcher.firstWordEnd("URLValue"));
+        assertEquals(4, PropertyMatcher.firstWordEnd("name"));
+    }
+}
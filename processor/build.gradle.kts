@@ -0,0 +1,26 @@
+plugins {
+    `java-library`
+}
+
+group = rootProject.group
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":mapping-core"))
+    implementation("com.squareup:javapoet:1.13.0")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("com.google.testing.compile:compile-testing:0.19")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
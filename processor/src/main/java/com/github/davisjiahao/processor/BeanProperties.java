@@ -0,0 +1,145 @@
+package com.github.davisjiahao.processor;
+
+import com.github.davisjiahao.mapping.ClassModel;
+import com.github.davisjiahao.mapping.MappingPlanner;
+import com.github.davisjiahao.mapping.PropertyResolver;
+import com.github.davisjiahao.mapping.PropertySet;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BeanProperties
+ *
+ * 把 javax.lang.model 的类型转换成 mapping-core 的类结构（包括 lombok 注解），匹配规则与插件共用
+ *
+ * @author daviswujiahao
+ * @date 2022/12/06 19:30
+ * @since 1.0
+ **/
+final class BeanProperties {
+
+    private static final String DATA = "lombok.Data";
+
+    private static final String VALUE = "lombok.Value";
+
+    private static final String GETTER = "lombok.Getter";
+
+    private static final String SETTER = "lombok.Setter";
+
+    private static final String NON_FINAL = "lombok.experimental.NonFinal";
+
+    private static final String ACCESSORS = "lombok.experimental.Accessors";
+
+    private BeanProperties() {
+    }
+
+    static PropertySet resolve(TypeElement typeElement) {
+        return PropertyResolver.resolve(toClassModel(typeElement));
+    }
+
+    /**
+     * 与插件一致：非类类型或基础类型的参数直接按参数名匹配
+     */
+    static boolean isBaseType(TypeMirror typeMirror) {
+        if (typeMirror.getKind() != TypeKind.DECLARED) {
+            return true;
+        }
+        return MappingPlanner.isBaseTypeName(((DeclaredType) typeMirror).asElement().getSimpleName().toString());
+    }
+
+    private static ClassModel toClassModel(TypeElement typeElement) {
+        boolean isValue = findAnnotation(typeElement, VALUE) != null;
+        boolean isData = findAnnotation(typeElement, DATA) != null;
+        ClassModel classModel = new ClassModel(typeElement.getQualifiedName().toString())
+                .setLombokGetter(isData || isEnabled(findAnnotation(typeElement, GETTER)))
+                .setLombokSetter(isData || isEnabled(findAnnotation(typeElement, SETTER)))
+                .setLombokValue(isValue)
+                .setLombokAccessors(toAccessors(findAnnotation(typeElement, ACCESSORS)));
+        for (VariableElement field : ElementFilter.fieldsIn(typeElement.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            AnnotationMirror getter = findAnnotation(field, GETTER);
+            AnnotationMirror setter = findAnnotation(field, SETTER);
+            classModel.addField(new ClassModel.FieldModel(field.getSimpleName().toString(), field.asType().toString(),
+                    modifiers.contains(Modifier.STATIC) && modifiers.contains(Modifier.FINAL))
+                    .setStatic(modifiers.contains(Modifier.STATIC))
+                    .setFinal(modifiers.contains(Modifier.FINAL))
+                    .setLombokNonFinal(findAnnotation(field, NON_FINAL) != null)
+                    .setLombokGetter(getter == null ? null : isEnabled(getter))
+                    .setLombokSetter(setter == null ? null : isEnabled(setter))
+                    .setLombokAccessors(toAccessors(findAnnotation(field, ACCESSORS))));
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(typeElement.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            // 只保留可以直接调用的 set(x)、get() 与 is()（lombok 已经处理过的类里会有）
+            String name = method.getSimpleName().toString();
+            int parameterCount = method.getParameters().size();
+            if (name.startsWith("set") && parameterCount == 1) {
+                classModel.addMethod(new ClassModel.MethodModel(name, method.getParameters().get(0).asType().toString()));
+            } else if ((name.startsWith("get") || name.startsWith("is")) && parameterCount == 0) {
+                classModel.addMethod(new ClassModel.MethodModel(name, method.getReturnType().toString()));
+            }
+        }
+        TypeMirror superclass = typeElement.getSuperclass();
+        if (superclass.getKind() == TypeKind.DECLARED) {
+            classModel.setSuperClass(toClassModel((TypeElement) ((DeclaredType) superclass).asElement()));
+        }
+        return classModel;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotationName.contentEquals(((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @Accessors 的 fluent 和 prefix，规则由 mapping-core 的 PropertyResolver 应用
+     */
+    private static ClassModel.LombokAccessors toAccessors(AnnotationMirror annotation) {
+        if (annotation == null) {
+            return null;
+        }
+        boolean fluent = false;
+        List<String> prefixes = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            Object value = entry.getValue().getValue();
+            if ("fluent".contentEquals(entry.getKey().getSimpleName())) {
+                fluent = Boolean.TRUE.equals(value);
+            } else if ("prefix".contentEquals(entry.getKey().getSimpleName()) && value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    prefixes.add(String.valueOf(((AnnotationValue) item).getValue()));
+                }
+            }
+        }
+        return new ClassModel.LombokAccessors(fluent, prefixes);
+    }
+
+    /**
+     * 与插件一致：AccessLevel.NONE 不生成，PRIVATE 生成的方法在其他类中不可见，同样忽略
+     */
+    private static boolean isEnabled(AnnotationMirror annotation) {
+        if (annotation == null) {
+            return false;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if ("value".contentEquals(entry.getKey().getSimpleName())) {
+                String level = String.valueOf(entry.getValue().getValue());
+                return !level.endsWith("NONE") && !level.endsWith("PRIVATE");
+            }
+        }
+        return true;
+    }
+}
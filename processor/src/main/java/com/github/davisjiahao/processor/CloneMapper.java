@@ -0,0 +1,26 @@
+package com.github.davisjiahao.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * CloneMapper
+ *
+ * 标记接口，编译期为接口中的每个方法生成与插件相同的 clone 实现（XxxImpl）
+ *
+ * @author daviswujiahao
+ * @date 2022/12/06 19:30
+ * @since 1.0
+ **/
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CloneMapper {
+
+    /**
+     * false：目标类的每个 set 方法都必须有来源（对应插件的 full），缺失时编译报错；
+     * true：只拷贝匹配上的属性（对应插件的 matched）
+     */
+    boolean matched() default false;
+}
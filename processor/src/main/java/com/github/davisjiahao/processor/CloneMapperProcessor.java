@@ -0,0 +1,223 @@
+package com.github.davisjiahao.processor;
+
+import com.github.davisjiahao.mapping.Assignment;
+import com.github.davisjiahao.mapping.MappingPlan;
+import com.github.davisjiahao.mapping.MappingPlanner;
+import com.github.davisjiahao.mapping.Property;
+import com.github.davisjiahao.mapping.SourceParameter;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * CloneMapperProcessor
+ *
+ * 为 {@link CloneMapper} 标记的接口生成实现类，方法体与插件生成的一致：
+ * new 一个目标对象，逐个调用 set 方法，不使用反射。
+ * 目标类没有可访问的无参构造器、或匹配到的属性类型不能赋值时在 mapper 方法上报错，不生成实现类
+ *
+ * @author daviswujiahao
+ * @date 2022/12/06 19:30
+ * @since 1.0
+ **/
+public class CloneMapperProcessor extends AbstractProcessor {
+
+    private static final String IMPL_SUFFIX = "Impl";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(CloneMapper.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(CloneMapper.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@CloneMapper can only be applied to interfaces");
+                continue;
+            }
+            TypeElement mapper = (TypeElement) element;
+            boolean matched = mapper.getAnnotation(CloneMapper.class).matched();
+            try {
+                generate(mapper, matched);
+            } catch (IOException e) {
+                error(mapper, "Failed to write mapper implementation: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement mapper, boolean matched) throws IOException {
+        ClassName mapperName = ClassName.get(mapper);
+        TypeSpec.Builder impl = TypeSpec.classBuilder(String.join("_", mapperName.simpleNames()) + IMPL_SUFFIX)
+                .addModifiers(Modifier.PUBLIC)
+                .addSuperinterface(TypeName.get(mapper.asType()))
+                .addOriginatingElement(mapper);
+
+        boolean failed = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(mapper))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            MethodSpec methodSpec = buildMethod(mapper, method, matched);
+            if (methodSpec != null) {
+                impl.addMethod(methodSpec);
+            } else {
+                failed = true;
+            }
+        }
+        // 已经在 mapper 方法上报错，不再生成编译不过的实现类
+        if (failed) {
+            return;
+        }
+
+        JavaFile.builder(mapperName.packageName(), impl.build())
+                .skipJavaLangImports(true)
+                .build()
+                .writeTo(processingEnv.getFiler());
+    }
+
+    /**
+     * 生成 mapper 方法的实现，报错时返回 null
+     */
+    private MethodSpec buildMethod(TypeElement mapper, ExecutableElement method, boolean matched) {
+        TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind() != TypeKind.DECLARED) {
+            error(method, "Mapper method must return a class type");
+            return null;
+        }
+        TypeElement target = (TypeElement) ((DeclaredType) returnType).asElement();
+        if (!hasAccessibleNoArgConstructor(target, mapper)) {
+            error(method, "Target type " + target.getQualifiedName() + " has no accessible no-arg constructor");
+            return null;
+        }
+
+        // 参数的 get 方法，先出现的参数优先
+        List<SourceParameter> sources = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String paramName = parameter.getSimpleName().toString();
+            TypeMirror paramType = parameter.asType();
+            if (BeanProperties.isBaseType(paramType)) {
+                sources.add(SourceParameter.baseType(paramName, paramType.toString()));
+            } else {
+                TypeElement source = (TypeElement) ((DeclaredType) paramType).asElement();
+                sources.add(new SourceParameter(paramName, paramType.toString(), BeanProperties.resolve(source)));
+            }
+        }
+        MappingPlan plan = MappingPlanner.plan(BeanProperties.resolve(target), sources, true);
+        List<String> incompatible = findIncompatible(method, (DeclaredType) returnType, plan);
+        if (!incompatible.isEmpty()) {
+            error(method, "Incompatible property types: " + String.join(", ", incompatible));
+            return null;
+        }
+
+        MethodSpec.Builder builder = MethodSpec.overriding(method);
+        builder.addStatement("$T newEntity = new $T()", returnType, returnType);
+        for (Assignment assignment : plan.getAssignments()) {
+            builder.addStatement("newEntity.$N($L)", assignment.getTarget().getSetterName(), assignment.getSource().toExpression());
+        }
+        List<String> unmapped = plan.getUnmapped().stream().map(Property::getKey).collect(Collectors.toList());
+        builder.addStatement("return newEntity");
+
+        if (!matched && !unmapped.isEmpty()) {
+            error(method, "Unmapped target properties: " + String.join(", ", unmapped)
+                    + ". Use @CloneMapper(matched = true) to copy matched properties only");
+        }
+        return builder.build();
+    }
+
+    /**
+     * 实现类与 mapper 在同一个包中：public 的构造器，或同一个包中非 private 的构造器可以访问；
+     * 抽象类、接口、非静态内部类都不能直接 new
+     */
+    private boolean hasAccessibleNoArgConstructor(TypeElement target, TypeElement mapper) {
+        Set<Modifier> modifiers = target.getModifiers();
+        if (target.getKind() != ElementKind.CLASS || modifiers.contains(Modifier.ABSTRACT)
+                || (target.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC))) {
+            return false;
+        }
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(target)
+                .equals(processingEnv.getElementUtils().getPackageOf(mapper));
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(target.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && (constructor.getModifiers().contains(Modifier.PUBLIC)
+                    || (samePackage && !constructor.getModifiers().contains(Modifier.PRIVATE)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 来源类型不能赋值给 set 方法参数类型的属性，形如 name (java.lang.Integer -&gt; java.lang.String)；
+     * 找不到 get / set 方法（如 lombok 生成的）时按同名字段的类型检查，字段也没有时跳过
+     */
+    private List<String> findIncompatible(ExecutableElement method, DeclaredType targetType, MappingPlan plan) {
+        Types types = processingEnv.getTypeUtils();
+        Map<String, TypeMirror> parameterTypes = new HashMap<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.put(parameter.getSimpleName().toString(), parameter.asType());
+        }
+        List<String> incompatible = new ArrayList<>();
+        for (Assignment assignment : plan.getAssignments()) {
+            Property targetProperty = assignment.getTarget();
+            TypeMirror to = memberType(targetType, targetProperty.getSetterName(), 1, targetProperty.getKey());
+            TypeMirror from = parameterTypes.get(assignment.getSource().getParameter().getName());
+            Property sourceProperty = assignment.getSource().getProperty();
+            if (sourceProperty != null && from != null) {
+                from = from.getKind() == TypeKind.DECLARED
+                        ? memberType((DeclaredType) from, sourceProperty.getGetterName(), 0, sourceProperty.getKey()) : null;
+            }
+            if (from != null && to != null && !types.isAssignable(from, to)) {
+                incompatible.add(targetProperty.getKey() + " (" + from + " -> " + to + ")");
+            }
+        }
+        return incompatible;
+    }
+
+    /**
+     * get 方法（parameterCount 为 0）的返回类型或 set 方法（parameterCount 为 1）的参数类型，泛型按 owner 替换；
+     * 没有该方法时取字段 fieldName 的类型，都没有时返回 null
+     */
+    private TypeMirror memberType(DeclaredType owner, String methodName, int parameterCount, String fieldName) {
+        Types types = processingEnv.getTypeUtils();
+        List<? extends Element> members = processingEnv.getElementUtils().getAllMembers((TypeElement) owner.asElement());
+        for (ExecutableElement candidate : ElementFilter.methodsIn(members)) {
+            if (candidate.getSimpleName().contentEquals(methodName) && candidate.getParameters().size() == parameterCount) {
+                ExecutableType executableType = (ExecutableType) types.asMemberOf(owner, candidate);
+                return parameterCount == 0 ? executableType.getReturnType() : executableType.getParameterTypes().get(0);
+            }
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(members)) {
+            if (field.getSimpleName().contentEquals(fieldName)) {
+                return types.asMemberOf(owner, field);
+            }
+        }
+        return null;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,247 @@
+package com.github.davisjiahao.processor;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CloneMapperProcessorTest {
+
+    private static final JavaFileObject SOURCE = JavaFileObjects.forSourceLines("demo.Source",
+            "package demo;",
+            "public class Source {",
+            "    private Long id;",
+            "    private String name;",
+            "    public Long getId() { return id; }",
+            "    public void setId(Long id) { this.id = id; }",
+            "    public String getName() { return name; }",
+            "    public void setName(String name) { this.name = name; }",
+            "}");
+
+    private static final JavaFileObject TARGET = JavaFileObjects.forSourceLines("demo.Target",
+            "package demo;",
+            "public class Target {",
+            "    private Long id;",
+            "    private String name;",
+            "    private String remark;",
+            "    public Long getId() { return id; }",
+            "    public void setId(Long id) { this.id = id; }",
+            "    public String getName() { return name; }",
+            "    public void setName(String name) { this.name = name; }",
+            "    public String getRemark() { return remark; }",
+            "    public void setRemark(String remark) { this.remark = remark; }",
+            "}");
+
+    @Test
+    public void generatesFullMapperWhenEveryPropertyHasASource() throws IOException {
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.SourceMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper",
+                "public interface SourceMapper {",
+                "    Source copy(Source source);",
+                "}");
+
+        Compilation compilation = compile(SOURCE, mapper);
+
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        String impl = generated(compilation, "demo.SourceMapperImpl");
+        assertTrue(impl, impl.contains("newEntity.setId(source.getId());"));
+        assertTrue(impl, impl.contains("newEntity.setName(source.getName());"));
+    }
+
+    @Test
+    public void reportsUnmappedPropertiesInFullMode() {
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.TargetMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper",
+                "public interface TargetMapper {",
+                "    Target toTarget(Source source);",
+                "}");
+
+        Compilation compilation = compile(SOURCE, TARGET, mapper);
+
+        assertEquals(Compilation.Status.FAILURE, compilation.status());
+        assertEquals(1, compilation.errors().size());
+        Diagnostic<? extends JavaFileObject> error = compilation.errors().get(0);
+        assertTrue(error.getMessage(null), error.getMessage(null).contains("Unmapped target properties: remark"));
+    }
+
+    @Test
+    public void reportsTargetWithoutAccessibleNoArgConstructor() {
+        JavaFileObject immutable = JavaFileObjects.forSourceLines("demo.Immutable",
+                "package demo;",
+                "public class Immutable {",
+                "    private final Long id;",
+                "    public Immutable(Long id) { this.id = id; }",
+                "    public Long getId() { return id; }",
+                "}");
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.ImmutableMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper(matched = true)",
+                "public interface ImmutableMapper {",
+                "    Immutable toImmutable(Source source);",
+                "}");
+
+        Compilation compilation = compile(SOURCE, immutable, mapper);
+
+        assertEquals(Compilation.Status.FAILURE, compilation.status());
+        assertEquals(1, compilation.errors().size());
+        Diagnostic<? extends JavaFileObject> error = compilation.errors().get(0);
+        assertTrue(error.getMessage(null), error.getMessage(null).contains("demo.Immutable has no accessible no-arg constructor"));
+        assertTrue(error.getSource().getName(), error.getSource().getName().endsWith("demo/ImmutableMapper.java"));
+        assertFalse(compilation.generatedSourceFile("demo.ImmutableMapperImpl").isPresent());
+    }
+
+    @Test
+    public void reportsIncompatiblePropertyTypes() {
+        JavaFileObject numbered = JavaFileObjects.forSourceLines("demo.Numbered",
+                "package demo;",
+                "public class Numbered {",
+                "    private long id;",
+                "    private Integer name;",
+                "    public long getId() { return id; }",
+                "    public Integer getName() { return name; }",
+                "}");
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.NumberedMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper(matched = true)",
+                "public interface NumberedMapper {",
+                "    Source toSource(Numbered numbered);",
+                "}");
+
+        Compilation compilation = compile(SOURCE, numbered, mapper);
+
+        // long -> Long 可以装箱，只有 name 报错
+        assertEquals(Compilation.Status.FAILURE, compilation.status());
+        assertEquals(1, compilation.errors().size());
+        Diagnostic<? extends JavaFileObject> error = compilation.errors().get(0);
+        assertTrue(error.getMessage(null),
+                error.getMessage(null).contains("Incompatible property types: name (java.lang.Integer -> java.lang.String)"));
+        assertTrue(error.getSource().getName(), error.getSource().getName().endsWith("demo/NumberedMapper.java"));
+        assertFalse(compilation.generatedSourceFile("demo.NumberedMapperImpl").isPresent());
+    }
+
+    @Test
+    public void generatesMatchedMapperSkippingUnmappedProperties() throws IOException {
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.TargetMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper(matched = true)",
+                "public interface TargetMapper {",
+                "    Target toTarget(Source source);",
+                "}");
+
+        Compilation compilation = compile(SOURCE, TARGET, mapper);
+
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        String impl = generated(compilation, "demo.TargetMapperImpl");
+        assertTrue(impl, impl.contains("newEntity.setId(source.getId());"));
+        assertTrue(impl, impl.contains("newEntity.setName(source.getName());"));
+        assertFalse(impl, impl.contains("setRemark"));
+    }
+
+    @Test
+    public void readsLombokDataSourceFromFields() {
+        JavaFileObject data = JavaFileObjects.forSourceLines("lombok.Data",
+                "package lombok;",
+                "public @interface Data {}");
+        JavaFileObject lombokSource = JavaFileObjects.forSourceLines("demo.LombokSource",
+                "package demo;",
+                "@lombok.Data",
+                "public class LombokSource {",
+                "    private Long id;",
+                "    private String name;",
+                "    private String remark;",
+                "    private static final String IGNORED = \"\";",
+                "}");
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.TargetMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper",
+                "public interface TargetMapper {",
+                "    Target toTarget(LombokSource source);",
+                "}");
+
+        Compilation compilation = compile(data, lombokSource, TARGET, mapper);
+
+        // 桩注解不会真正生成 get 方法：没有 Unmapped 错误，剩下的错误都是生成代码调用的 get 方法
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> error : compilation.errors()) {
+            messages.add(error.getMessage(null));
+            assertFalse(error.getMessage(null), error.getMessage(null).contains("Unmapped"));
+            assertTrue(error.getMessage(null), error.getSource().getName().endsWith("demo/TargetMapperImpl.java"));
+        }
+        String text = String.join("\n", messages);
+        assertTrue(text, text.contains("getId()"));
+        assertTrue(text, text.contains("getRemark()"));
+        assertFalse(text, text.contains("IGNORED"));
+    }
+
+    @Test
+    public void readsIsGettersOfBooleanProperties() throws IOException {
+        JavaFileObject flags = JavaFileObjects.forSourceLines("demo.Flags",
+                "package demo;",
+                "public class Flags {",
+                "    private boolean active;",
+                "    public boolean isActive() { return active; }",
+                "    public void setActive(boolean active) { this.active = active; }",
+                "}");
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.FlagsMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper",
+                "public interface FlagsMapper {",
+                "    Flags copy(Flags source);",
+                "}");
+
+        Compilation compilation = compile(flags, mapper);
+
+        assertEquals(Compilation.Status.SUCCESS, compilation.status());
+        assertTrue(generated(compilation, "demo.FlagsMapperImpl").contains("newEntity.setActive(source.isActive());"));
+    }
+
+    @Test
+    public void readsLombokGetterOnFieldsOfUnannotatedClass() {
+        JavaFileObject getter = JavaFileObjects.forSourceLines("lombok.Getter",
+                "package lombok;",
+                "public @interface Getter {}");
+        JavaFileObject lombokSource = JavaFileObjects.forSourceLines("demo.FieldSource",
+                "package demo;",
+                "public class FieldSource {",
+                "    @lombok.Getter private Long id;",
+                "    @lombok.Getter private String name;",
+                "    @lombok.Getter private String remark;",
+                "}");
+        JavaFileObject mapper = JavaFileObjects.forSourceLines("demo.TargetMapper",
+                "package demo;",
+                "@com.github.davisjiahao.processor.CloneMapper",
+                "public interface TargetMapper {",
+                "    Target toTarget(FieldSource source);",
+                "}");
+
+        Compilation compilation = compile(getter, lombokSource, TARGET, mapper);
+
+        // 同上，桩注解不生成 get 方法，只检查没有 Unmapped 错误
+        assertFalse(compilation.errors().isEmpty());
+        for (Diagnostic<? extends JavaFileObject> error : compilation.errors()) {
+            assertFalse(error.getMessage(null), error.getMessage(null).contains("Unmapped"));
+        }
+    }
+
+    private static Compilation compile(JavaFileObject... files) {
+        return javac().withProcessors(new CloneMapperProcessor()).compile(files);
+    }
+
+    private static String generated(Compilation compilation, String qualifiedName) throws IOException {
+        JavaFileObject file = compilation.generatedSourceFile(qualifiedName)
+                .orElseThrow(() -> new AssertionError(qualifiedName + " was not generated: " + compilation.diagnostics()));
+        return file.getCharContent(true).toString();
+    }
+}
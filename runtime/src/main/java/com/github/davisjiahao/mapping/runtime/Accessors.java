@@ -0,0 +1,215 @@
+package com.github.davisjiahao.mapping.runtime;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Accessors
+ *
+ * 用 LambdaMetafactory 把 get/set 方法和无参构造器编译成函数式接口实例，
+ * JIT 可以像普通 lambda 一样内联；无法访问时退回 MethodHandle
+ *
+ * @author daviswujiahao
+ * @date 2022/12/17 15:20
+ * @since 1.0
+ **/
+final class Accessors {
+
+    private static final MethodType GETTER_SAM = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_SAM = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType SUPPLIER_SAM = MethodType.methodType(Object.class);
+
+    private Accessors() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> getter(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = lookupFor(owner);
+            boolean direct = isDefinable(lookup, owner, method.getModifiers());
+            if (!direct) {
+                method.setAccessible(true);
+            }
+            MethodHandle handle = lookup.unreflect(method);
+            if (direct) {
+                CallSite site = metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                        GETTER_SAM, handle, MethodType.methodType(wrap(method.getReturnType()), owner));
+                if (site != null) {
+                    return (Function<Object, Object>) site.getTarget().invokeExact();
+                }
+            }
+            MethodHandle generic = handle.asType(GETTER_SAM);
+            return source -> {
+                try {
+                    return generic.invokeExact(source);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> setter(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = lookupFor(owner);
+            boolean direct = isDefinable(lookup, owner, method.getModifiers());
+            if (!direct) {
+                method.setAccessible(true);
+            }
+            MethodHandle handle = lookup.unreflect(method);
+            if (direct) {
+                // 链式 set 方法的返回值被丢弃，基本类型参数由 LambdaMetafactory 拆箱
+                CallSite site = metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+                        SETTER_SAM, handle, MethodType.methodType(void.class, owner, wrap(method.getParameterTypes()[0])));
+                if (site != null) {
+                    return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+                }
+            }
+            MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (target, value) -> {
+                try {
+                    generic.invokeExact(target, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> constructor(Constructor<?> constructor) {
+        Class<?> owner = constructor.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = lookupFor(owner);
+            boolean direct = isDefinable(lookup, owner, constructor.getModifiers());
+            if (!direct) {
+                constructor.setAccessible(true);
+            }
+            MethodHandle handle = lookup.unreflectConstructor(constructor);
+            if (direct) {
+                CallSite site = metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                        SUPPLIER_SAM, handle, MethodType.methodType(owner));
+                if (site != null) {
+                    return (Supplier<Object>) site.getTarget().invokeExact();
+                }
+            }
+            MethodHandle generic = handle.asType(SUPPLIER_SAM);
+            return () -> {
+                try {
+                    return generic.invokeExact();
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot access " + constructor, e);
+        }
+    }
+
+    /**
+     * Java 14+ 跨类加载器的 privateLookupIn 不是完整权限，LambdaMetafactory 会拒绝，此时返回 null 由调用方走 MethodHandle
+     */
+    private static CallSite metafactory(MethodHandles.Lookup lookup, String name, MethodType factoryType, MethodType samType,
+                                        MethodHandle handle, MethodType instantiatedType) {
+        try {
+            return LambdaMetafactory.metafactory(lookup, name, factoryType, samType, handle, instantiatedType);
+        } catch (LambdaConversionException e) {
+            return null;
+        }
+    }
+
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+    /**
+     * 目标类不在本模块的类加载器可见范围内时（插件、模块化容器），
+     * Java 9+ 用 privateLookupIn 在目标类所在的加载器里生成 lambda 类，这样卸载目标类时一并卸载
+     */
+    private static MethodHandles.Lookup lookupFor(Class<?> owner) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (isVisible(lookup.lookupClass().getClassLoader(), owner)) {
+            return lookup;
+        }
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, owner, lookup);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return lookup;
+        }
+    }
+
+    /**
+     * lambda 类定义在 lookup 类所在的加载器中，只有能从那里看到 owner 并且有访问权限时才能直接调用，
+     * 否则（如 package-private 父类上的 public get 方法）走 MethodHandle
+     */
+    private static boolean isDefinable(MethodHandles.Lookup lookup, Class<?> owner, int modifiers) {
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0
+                || !isVisible(lookup.lookupClass().getClassLoader(), owner)) {
+            return false;
+        }
+        return lookup.lookupClass() == owner || (Modifier.isPublic(owner.getModifiers()) && Modifier.isPublic(modifiers));
+    }
+
+    private static boolean isVisible(ClassLoader loader, Class<?> type) {
+        if (type.getClassLoader() == null || type.getClassLoader() == loader) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
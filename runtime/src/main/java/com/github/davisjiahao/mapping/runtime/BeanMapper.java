@@ -0,0 +1,99 @@
+package com.github.davisjiahao.mapping.runtime;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * BeanMapper
+ *
+ * 一对 (来源类, 目标类) 编译好的转换器，线程安全，应当获取一次后重复使用
+ *
+ * @author daviswujiahao
+ * @date 2022/12/17 15:20
+ * @since 1.0
+ **/
+public final class BeanMapper<S, T> {
+
+    private final Class<S> sourceClass;
+
+    private final Class<T> targetClass;
+
+    /**
+     * 没有可访问的无参构造器时为 null，只能使用 copy
+     */
+    private final Supplier<Object> constructor;
+
+    private final Copier[] copiers;
+
+    BeanMapper(Class<S> sourceClass, Class<T> targetClass, Supplier<Object> constructor, Copier[] copiers) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.constructor = constructor;
+        this.copiers = copiers;
+    }
+
+    /**
+     * 新建目标对象并复制属性，source 为 null 时返回 null
+     */
+    public T map(S source) {
+        if (source == null) {
+            return null;
+        }
+        if (constructor == null) {
+            throw new UnsupportedOperationException(targetClass.getName() + " has no accessible no-arg constructor");
+        }
+        T target = targetClass.cast(constructor.get());
+        copy(source, target);
+        return target;
+    }
+
+    /**
+     * 把 source 的属性复制到已有的 target
+     */
+    public void copy(S source, T target) {
+        for (Copier copier : copiers) {
+            copier.copy(source, target);
+        }
+    }
+
+    public Class<S> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 复制的属性个数
+     */
+    public int size() {
+        return copiers.length;
+    }
+
+    static final class Copier {
+
+        private final Function<Object, Object> getter;
+
+        private final BiConsumer<Object, Object> setter;
+
+        /**
+         * 目标是基本类型时跳过 null，保留目标原有的值，不抛出拆箱的 NullPointerException
+         */
+        private final boolean skipNull;
+
+        Copier(Function<Object, Object> getter, BiConsumer<Object, Object> setter, boolean skipNull) {
+            this.getter = getter;
+            this.setter = setter;
+            this.skipNull = skipNull;
+        }
+
+        void copy(Object source, Object target) {
+            Object value = getter.apply(source);
+            if (value != null || !skipNull) {
+                setter.accept(target, value);
+            }
+        }
+    }
+}
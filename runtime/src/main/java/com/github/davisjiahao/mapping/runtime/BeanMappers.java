@@ -0,0 +1,268 @@
+package com.github.davisjiahao.mapping.runtime;
+
+import com.github.davisjiahao.mapping.*;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * BeanMappers
+ *
+ * 运行时才知道类型的转换入口，匹配规则与插件生成的代码一致：父类在前，get/set 去掉前缀后按小写名匹配；
+ * full 模式下目标有属性没有来源时抛出异常，matched 模式只复制匹配上的属性。
+ * <p>
+ * 每对类型只编译一次。转换器挂在来源类的 {@link ClassValue} 上，随来源类的类加载器一起回收；
+ * 目标类不是来源类加载器（或其父加载器）加载时只弱引用转换器，不会阻止目标类被卸载。
+ * 缓存有上限（先进先出淘汰），{@link #evict(ClassLoader)} 只用于提前释放
+ *
+ * @author daviswujiahao
+ * @date 2022/12/17 15:20
+ * @since 1.0
+ **/
+public final class BeanMappers {
+
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final String SOURCE = "source";
+
+    private static final ClassValue<SourceMappers> MAPPERS = new ClassValue<SourceMappers>() {
+        @Override
+        protected SourceMappers computeValue(Class<?> type) {
+            return new SourceMappers();
+        }
+    };
+
+    /**
+     * 编译顺序，用于上限淘汰、evict 和 clear；只弱引用两个类
+     */
+    private static final Queue<Registration> INSERTION_ORDER = new ConcurrentLinkedQueue<>();
+
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    private BeanMappers() {
+    }
+
+    /**
+     * full 模式：目标的每个 set 方法都必须有来源
+     */
+    public static <S, T> BeanMapper<S, T> get(Class<S> sourceClass, Class<T> targetClass) {
+        return get(sourceClass, targetClass, false);
+    }
+
+    /**
+     * matched 模式：只复制匹配上的属性
+     */
+    public static <S, T> BeanMapper<S, T> getMatched(Class<S> sourceClass, Class<T> targetClass) {
+        return get(sourceClass, targetClass, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanMapper<S, T> get(Class<S> sourceClass, Class<T> targetClass, boolean matched) {
+        SourceMappers mappers = MAPPERS.get(sourceClass);
+        BeanMapper<?, ?> mapper = mappers.get(targetClass, matched);
+        if (mapper == null) {
+            // 并发首次访问可能重复编译，结果等价，只保留先放入的
+            mapper = compile(sourceClass, targetClass, matched);
+            BeanMapper<?, ?> existing = mappers.putIfAbsent(targetClass, matched, mapper,
+                    isAncestorOrSelf(targetClass.getClassLoader(), sourceClass.getClassLoader()));
+            if (existing != null) {
+                mapper = existing;
+            } else {
+                INSERTION_ORDER.add(new Registration(sourceClass, targetClass, matched));
+                trim();
+            }
+        }
+        return (BeanMapper<S, T>) mapper;
+    }
+
+    /**
+     * 缓存的类型对个数上限，超过后淘汰最早编译的
+     */
+    public static void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        BeanMappers.maxSize = maxSize;
+        trim();
+    }
+
+    /**
+     * 提前移除来源或目标由该类加载器（或其子加载器）加载的转换器；不调用时也会随类加载器回收
+     */
+    public static void evict(ClassLoader classLoader) {
+        INSERTION_ORDER.removeIf(registration -> registration.isLoadedBy(classLoader) && registration.remove());
+        prune();
+    }
+
+    public static void clear() {
+        for (Registration registration; (registration = INSERTION_ORDER.poll()) != null; ) {
+            registration.remove();
+        }
+    }
+
+    public static int size() {
+        prune();
+        return INSERTION_ORDER.size();
+    }
+
+    private static void trim() {
+        prune();
+        while (INSERTION_ORDER.size() > maxSize) {
+            Registration eldest = INSERTION_ORDER.poll();
+            if (eldest == null) {
+                return;
+            }
+            eldest.remove();
+        }
+    }
+
+    /**
+     * 去掉类已被回收或弱引用的转换器已被回收的登记
+     */
+    private static void prune() {
+        INSERTION_ORDER.removeIf(registration -> !registration.isCached());
+    }
+
+    private static boolean isAncestorOrSelf(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null) {
+            return true;
+        }
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <S, T> BeanMapper<S, T> compile(Class<S> sourceClass, Class<T> targetClass, boolean matched) {
+        PropertySet sourceProperties = PropertyResolver.resolve(ClassModels.of(sourceClass));
+        PropertySet targetProperties = PropertyResolver.resolve(ClassModels.of(targetClass));
+        SourceParameter source = new SourceParameter(SOURCE, sourceClass.getName(), sourceProperties);
+        MappingPlan plan = MappingPlanner.plan(targetProperties, Collections.singletonList(source), true);
+
+        List<String> unmapped = new ArrayList<>();
+        for (Property property : plan.getUnmapped()) {
+            unmapped.add(property.getKey());
+        }
+        List<BeanMapper.Copier> copiers = new ArrayList<>(plan.getAssignments().size());
+        for (Assignment assignment : plan.getAssignments()) {
+            Method getter = ClassModels.findGetter(sourceClass, assignment.getSource().getProperty().getGetterName());
+            Method setter = getter == null ? null
+                    : ClassModels.findSetter(targetClass, assignment.getTarget().getSetterName(), getter.getReturnType());
+            if (setter == null) {
+                // 类型不兼容的同名属性按没有来源处理
+                unmapped.add(assignment.getTarget().getKey() + " (incompatible type)");
+                continue;
+            }
+            copiers.add(new BeanMapper.Copier(Accessors.getter(getter), Accessors.setter(setter),
+                    setter.getParameterTypes()[0].isPrimitive()));
+        }
+        if (!matched && !unmapped.isEmpty()) {
+            throw new IllegalArgumentException("Unmapped target properties of " + targetClass.getName() + " from "
+                    + sourceClass.getName() + ": " + String.join(", ", unmapped) + ". Use matched mode to copy matched properties only");
+        }
+        return new BeanMapper<>(sourceClass, targetClass, constructor(targetClass), copiers.toArray(new BeanMapper.Copier[0]));
+    }
+
+    private static Supplier<Object> constructor(Class<?> targetClass) {
+        if (targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = targetClass.getDeclaredConstructor();
+            return Modifier.isPrivate(constructor.getModifiers()) ? null : Accessors.constructor(constructor);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 一个来源类的转换器，key 为目标类（弱引用）。目标类的生命周期不短于来源类时强引用转换器，
+     * 否则转换器（它引用目标类）只被弱引用，目标类的类加载器可以先被卸载，之后需要时重新编译
+     */
+    private static final class SourceMappers {
+
+        private final Map<Class<?>, Object> full = new WeakHashMap<>();
+
+        private final Map<Class<?>, Object> matched = new WeakHashMap<>();
+
+        synchronized BeanMapper<?, ?> get(Class<?> targetClass, boolean isMatched) {
+            return unwrap((isMatched ? matched : full).get(targetClass));
+        }
+
+        synchronized BeanMapper<?, ?> putIfAbsent(Class<?> targetClass, boolean isMatched, BeanMapper<?, ?> mapper, boolean strong) {
+            Map<Class<?>, Object> mappers = isMatched ? matched : full;
+            BeanMapper<?, ?> existing = unwrap(mappers.get(targetClass));
+            if (existing == null) {
+                mappers.put(targetClass, strong ? mapper : new WeakReference<>(mapper));
+            }
+            return existing;
+        }
+
+        synchronized void remove(Class<?> targetClass, boolean isMatched) {
+            (isMatched ? matched : full).remove(targetClass);
+        }
+
+        private static BeanMapper<?, ?> unwrap(Object value) {
+            return value instanceof WeakReference ? (BeanMapper<?, ?>) ((WeakReference<?>) value).get() : (BeanMapper<?, ?>) value;
+        }
+    }
+
+    /**
+     * 编译过的类型对，弱引用两个类，不影响类加载器的回收
+     */
+    private static final class Registration {
+
+        private final WeakReference<Class<?>> sourceClass;
+
+        private final WeakReference<Class<?>> targetClass;
+
+        private final boolean matched;
+
+        Registration(Class<?> sourceClass, Class<?> targetClass, boolean matched) {
+            this.sourceClass = new WeakReference<>(sourceClass);
+            this.targetClass = new WeakReference<>(targetClass);
+            this.matched = matched;
+        }
+
+        boolean isCached() {
+            Class<?> source = sourceClass.get();
+            Class<?> target = targetClass.get();
+            return source != null && target != null && MAPPERS.get(source).get(target, matched) != null;
+        }
+
+        /**
+         * 总是返回 true，便于在 removeIf 中使用
+         */
+        boolean remove() {
+            Class<?> source = sourceClass.get();
+            Class<?> target = targetClass.get();
+            if (source != null && target != null) {
+                MAPPERS.get(source).remove(target, matched);
+            }
+            return true;
+        }
+
+        boolean isLoadedBy(ClassLoader classLoader) {
+            Class<?> source = sourceClass.get();
+            Class<?> target = targetClass.get();
+            return source == null || target == null
+                    || isChildOf(source.getClassLoader(), classLoader) || isChildOf(target.getClassLoader(), classLoader);
+        }
+
+        private static boolean isChildOf(ClassLoader loader, ClassLoader parent) {
+            for (ClassLoader current = loader; current != null; current = current.getParent()) {
+                if (current == parent) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.davisjiahao.mapping.runtime;
+
+import com.github.davisjiahao.mapping.ClassModel;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * ClassModels
+ *
+ * 把已编译的类转换成 mapping-core 的 ClassModel，只在编译转换器时使用一次反射
+ *
+ * @author daviswujiahao
+ * @date 2022/12/17 15:20
+ * @since 1.0
+ **/
+final class ClassModels {
+
+    private ClassModels() {
+    }
+
+    /**
+     * 已编译的类里 lombok 的 get/set（boolean 字段为 isXxx）已经存在，不需要按字段补全
+     */
+    static ClassModel of(Class<?> type) {
+        ClassModel classModel = new ClassModel(type.getName());
+        for (Method method : type.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (!Modifier.isPublic(modifiers) || Modifier.isStatic(modifiers) || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            if (method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                classModel.addMethod(new ClassModel.MethodModel(method.getName(), method.getReturnType().getName()));
+            } else if (method.getParameterCount() == 1) {
+                classModel.addMethod(new ClassModel.MethodModel(method.getName(), method.getParameterTypes()[0].getName()));
+            }
+        }
+        if (type.getSuperclass() != null) {
+            classModel.setSuperClass(of(type.getSuperclass()));
+        }
+        return classModel;
+    }
+
+    static Method findGetter(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return method.getReturnType() == void.class ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 参数类型（装箱后）能接收 valueType 的 set 方法，优先类型完全相同的重载
+     */
+    static Method findSetter(Class<?> type, String name, Class<?> valueType) {
+        Method compatible = null;
+        for (Method method : type.getMethods()) {
+            if (!method.getName().equals(name) || method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Class<?> parameterType = method.getParameterTypes()[0];
+            if (parameterType == valueType) {
+                return method;
+            }
+            if (compatible == null && Accessors.wrap(parameterType).isAssignableFrom(Accessors.wrap(valueType))) {
+                compatible = method;
+            }
+        }
+        return compatible;
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.davisjiahao.mapping.runtime;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class BeanMappersTest {
+
+    public static class Base {
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+    }
+
+    public static class Entity extends Base {
+        private String name;
+        private Integer age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+    }
+
+    public static class Dto extends Base {
+        private String name;
+        private int age = -1;
+        private String extra;
+
+        public String getName() {
+            return name;
+        }
+
+        public Dto setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        public void setExtra(String extra) {
+            this.extra = extra;
+        }
+    }
+
+    /**
+     * 与 lombok 为 boolean 字段生成的方法相同
+     */
+    public static class Flags {
+        private boolean active;
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+    @After
+    public void tearDown() {
+        BeanMappers.clear();
+    }
+
+    private static Entity entity() {
+        Entity entity = new Entity();
+        entity.setId(1L);
+        entity.setName("name");
+        entity.setAge(18);
+        return entity;
+    }
+
+    @Test
+    public void matchedCopiesSuperClassChainedAndUnboxedProperties() {
+        Dto dto = BeanMappers.getMatched(Entity.class, Dto.class).map(entity());
+        assertEquals(Long.valueOf(1L), dto.getId());
+        assertEquals("name", dto.getName());
+        assertEquals(18, dto.getAge());
+        assertNull(dto.getExtra());
+    }
+
+    @Test
+    public void nullWrapperKeepsPrimitiveTarget() {
+        Entity entity = entity();
+        entity.setAge(null);
+        assertEquals(-1, BeanMappers.getMatched(Entity.class, Dto.class).map(entity).getAge());
+    }
+
+    @Test
+    public void fullModeRejectsUnmappedTargetProperties() {
+        try {
+            BeanMappers.get(Entity.class, Dto.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(true, e.getMessage().contains("extra"));
+        }
+        assertEquals(Long.valueOf(1L), BeanMappers.get(Entity.class, Base.class).map(entity()).getId());
+    }
+
+    @Test
+    public void cacheIsBoundedAndEvictable() {
+        BeanMapper<Entity, Dto> mapper = BeanMappers.getMatched(Entity.class, Dto.class);
+        assertSame(mapper, BeanMappers.getMatched(Entity.class, Dto.class));
+        BeanMappers.setMaxSize(1);
+        BeanMappers.getMatched(Dto.class, Entity.class);
+        assertEquals(1, BeanMappers.size());
+        BeanMappers.evict(BeanMappersTest.class.getClassLoader());
+        assertEquals(0, BeanMappers.size());
+        BeanMappers.setMaxSize(1024);
+    }
+
+    @Test
+    public void copiesBooleanPropertiesThroughIsGetters() {
+        Flags flags = new Flags();
+        flags.setActive(true);
+        assertEquals(true, BeanMappers.get(Flags.class, Flags.class).map(flags).isActive());
+    }
+
+    @Test
+    public void cachedMappersDoNotPinClassLoaders() throws Exception {
+        WeakReference<ClassLoader> loader = mapInIsolatedLoader();
+        for (int i = 0; i < 20 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(loader.get());
+        assertEquals(0, BeanMappers.size());
+    }
+
+    private static WeakReference<ClassLoader> mapInIsolatedLoader() throws Exception {
+        ClassLoader loader = new IsolatingClassLoader(Flags.class.getName(), BeanMappersTest.class.getClassLoader());
+        Class<?> flagsClass = loader.loadClass(Flags.class.getName());
+        copy(flagsClass);
+        assertEquals(1, BeanMappers.size());
+        return new WeakReference<>(loader);
+    }
+
+    private static <T> void copy(Class<T> type) throws Exception {
+        BeanMappers.get(type, type).map(type.getDeclaredConstructor().newInstance());
+    }
+
+    /**
+     * 自己定义指定的类，模拟可以卸载的插件/模块类加载器
+     */
+    private static final class IsolatingClassLoader extends ClassLoader {
+
+        private final String isolated;
+
+        IsolatingClassLoader(String isolated, ClassLoader parent) {
+            super(parent);
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isolated.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; in != null && (read = in.read(buffer)) > 0; ) {
+                        bytes.write(buffer, 0, read);
+                    }
+                    return defineClass(name, bytes.toByteArray(), 0, bytes.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
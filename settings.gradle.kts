@@ -1 +1,6 @@
 rootProject.name = "auto-generate-build-entity-method-plugin"
+
+include("mapping-core")
+include("processor")
+include("runtime")
+include("benchmarks")
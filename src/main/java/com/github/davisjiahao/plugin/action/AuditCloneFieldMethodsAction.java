@@ -0,0 +1,72 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.toolwindow.MapperAuditPanel;
+import com.github.davisjiahao.plugin.toolwindow.MapperAuditToolWindowFactory;
+import com.github.davisjiahao.plugin.utils.MapperAuditor;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * AuditCloneFieldMethodsAction
+ *
+ * 在文件、目录、模块或整个项目范围内审计生成过的方法，结果陆续显示在 Clone Field Audit 工具窗口中
+ *
+ * @author daviswujiahao
+ * @date 2022/12/22 10:00
+ * @since 1.0
+ **/
+public class AuditCloneFieldMethodsAction extends AnAction {
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        GlobalSearchScope scope = GenerateCloneFieldMethodsAction.getScope(e, project);
+        String title = getTemplatePresentation().getText();
+        MapperAuditor auditor = new MapperAuditor(project);
+        MapperAuditPanel panel = MapperAuditToolWindowFactory.openNewAudit(project, scope.getDisplayName());
+
+        new Task.Backgroundable(project, title, true) {
+            private int methods;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Searching generated methods...");
+                List<VirtualFile> files = auditor.findFiles(scope);
+                indicator.setText("Auditing generated methods in " + files.size() + " file(s)");
+                methods = auditor.audit(files, indicator, findings -> ApplicationManager.getApplication().invokeLater(
+                        () -> panel.addFindings(findings), ModalityState.any(), project.getDisposed()));
+            }
+
+            @Override
+            public void onSuccess() {
+                // 排在所有结果之后执行，计数是最终的
+                ApplicationManager.getApplication().invokeLater(() -> panel.setStatus(methods + " method(s) audited, "
+                        + panel.getFindingCount() + " finding(s)"), ModalityState.any(), project.getDisposed());
+            }
+
+            @Override
+            public void onCancel() {
+                ApplicationManager.getApplication().invokeLater(() -> panel.setStatus("Cancelled after "
+                        + panel.getFindingCount() + " finding(s)"), ModalityState.any(), project.getDisposed());
+            }
+        }.queue();
+    }
+}
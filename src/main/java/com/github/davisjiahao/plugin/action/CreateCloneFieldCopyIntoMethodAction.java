@@ -0,0 +1,46 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.utils.CloneMethodPlanUtil;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethodCallExpression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * CreateCloneFieldCopyIntoMethodAction
+ *
+ * 为 copyInto(source..., target) 这样的调用生成写入已有目标对象的方法，不创建新对象，
+ * 适合对象池、复用的 DTO 等场景；调用的结果被使用时生成返回目标对象的 fluent 方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/23 10:00
+ * @since 1.0
+ **/
+public class CreateCloneFieldCopyIntoMethodAction extends CreateCloneFieldMethodAction {
+
+    @Override
+    public @NotNull String getText() {
+        return "Create copy into full field method";
+    }
+
+    /**
+     * 至少需要一个来源和一个目标对象
+     */
+    @Override
+    public boolean isAvailable(@NotNull Project project, Editor editor, @Nullable PsiElement element) {
+        if (!super.isAvailable(project, editor, element)) {
+            return false;
+        }
+        // 只对还不存在的方法提供，与批量生成的 findCandidateCalls 一致
+        PsiMethodCallExpression call = (PsiMethodCallExpression) element.getParent().getParent();
+        return call.getArgumentList().getExpressions().length >= 2 && call.getMethodExpression().resolve() == null;
+    }
+
+    @Override
+    protected @Nullable CloneMethodPlan computePlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        return CloneMethodPlanUtil.computeCopyIntoPlan(call, isMatched);
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.davisjiahao.plugin.action;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * CreateCloneFieldMatchCopyIntoMethodAction
+ *
+ * @author daviswujiahao
+ * @date 2022/12/23 10:00
+ * @since 1.0
+ **/
+public class CreateCloneFieldMatchCopyIntoMethodAction extends CreateCloneFieldCopyIntoMethodAction {
+
+    @Override
+    public @NotNull String getText() {
+        return "Create copy into matched field method";
+    }
+
+    @Override
+    protected boolean isMatched() {
+        return true;
+    }
+}
@@ -2,28 +2,30 @@
 
 package com.github.davisjiahao.plugin.action;
 
-import com.github.davisjiahao.plugin.entity.CreateMethodParam;
-import com.github.davisjiahao.plugin.utils.CloneFieldMethodBuildUtil;
-import com.intellij.codeInsight.ExpectedTypeInfo;
-import com.intellij.codeInsight.daemon.impl.quickfix.CreateFromUsageUtils;
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.github.davisjiahao.plugin.utils.CloneMethodPlanUtil;
+import com.github.davisjiahao.plugin.utils.GenerationTimings;
+import com.intellij.codeInsight.hint.HintManager;
 import com.intellij.codeInsight.intention.IntentionAction;
 import com.intellij.codeInsight.intention.PsiElementBaseIntentionAction;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import com.intellij.psi.codeStyle.CodeStyleManager;
 import com.intellij.psi.codeStyle.JavaCodeStyleManager;
-import com.intellij.psi.impl.source.PsiJavaFileImpl;
-import com.intellij.psi.util.PsiUtil;
 import com.intellij.util.IncorrectOperationException;
-import com.squareup.javapoet.MethodSpec;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implements an intention action to replace a ternary statement with if-then-else.
@@ -99,48 +101,98 @@ public class CreateCloneFieldMethodAction extends PsiElementBaseIntentionAction
           throws IncorrectOperationException {
 
     PsiMethodCallExpression parent = (PsiMethodCallExpression) (element.getParent().getParent());
-    List<CreateMethodParam> params = CloneFieldMethodBuildUtil.getExpectedParameters(parent);
+    SmartPsiElementPointer<PsiMethodCallExpression> callPointer = SmartPointerManager.createPointer(parent);
+    boolean isMatched = isMatched();
+
+    // 分析阶段在后台读锁中执行，有写操作（用户输入）时自动取消并重新计算
+    ReadAction.nonBlocking(() -> {
+      PsiMethodCallExpression call = callPointer.getElement();
+      return call == null ? null : computePlan(call, isMatched);
+    })
+            .inSmartMode(project)
+            .withDocumentsCommitted(project)
+            .expireWhen(project::isDisposed)
+            .finishOnUiThread(ModalityState.defaultModalityState(), plan -> insertMethod(project, editor, plan))
+            .submit(AppExecutorUtil.getAppExecutorService());
+  }
+
+  /**
+   * 读阶段：计算要插入的方法，在后台读锁中调用
+   */
+  @Nullable
+  protected CloneMethodPlan computePlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+    return CloneMethodPlanUtil.computePlan(call, isMatched);
+  }
 
-    PsiClass targetClass = doCollectRequests(parent.getMethodExpression());
+  /**
+   * 写阶段只负责插入已经计算好的方法
+   */
+  private void insertMethod(@NotNull Project project, Editor editor, @Nullable CloneMethodPlan plan) {
+    PsiClass targetClass = plan == null ? null : plan.getTargetClass().getElement();
     if (targetClass == null) {
-      targetClass = ((PsiJavaFileImpl) element.getContainingFile()).getClasses()[0];
+      if (editor != null) {
+        HintManager.getInstance().showErrorHint(editor, "Cannot infer the entity type to build");
+      }
+      return;
     }
 
-    ExpectedTypeInfo[] expectedTypeInfos = CreateFromUsageUtils.guessExpectedTypes(parent.getMethodExpression(),
-            parent.getMethodExpression().getParent() instanceof PsiStatement);
-    List<ExpectedTypeInfo> psiTypes = Arrays.stream(expectedTypeInfos).collect(Collectors.toList());
-
-    MethodSpec psiMethod = CloneFieldMethodBuildUtil.transformMethod(project, psiTypes.get(0).getType(), params, parent.getMethodExpression().getReferenceName(), isMatched());
-
-    PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
-    PsiElement insert = factory.createMethodFromText(psiMethod.toString(), targetClass);
-
-    targetClass.add(insert);
-
-    CodeStyleManager.getInstance(project).reformat(insert);
-    JavaCodeStyleManager.getInstance(project).shortenClassReferences(targetClass);
+    GenerationTimings timings = plan.getTimings() != null ? plan.getTimings() : new GenerationTimings();
+    WriteCommandAction.writeCommandAction(project, targetClass.getContainingFile()).withName(getText()).run(() -> {
+      List<PsiMember> inserted;
+      try (GenerationTimings.Phase ignored = timings.start("insert")) {
+        inserted = plan.insertInto(targetClass);
+      }
+      // 只处理插入的常量和方法，耗时不随目标类的大小增长
+      for (PsiMember member : inserted) {
+        PsiElement insert;
+        try (GenerationTimings.Phase ignored = timings.start("shortenClassReferences")) {
+          insert = JavaCodeStyleManager.getInstance(project).shortenClassReferences(member);
+        }
+        try (GenerationTimings.Phase ignored = timings.start("reformat")) {
+          CodeStyleManager.getInstance(project).reformat(insert);
+        }
+      }
+    });
+    reportTimings(project, timings);
+    reportInexactMatches(project, plan);
+    reportErasureClashes(project, plan);
   }
 
-  private final PsiClass doCollectRequests(PsiReferenceExpression myRef) {
-    PsiExpression qualifier = myRef.getQualifierExpression();
-    if (qualifier != null) {
-      PsiClass psiClass = PsiUtil.resolveClassInClassTypeOnly(qualifier.getType());
-
-      if (psiClass != null) {
-        return psiClass;
-      }
+  /**
+   * 与已有方法擦除后签名相同的辅助方法（如同名重载的批量方法）没有插入，提示使用者改名
+   */
+  private void reportErasureClashes(@NotNull Project project, @NotNull CloneMethodPlan plan) {
+    if (!plan.getErasureClashes().isEmpty()) {
+      GenerateCloneFieldMethodsAction.NOTIFICATION_GROUP.createNotification(getText(),
+              "Not generated, same erasure as an existing method:<br/>"
+                      + StringUtil.escapeXmlEntities(String.join("\n", plan.getErasureClashes())).replace("\n", "<br/>"),
+              NotificationType.WARNING, null).notify(project);
+    }
+  }
 
-      if (!(qualifier instanceof PsiJavaCodeReferenceElement)) {
-        return null;
-      }
+  /**
+   * 按归一化名字、别名或前缀匹配的属性不一定正确，列出来供使用者核对
+   */
+  private void reportInexactMatches(@NotNull Project project, @NotNull CloneMethodPlan plan) {
+    if (!plan.getInexactMatches().isEmpty()) {
+      GenerateCloneFieldMethodsAction.NOTIFICATION_GROUP.createNotification(getText(),
+              "Properties matched by name normalization, alias or prefix:<br/>"
+                      + StringUtil.escapeXmlEntities(String.join("\n", plan.getInexactMatches())).replace("\n", "<br/>"),
+              NotificationType.INFORMATION, null).notify(project);
+    }
+  }
 
-      PsiElement psiElement = ((PsiJavaCodeReferenceElement) qualifier).resolve();
-      if (!(psiElement instanceof PsiClass)) {
-        return null;
-      }
-      return  (PsiClass) psiElement;
+  /**
+   * 各阶段耗时写入 idea.log，有阶段超过配置的阈值时提示使用者
+   */
+  private void reportTimings(@NotNull Project project, @NotNull GenerationTimings timings) {
+    int threshold = CloneFieldSettings.getInstance().slowPhaseThresholdMillis;
+    String slowPhase = timings.report(getText(), threshold);
+    if (slowPhase != null) {
+      GenerateCloneFieldMethodsAction.NOTIFICATION_GROUP.createNotification(getText(),
+              "Phase '" + slowPhase + "' took longer than " + threshold + "ms: " + timings.format(),
+              NotificationType.WARNING, null).notify(project);
     }
-    return null;
   }
 
 
@@ -152,7 +204,7 @@ public class CreateCloneFieldMethodAction extends PsiElementBaseIntentionAction
    */
   @Override
   public boolean startInWriteAction() {
-    return true;
+    return false;
   }
 
   protected boolean isMatched() {
@@ -0,0 +1,42 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.utils.CloneMethodPlanUtil;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethodCallExpression;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * CreateMapToEntityMethodAction
+ *
+ * 为 fromMap(map) 这样的调用生成 Map&lt;String, ?&gt; 转实体的方法，按键名 switch 到 set 方法，不经过反射
+ *
+ * @author daviswujiahao
+ * @date 2022/12/23 15:00
+ * @since 1.0
+ **/
+public class CreateMapToEntityMethodAction extends CreateCloneFieldMethodAction {
+
+    @Override
+    public @NotNull String getText() {
+        return "Create map to entity method";
+    }
+
+    @Override
+    public boolean isAvailable(@NotNull Project project, Editor editor, @Nullable PsiElement element) {
+        if (!super.isAvailable(project, editor, element)) {
+            return false;
+        }
+        // 只对还不存在的方法提供，与批量生成的 findCandidateCalls 一致
+        PsiMethodCallExpression call = (PsiMethodCallExpression) element.getParent().getParent();
+        return call.getArgumentList().getExpressions().length == 1 && call.getMethodExpression().resolve() == null;
+    }
+
+    @Override
+    protected @Nullable CloneMethodPlan computePlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        return CloneMethodPlanUtil.computeFromMapPlan(call);
+    }
+}
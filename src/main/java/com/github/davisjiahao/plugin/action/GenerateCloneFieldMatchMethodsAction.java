@@ -0,0 +1,16 @@
+package com.github.davisjiahao.plugin.action;
+
+/**
+ * GenerateCloneFieldMatchMethodsAction
+ *
+ * @author daviswujiahao
+ * @date 2022/12/03 14:10
+ * @since 1.0
+ **/
+public class GenerateCloneFieldMatchMethodsAction extends GenerateCloneFieldMethodsAction {
+
+    @Override
+    protected boolean isMatched() {
+        return true;
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.utils.CloneFieldBatchGenerator;
+import com.intellij.notification.NotificationGroup;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.GlobalSearchScopesCore;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * GenerateCloneFieldMethodsAction
+ *
+ * 在文件、目录、模块或整个项目范围内，为所有未解析的调用批量生成 clone 方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/03 14:10
+ * @since 1.0
+ **/
+public class GenerateCloneFieldMethodsAction extends AnAction {
+
+    static final NotificationGroup NOTIFICATION_GROUP = NotificationGroup.balloonGroup("Generate build entity method");
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) {
+            return;
+        }
+        GlobalSearchScope scope = getScope(e, project);
+        String title = getTemplatePresentation().getText();
+        CloneFieldBatchGenerator generator = new CloneFieldBatchGenerator(project, isMatched());
+
+        new Task.Backgroundable(project, title, true) {
+            private Collection<CloneMethodPlan> plans = Collections.emptyList();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("Searching unresolved method calls...");
+                List<VirtualFile> files = generator.findFiles(scope);
+                indicator.setText("Building clone methods in " + scope.getDisplayName());
+                plans = generator.computePlans(files, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                int inserted = generator.applyPlans(plans, title);
+                NOTIFICATION_GROUP.createNotification(title, inserted + " method(s) generated", NotificationType.INFORMATION, null)
+                        .notify(project);
+                if (!generator.getErasureClashes().isEmpty()) {
+                    NOTIFICATION_GROUP.createNotification(title, "Not generated, same erasure as an existing method:<br/>"
+                                    + StringUtil.escapeXmlEntities(String.join("\n", generator.getErasureClashes())).replace("\n", "<br/>"),
+                            NotificationType.WARNING, null).notify(project);
+                }
+            }
+        }.queue();
+    }
+
+    static GlobalSearchScope getScope(AnActionEvent e, Project project) {
+        Module module = e.getData(LangDataKeys.MODULE_CONTEXT);
+        if (module != null) {
+            return module.getModuleScope(false);
+        }
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (file != null && file.isDirectory()) {
+            return GlobalSearchScopesCore.directoryScope(project, file, true);
+        }
+        if (file != null && e.getData(CommonDataKeys.PSI_FILE) != null) {
+            return GlobalSearchScope.fileScope(project, file);
+        }
+        return GlobalSearchScope.projectScope(project);
+    }
+
+    protected boolean isMatched() {
+        return false;
+    }
+}
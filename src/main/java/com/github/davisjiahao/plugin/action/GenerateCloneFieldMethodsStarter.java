@@ -0,0 +1,129 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.utils.CloneFieldBatchGenerator;
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GenerateCloneFieldMethodsStarter
+ *
+ * 命令行入口：idea generateCloneFieldMethods &lt;projectPath&gt; [--matched] [--chunk=200]
+ * <p>
+ * 文件按块处理：每块并行计算、插入并保存后再处理下一块，内存占用与项目大小无关。
+ * 块中已生成的方法同时按类的最新结构刷新（与刷新意图相同，只改动变化的单元）。
+ * 生成在后台线程中进行，只有打开、关闭项目和插入、保存在 EDT 上执行
+ *
+ * @author daviswujiahao
+ * @date 2022/12/08 21:15
+ * @since 1.0
+ **/
+public class GenerateCloneFieldMethodsStarter implements ApplicationStarter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 200;
+
+    @Override
+    public String getCommandName() {
+        return "generateCloneFieldMethods";
+    }
+
+    @Override
+    public void premain(String[] args) {
+    }
+
+    @Override
+    public void main(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            System.exit(1);
+        }
+        boolean isMatched = false;
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        for (int i = 2; i < args.length; i++) {
+            if ("--matched".equals(args[i])) {
+                isMatched = true;
+            } else if (args[i].startsWith("--chunk=")) {
+                try {
+                    chunkSize = Math.max(1, Integer.parseInt(args[i].substring("--chunk=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid chunk size: " + args[i]);
+                    printUsage();
+                    System.exit(1);
+                }
+            }
+        }
+
+        // main 可能在 EDT 上调用：等待索引和计算都不能占用 EDT，在后台线程中执行，结束时退出进程
+        String projectPath = args[1];
+        boolean matched = isMatched;
+        int chunk = chunkSize;
+        ApplicationManager.getApplication().executeOnPooledThread(() -> System.exit(run(projectPath, matched, chunk)));
+    }
+
+    private void printUsage() {
+        System.err.println("Usage: " + getCommandName() + " <projectPath> [--matched] [--chunk=" + DEFAULT_CHUNK_SIZE + "]");
+    }
+
+    /**
+     * 在后台线程中打开项目、生成并关闭项目，返回进程退出码
+     */
+    private int run(@NotNull String projectPath, boolean isMatched, int chunkSize) {
+        Ref<Project> projectRef = Ref.create();
+        ApplicationManager.getApplication().invokeAndWait(() -> projectRef.set(ProjectUtil.openOrImport(projectPath, null, false)));
+        Project project = projectRef.get();
+        if (project == null) {
+            System.err.println("Cannot open project: " + projectPath);
+            return 1;
+        }
+        try {
+            generate(project, isMatched, chunkSize);
+            return 0;
+        } catch (Throwable e) {
+            e.printStackTrace();
+            return 1;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(() -> ProjectManager.getInstance().closeProject(project));
+        }
+    }
+
+    private void generate(@NotNull Project project, boolean isMatched, int chunkSize) {
+        DumbService.getInstance(project).waitForSmartMode();
+
+        CloneFieldBatchGenerator generator = new CloneFieldBatchGenerator(project, isMatched);
+        List<VirtualFile> files = generator.findFiles(GlobalSearchScope.projectScope(project));
+        System.out.println("Scanning " + files.size() + " java file(s)");
+
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger refreshed = new AtomicInteger();
+        for (int from = 0; from < files.size(); from += chunkSize) {
+            List<VirtualFile> chunk = files.subList(from, Math.min(files.size(), from + chunkSize));
+            Collection<CloneMethodPlan> plans = generator.computePlans(chunk, new EmptyProgressIndicator());
+            Map<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> refreshes = generator.computeRefreshes(chunk, new EmptyProgressIndicator());
+            ApplicationManager.getApplication().invokeAndWait(() -> {
+                generated.addAndGet(generator.applyPlans(plans, getCommandName()));
+                generator.getErasureClashes().forEach(clash -> System.err.println("Not generated, same erasure as an existing method: " + clash));
+                refreshed.addAndGet(generator.applyRefreshes(refreshes, getCommandName()));
+                FileDocumentManager.getInstance().saveAllDocuments();
+            });
+            System.out.println("Processed " + (from + chunk.size()) + "/" + files.size() + " file(s), "
+                    + generated.get() + " method(s) generated, " + refreshed.get() + " method(s) refreshed");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.davisjiahao.plugin.action;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.utils.CloneMethodRefresher;
+import com.github.davisjiahao.plugin.utils.GeneratedMethodMarker;
+import com.intellij.codeInsight.hint.HintManager;
+import com.intellij.codeInsight.intention.PsiElementBaseIntentionAction;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * RefreshCloneFieldMethodAction
+ *
+ * 光标在生成过的方法中时，按类的最新结构刷新方法体，只改动变化的属性
+ *
+ * @author daviswujiahao
+ * @date 2022/12/18 14:30
+ * @since 1.0
+ **/
+public class RefreshCloneFieldMethodAction extends PsiElementBaseIntentionAction {
+
+    @Override
+    @NotNull
+    public String getText() {
+        return "Refresh clone field method";
+    }
+
+    @Override
+    @NotNull
+    public String getFamilyName() {
+        return "Refresh clone field method";
+    }
+
+    @Override
+    public boolean isAvailable(@NotNull Project project, Editor editor, @NotNull PsiElement element) {
+        PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
+        return method != null && method.isWritable() && GeneratedMethodMarker.read(method) != null;
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, Editor editor, @NotNull PsiElement element) {
+        PsiMethod method = PsiTreeUtil.getParentOfType(element, PsiMethod.class);
+        if (method == null) {
+            return;
+        }
+        refresh(project, editor, SmartPointerManager.createPointer(method), getText());
+    }
+
+    /**
+     * 后台读锁中重新生成，UI 线程中应用差异；检查工具的快速修复也使用这里
+     */
+    public static void refresh(@NotNull Project project, @Nullable Editor editor,
+                               @NotNull SmartPsiElementPointer<PsiMethod> methodPointer, @NotNull String commandName) {
+        ReadAction.nonBlocking(() -> {
+            PsiMethod method = methodPointer.getElement();
+            return method == null ? null : CloneMethodRefresher.computeRefresh(method);
+        })
+                .inSmartMode(project)
+                .withDocumentsCommitted(project)
+                .expireWhen(project::isDisposed)
+                .finishOnUiThread(ModalityState.defaultModalityState(), plan -> apply(project, editor, methodPointer, plan, commandName))
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    private static void apply(@NotNull Project project, @Nullable Editor editor, @NotNull SmartPsiElementPointer<PsiMethod> methodPointer,
+                              @Nullable CloneMethodPlan plan, @NotNull String commandName) {
+        PsiMethod method = methodPointer.getElement();
+        if (method == null || plan == null) {
+            showHint(editor, "Cannot infer the entity type to build");
+            return;
+        }
+        if (CloneMethodRefresher.isUpToDate(method, plan)) {
+            showHint(editor, "Method is up to date");
+            return;
+        }
+        WriteCommandAction.writeCommandAction(project, method.getContainingFile()).withName(commandName)
+                .run(() -> CloneMethodRefresher.applyRefresh(method, plan));
+    }
+
+    private static void showHint(@Nullable Editor editor, @NotNull String text) {
+        if (editor != null) {
+            HintManager.getInstance().showInformationHint(editor, text);
+        }
+    }
+
+    @Override
+    public boolean startInWriteAction() {
+        return false;
+    }
+}
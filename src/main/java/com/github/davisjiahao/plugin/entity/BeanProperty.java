@@ -0,0 +1,105 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiType;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * BeanProperty
+ *
+ * @author daviswujiahao
+ * @date 2022/11/26 10:12
+ * @since 1.0
+ **/
+public class BeanProperty {
+    /**
+     * 归一化后的属性 key（小写），用于 get/set 匹配
+     */
+    private String key;
+    private String getterName;
+    private String setterName;
+    private PsiType psiType;
+    /**
+     * 来自索引的类型文本，首次使用时才在声明类的上下文中解析
+     */
+    private String typeText;
+    private PsiElement typeContext;
+    /**
+     * 别名注解（如 @JsonProperty）声明的其他名字
+     */
+    private Set<String> aliases = Collections.emptySet();
+
+    public BeanProperty(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getGetterName() {
+        return getterName;
+    }
+
+    public void setGetterName(String getterName) {
+        this.getterName = getterName;
+    }
+
+    public String getSetterName() {
+        return setterName;
+    }
+
+    public void setSetterName(String setterName) {
+        this.setterName = setterName;
+    }
+
+    public PsiType getPsiType() {
+        if (psiType == null && StringUtils.isNotEmpty(typeText) && typeContext != null && typeContext.isValid()) {
+            psiType = JavaPsiFacade.getElementFactory(typeContext.getProject()).createTypeFromText(typeText, typeContext);
+        }
+        return psiType;
+    }
+
+    public void setTypeText(String typeText, PsiElement typeContext) {
+        this.typeText = typeText;
+        this.typeContext = typeContext;
+    }
+
+    public boolean hasType() {
+        return psiType != null || StringUtils.isNotEmpty(typeText);
+    }
+
+    public void copyTypeFrom(BeanProperty other) {
+        this.psiType = other.psiType;
+        this.typeText = other.typeText;
+        this.typeContext = other.typeContext;
+    }
+
+    public void setPsiType(PsiType psiType) {
+        this.psiType = psiType;
+    }
+
+    public Set<String> getAliases() {
+        return aliases;
+    }
+
+    public void addAlias(String alias) {
+        if (aliases.isEmpty()) {
+            aliases = new LinkedHashSet<>();
+        }
+        aliases.add(alias);
+    }
+
+    public boolean isReadable() {
+        return getterName != null;
+    }
+
+    public boolean isWritable() {
+        return setterName != null;
+    }
+}
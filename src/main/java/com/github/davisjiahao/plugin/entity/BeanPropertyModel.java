@@ -0,0 +1,82 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.github.davisjiahao.mapping.PropertySet;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * BeanPropertyModel
+ *
+ * 一个类（含父类链）的属性模型，按父类优先的顺序保存属性
+ *
+ * @author daviswujiahao
+ * @date 2022/11/26 10:12
+ * @since 1.0
+ **/
+public class BeanPropertyModel {
+
+    private final Map<String, BeanProperty> properties = new LinkedHashMap<>();
+
+    private volatile PropertySet propertySet;
+
+    public BeanProperty getOrCreate(String key) {
+        return properties.computeIfAbsent(key, BeanProperty::new);
+    }
+
+    public BeanProperty getProperty(String key) {
+        return properties.get(key);
+    }
+
+    public Collection<BeanProperty> getProperties() {
+        return properties.values();
+    }
+
+    public List<BeanProperty> getWritableProperties() {
+        return properties.values().stream().filter(BeanProperty::isWritable).collect(Collectors.toList());
+    }
+
+    public List<BeanProperty> getReadableProperties() {
+        return properties.values().stream().filter(BeanProperty::isReadable).collect(Collectors.toList());
+    }
+
+    /**
+     * 供 mapping-core 匹配使用的属性集合，模型构建完成后才能调用
+     */
+    public PropertySet getPropertySet() {
+        PropertySet result = propertySet;
+        if (result == null) {
+            result = new PropertySet();
+            for (BeanProperty property : properties.values()) {
+                result.getOrCreate(property.getKey())
+                        .setGetterName(property.getGetterName())
+                        .setSetterName(property.getSetterName())
+                        .addAliases(property.getAliases());
+            }
+            propertySet = result;
+        }
+        return result;
+    }
+
+    /**
+     * 合并另一个模型（子类覆盖父类的同名 accessor）
+     */
+    public void merge(BeanPropertyModel other) {
+        for (BeanProperty property : other.getProperties()) {
+            BeanProperty current = getOrCreate(property.getKey());
+            if (property.getGetterName() != null) {
+                current.setGetterName(property.getGetterName());
+            }
+            if (property.getSetterName() != null) {
+                current.setSetterName(property.getSetterName());
+            }
+            if (property.hasType()) {
+                current.copyTypeFrom(property);
+            }
+            property.getAliases().forEach(current::addAlias);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.github.davisjiahao.plugin.utils.GenerationTimings;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiMember;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiSubstitutor;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.util.MethodSignatureUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CloneMethodPlan
+ *
+ * 后台读线程计算出的生成结果，写线程只负责插入
+ *
+ * @author daviswujiahao
+ * @date 2022/11/28 21:05
+ * @since 1.0
+ **/
+public class CloneMethodPlan {
+    private SmartPsiElementPointer<PsiClass> targetClass;
+    /**
+     * 尚未插入的（非物理）方法，主方法在第一个，其后为辅助方法
+     */
+    private List<PsiMethod> methods;
+    /**
+     * 转换用到的（非物理）静态常量，如共享的 DateTimeFormatter
+     */
+    private List<PsiField> fields = Collections.emptyList();
+    /**
+     * 不是完全匹配的属性说明，插入后提示使用者核对
+     */
+    private List<String> inexactMatches = Collections.emptyList();
+    /**
+     * 读阶段的耗时，写阶段继续记录；不是由调用生成时为 null
+     */
+    private GenerationTimings timings;
+    /**
+     * 插入时因与目标类中已有方法擦除后签名相同（javac 不能编译）而没有插入的辅助方法说明
+     */
+    private final List<String> erasureClashes = new ArrayList<>();
+
+    public CloneMethodPlan(SmartPsiElementPointer<PsiClass> targetClass, List<PsiMethod> methods) {
+        this.targetClass = targetClass;
+        this.methods = methods;
+    }
+
+    public SmartPsiElementPointer<PsiClass> getTargetClass() {
+        return targetClass;
+    }
+
+    public PsiMethod getMethod() {
+        return methods.get(0);
+    }
+
+    public List<PsiMethod> getMethods() {
+        return methods;
+    }
+
+    public List<PsiField> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<PsiField> fields) {
+        this.fields = fields;
+    }
+
+    public List<String> getInexactMatches() {
+        return inexactMatches;
+    }
+
+    public void setInexactMatches(List<String> inexactMatches) {
+        this.inexactMatches = inexactMatches;
+    }
+
+    public GenerationTimings getTimings() {
+        return timings;
+    }
+
+    public void setTimings(GenerationTimings timings) {
+        this.timings = timings;
+    }
+
+    public List<String> getErasureClashes() {
+        return erasureClashes;
+    }
+
+    /**
+     * 目标类中是否已有同名但类型不同的字段（如批量生成时另一个方法先插入了同名枚举的查找表），此时方法引用的常量不对，不能插入
+     */
+    public boolean conflictsWith(PsiClass psiClass) {
+        for (PsiField field : fields) {
+            PsiField existing = psiClass.findFieldByName(field.getName(), false);
+            if (existing != null && !existing.getType().equals(field.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 插入常量和方法，目标类中已有的同名常量、相同签名的辅助方法不重复插入，返回插入的常量和方法；
+     * 与已有方法签名不同但擦除后相同的辅助方法不插入，记录到 {@link #getErasureClashes()} 中提示使用者
+     */
+    public List<PsiMember> insertInto(PsiClass psiClass) {
+        List<PsiMember> inserted = new ArrayList<>(fields.size() + methods.size());
+        for (PsiField field : fields) {
+            if (psiClass.findFieldByName(field.getName(), false) == null) {
+                inserted.add((PsiField) psiClass.add(field));
+            }
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            PsiMethod method = methods.get(i);
+            if (i > 0 && psiClass.findMethodBySignature(method, false) != null) {
+                continue;
+            }
+            PsiMethod clash = i > 0 ? findErasureClash(psiClass, method) : null;
+            if (clash != null) {
+                erasureClashes.add(describe(method) + " clashes with " + describe(clash));
+                continue;
+            }
+            inserted.add((PsiMethod) psiClass.add(method));
+        }
+        return inserted;
+    }
+
+    private static PsiMethod findErasureClash(PsiClass psiClass, PsiMethod method) {
+        for (PsiMethod existing : psiClass.findMethodsByName(method.getName(), false)) {
+            if (MethodSignatureUtil.areErasedParametersEqual(existing.getSignature(PsiSubstitutor.EMPTY),
+                    method.getSignature(PsiSubstitutor.EMPTY))) {
+                return existing;
+            }
+        }
+        return null;
+    }
+
+    private static String describe(PsiMethod method) {
+        StringBuilder text = new StringBuilder(method.getName()).append('(');
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            text.append(i > 0 ? ", " : "").append(parameters[i].getType().getPresentableText());
+        }
+        return text.append(')').toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.intellij.psi.PsiType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GeneratedMethod
+ *
+ * 生成结果的中间表示，由 PSI 或 JavaPoet 后端转换成最终方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/13 20:30
+ * @since 1.0
+ **/
+public class GeneratedMethod {
+    private String name;
+    private PsiType returnType;
+    private List<CreateMethodParam> params;
+    /**
+     * 辅助方法（如集合元素的转换）为 private
+     */
+    private boolean helper;
+    private List<String> statements = new ArrayList<>();
+    /**
+     * 方法注释的正文，如生成标记；为 null 时不生成注释
+     */
+    private String docComment;
+
+    public GeneratedMethod(String name, PsiType returnType, List<CreateMethodParam> params, boolean helper) {
+        this.name = name;
+        this.returnType = returnType;
+        this.params = params;
+        this.helper = helper;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PsiType getReturnType() {
+        return returnType;
+    }
+
+    public List<CreateMethodParam> getParams() {
+        return params;
+    }
+
+    public boolean isHelper() {
+        return helper;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public String getDocComment() {
+        return docComment;
+    }
+
+    public void setDocComment(String docComment) {
+        this.docComment = docComment;
+    }
+}
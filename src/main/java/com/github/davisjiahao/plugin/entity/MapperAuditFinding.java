@@ -0,0 +1,66 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPsiElementPointer;
+
+/**
+ * MapperAuditFinding
+ *
+ * 审计生成过的方法时发现的一个问题
+ *
+ * @author daviswujiahao
+ * @date 2022/12/22 10:00
+ * @since 1.0
+ **/
+public class MapperAuditFinding {
+
+    public enum Kind {
+        /**
+         * 来源或目标类新增了属性，方法中没有复制
+         */
+        MISSING,
+        /**
+         * 目标属性在来源中没有对应的属性
+         */
+        UNMAPPED,
+        /**
+         * 来源与目标属性类型不兼容，且没有可用的转换
+         */
+        TYPE_MISMATCH,
+        /**
+         * 估算的字节码接近 JIT 不编译的大小
+         */
+        HUGE_METHOD
+    }
+
+    private final Kind kind;
+    private final SmartPsiElementPointer<PsiMethod> method;
+    /**
+     * 类名.方法名
+     */
+    private final String location;
+    private final String message;
+
+    public MapperAuditFinding(Kind kind, SmartPsiElementPointer<PsiMethod> method, String location, String message) {
+        this.kind = kind;
+        this.method = method;
+        this.location = location;
+        this.message = message;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public SmartPsiElementPointer<PsiMethod> getMethod() {
+        return method;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
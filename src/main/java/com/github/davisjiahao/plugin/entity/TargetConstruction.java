@@ -0,0 +1,82 @@
+package com.github.davisjiahao.plugin.entity;
+
+import com.intellij.psi.PsiType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TargetConstruction
+ *
+ * 目标对象的构造方式以及需要赋值的位置（set 方法、构造器参数或 builder 方法）
+ *
+ * @author daviswujiahao
+ * @date 2022/12/15 20:40
+ * @since 1.0
+ **/
+public class TargetConstruction {
+
+    public enum Kind {
+        /**
+         * new Target() + set 方法
+         */
+        SETTERS,
+        /**
+         * new Target(a, b, c)，包括 record 的规范构造器和 lombok @Value / @AllArgsConstructor
+         */
+        CONSTRUCTOR,
+        /**
+         * lombok @Builder：Target.builder().a(a).b(b).build()
+         */
+        BUILDER
+    }
+
+    public static class Slot {
+        /**
+         * 归一化后的属性 key（小写）
+         */
+        private String key;
+        /**
+         * set 方法名、构造器参数名或 builder 方法名
+         */
+        private String name;
+        private PsiType psiType;
+
+        public Slot(String key, String name, PsiType psiType) {
+            this.key = key;
+            this.name = name;
+            this.psiType = psiType;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public PsiType getPsiType() {
+            return psiType;
+        }
+    }
+
+    private Kind kind;
+
+    /**
+     * 按构造器参数顺序（其他方式按属性顺序）排列
+     */
+    private List<Slot> slots = new ArrayList<>();
+
+    public TargetConstruction(Kind kind) {
+        this.kind = kind;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Slot> getSlots() {
+        return slots;
+    }
+}
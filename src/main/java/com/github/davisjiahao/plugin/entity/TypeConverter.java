@@ -0,0 +1,56 @@
+package com.github.davisjiahao.plugin.entity;
+
+/**
+ * TypeConverter
+ *
+ * 类型不同的同名属性之间的转换：expression 中的 $value 替换为（已判空的）来源值。
+ * 同时作为项目配置中使用者自定义转换的持久化结构，需要保留无参构造器和 get、set 方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 10:30
+ * @since 1.0
+ **/
+public class TypeConverter {
+
+    public static final String VALUE = "$value";
+
+    /**
+     * 来源、目标类型的全限定名（基本类型用包装类型）
+     */
+    private String sourceType;
+    private String targetType;
+    private String expression;
+
+    public TypeConverter() {
+    }
+
+    public TypeConverter(String sourceType, String targetType, String expression) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.expression = expression;
+    }
+
+    public String getSourceType() {
+        return sourceType;
+    }
+
+    public void setSourceType(String sourceType) {
+        this.sourceType = sourceType;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(String targetType) {
+        this.targetType = targetType;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.davisjiahao.plugin.index;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * BeanAccessorEntry
+ *
+ * 索引中一个类自身声明的 get、set 方法，value 为源码中声明的类型文本；
+ * 以及字段和 get、set 方法上注解声明的候选别名，是否采用由配置的别名注解决定
+ *
+ * @author daviswujiahao
+ * @date 2022/11/27 15:20
+ * @since 1.0
+ **/
+public class BeanAccessorEntry {
+
+    private final Map<String, String> getters;
+
+    private final Map<String, String> setters;
+
+    /**
+     * 小写属性名 -> 源码中写的注解名 -> 注解中的名字
+     */
+    private final Map<String, Map<String, List<String>>> aliases;
+
+    public BeanAccessorEntry() {
+        this(new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    public BeanAccessorEntry(Map<String, String> getters, Map<String, String> setters, Map<String, Map<String, List<String>>> aliases) {
+        this.getters = getters;
+        this.setters = setters;
+        this.aliases = aliases;
+    }
+
+    public Map<String, String> getGetters() {
+        return getters;
+    }
+
+    public Map<String, String> getSetters() {
+        return setters;
+    }
+
+    public Map<String, Map<String, List<String>>> getAliases() {
+        return aliases;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BeanAccessorEntry that = (BeanAccessorEntry) o;
+        return getters.equals(that.getters) && setters.equals(that.setters) && aliases.equals(that.aliases);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getters, setters, aliases);
+    }
+}
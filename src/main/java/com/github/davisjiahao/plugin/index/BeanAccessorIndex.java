@@ -0,0 +1,329 @@
+package com.github.davisjiahao.plugin.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
+import com.intellij.lang.LighterASTTokenNode;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.source.tree.ElementType;
+import com.intellij.psi.impl.source.tree.JavaElementType;
+import com.intellij.psi.impl.source.tree.JavaLightTreeUtil;
+import com.intellij.psi.impl.source.tree.LightTreeUtil;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * BeanAccessorIndex
+ *
+ * 类全限定名 -> 该类自身声明的 get（包括返回 boolean 的 isXxx）、set 方法，以及字段和 get、set 方法上注解中的候选别名，由 IDE 增量维护。
+ * 索引时只遍历 LighterAST，不构建 PSI 树，也不能解析注解，别名按源码中写的注解名保存，读取时再与配置的别名注解比较；lombok 推导的方法不进索引，由 {@link com.github.davisjiahao.plugin.utils.LombokAccessorUtil} 从 stub 中读取
+ *
+ * @author daviswujiahao
+ * @date 2022/11/27 15:20
+ * @since 1.0
+ **/
+public class BeanAccessorIndex extends FileBasedIndexExtension<String, BeanAccessorEntry> implements PsiDependentIndex {
+
+    public static final ID<String, BeanAccessorEntry> NAME = ID.create("com.github.davisjiahao.plugin.BeanAccessorIndex");
+
+    private static final Pattern SET_PATTERN = Pattern.compile("set(\\w+)");
+
+    private static final Pattern GET_PATTERN = Pattern.compile("get(\\w+)");
+
+    private static final Pattern IS_PATTERN = Pattern.compile("is(\\w+)");
+
+    /**
+     * 别名注解中保存名字的属性：@JsonProperty / @SerializedName 的 value，@JSONField 的 name，以及备用名
+     */
+    public static final String[] ALIAS_ATTRIBUTES = {"value", "name", "alternate", "alternateNames"};
+
+    private static final TokenSet INTERFACE_OR_ENUM = TokenSet.create(JavaTokenType.INTERFACE_KEYWORD, JavaTokenType.ENUM_KEYWORD);
+
+    private static final TokenSet ATTRIBUTE_VALUES = TokenSet.create(JavaElementType.LITERAL_EXPRESSION, JavaElementType.ANNOTATION_ARRAY_INITIALIZER);
+
+    /**
+     * 查询类自身声明的 get、set；dumb mode 下索引不可用，返回 null 由调用方回退到 PSI
+     */
+    @Nullable
+    public static BeanAccessorEntry getEntry(@NotNull PsiClass psiClass) {
+        String qualifiedName = psiClass.getQualifiedName();
+        PsiFile psiFile = psiClass.getContainingFile();
+        if (qualifiedName == null || !(psiFile instanceof PsiJavaFile) || psiFile.getVirtualFile() == null
+                || psiClass instanceof PsiCompiledElement || DumbService.isDumb(psiClass.getProject())) {
+            return null;
+        }
+        List<BeanAccessorEntry> values = FileBasedIndex.getInstance()
+                .getValues(NAME, qualifiedName, GlobalSearchScope.fileScope(psiFile));
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    @NotNull
+    @Override
+    public ID<String, BeanAccessorEntry> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, BeanAccessorEntry, FileContent> getIndexer() {
+        return inputData -> {
+            if (!(inputData instanceof FileContentImpl)) {
+                return Collections.emptyMap();
+            }
+            LighterAST tree = ((FileContentImpl) inputData).getLighterASTForPsiDependentIndex();
+            LighterASTNode root = tree.getRoot();
+            LighterASTNode packageStatement = LightTreeUtil.firstChildOfType(tree, root, JavaElementType.PACKAGE_STATEMENT);
+            LighterASTNode packageReference = packageStatement == null ? null
+                    : LightTreeUtil.firstChildOfType(tree, packageStatement, JavaElementType.JAVA_CODE_REFERENCE);
+            String packageName = packageReference == null ? "" : filteredText(tree, packageReference);
+            Map<String, BeanAccessorEntry> result = new HashMap<>();
+            for (LighterASTNode classNode : LightTreeUtil.getChildrenOfType(tree, root, JavaElementType.CLASS)) {
+                indexClass(tree, classNode, packageName, result);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * 与 PsiClass#getQualifiedName 一致：顶层类加包名前缀，成员类加外部类前缀；局部类、匿名类不在类的直接子节点中，不进索引
+     */
+    private static void indexClass(LighterAST tree, LighterASTNode classNode, String prefix, Map<String, BeanAccessorEntry> result) {
+        String name = JavaLightTreeUtil.getNameIdentifierText(tree, classNode);
+        if (name == null) {
+            return;
+        }
+        String qualifiedName = prefix.isEmpty() ? name : prefix + "." + name;
+        if (LightTreeUtil.firstChildOfType(tree, classNode, INTERFACE_OR_ENUM) == null) {
+            result.put(qualifiedName, buildEntry(tree, classNode));
+        }
+        for (LighterASTNode innerClass : LightTreeUtil.getChildrenOfType(tree, classNode, JavaElementType.CLASS)) {
+            indexClass(tree, innerClass, qualifiedName, result);
+        }
+    }
+
+    private static BeanAccessorEntry buildEntry(LighterAST tree, LighterASTNode classNode) {
+        BeanAccessorEntry entry = new BeanAccessorEntry();
+        // int a, b; 这样的声明只有第一个字段节点带修饰符列表，后面的字段沿用
+        LighterASTNode modifierList = null;
+        for (LighterASTNode field : LightTreeUtil.getChildrenOfType(tree, classNode, JavaElementType.FIELD)) {
+            LighterASTNode ownModifierList = LightTreeUtil.firstChildOfType(tree, field, JavaElementType.MODIFIER_LIST);
+            if (ownModifierList != null) {
+                modifierList = ownModifierList;
+            }
+            String fieldName = JavaLightTreeUtil.getNameIdentifierText(tree, field);
+            if (fieldName != null && !hasModifier(tree, modifierList, JavaTokenType.STATIC_KEYWORD)) {
+                indexAliases(tree, modifierList, fieldName.toLowerCase(), entry);
+            }
+        }
+        for (LighterASTNode method : LightTreeUtil.getChildrenOfType(tree, classNode, JavaElementType.METHOD)) {
+            String methodName = JavaLightTreeUtil.getNameIdentifierText(tree, method);
+            if (methodName == null) {
+                continue;
+            }
+            LighterASTNode methodModifierList = LightTreeUtil.firstChildOfType(tree, method, JavaElementType.MODIFIER_LIST);
+            LighterASTNode returnType = LightTreeUtil.firstChildOfType(tree, method, JavaElementType.TYPE);
+            if (SET_PATTERN.matcher(methodName).matches()) {
+                LighterASTNode parameterList = LightTreeUtil.firstChildOfType(tree, method, JavaElementType.PARAMETER_LIST);
+                List<LighterASTNode> parameters = parameterList == null ? Collections.emptyList()
+                        : LightTreeUtil.getChildrenOfType(tree, parameterList, JavaElementType.PARAMETER);
+                entry.getSetters().putIfAbsent(methodName, parameters.size() == 1
+                        ? typeText(tree, LightTreeUtil.firstChildOfType(tree, parameters.get(0), JavaElementType.TYPE)) : "");
+                indexAliases(tree, methodModifierList, propertyKey(SET_PATTERN, methodName), entry);
+            } else if (GET_PATTERN.matcher(methodName).matches()) {
+                entry.getGetters().putIfAbsent(methodName, typeText(tree, returnType));
+                indexAliases(tree, methodModifierList, propertyKey(GET_PATTERN, methodName), entry);
+            } else if (IS_PATTERN.matcher(methodName).matches() && returnType != null
+                    && PsiKeyword.BOOLEAN.equals(filteredText(tree, returnType))) {
+                entry.getGetters().putIfAbsent(methodName, typeText(tree, returnType));
+            }
+        }
+        return entry;
+    }
+
+    private static boolean hasModifier(LighterAST tree, @Nullable LighterASTNode modifierList, IElementType keyword) {
+        return modifierList != null && LightTreeUtil.firstChildOfType(tree, modifierList, keyword) != null;
+    }
+
+    /**
+     * 保存注解中 {@link #ALIAS_ATTRIBUTES} 的字符串字面量；含空白的值（如说明文字）不可能是属性名，不保存
+     */
+    private static void indexAliases(LighterAST tree, @Nullable LighterASTNode modifierList, String propertyKey, BeanAccessorEntry entry) {
+        if (modifierList == null) {
+            return;
+        }
+        for (LighterASTNode annotation : LightTreeUtil.getChildrenOfType(tree, modifierList, JavaElementType.ANNOTATION)) {
+            LighterASTNode reference = LightTreeUtil.firstChildOfType(tree, annotation, JavaElementType.JAVA_CODE_REFERENCE);
+            LighterASTNode parameterList = LightTreeUtil.firstChildOfType(tree, annotation, JavaElementType.ANNOTATION_PARAMETER_LIST);
+            if (reference == null || parameterList == null) {
+                continue;
+            }
+            List<LighterASTNode> pairs = LightTreeUtil.getChildrenOfType(tree, parameterList, JavaElementType.NAME_VALUE_PAIR);
+            List<String> names = new ArrayList<>();
+            for (String attribute : ALIAS_ATTRIBUTES) {
+                LighterASTNode value = findDeclaredAttributeValue(tree, pairs, attribute);
+                List<LighterASTNode> values = value == null ? Collections.emptyList()
+                        : value.getTokenType() == JavaElementType.ANNOTATION_ARRAY_INITIALIZER
+                        ? LightTreeUtil.getChildrenOfType(tree, value, JavaElementType.LITERAL_EXPRESSION)
+                        : Collections.singletonList(value);
+                for (LighterASTNode item : values) {
+                    String literal = stringLiteralValue(tree, item);
+                    if (!StringUtil.isEmptyOrSpaces(literal) && StringUtil.indexOfAny(literal, " \t\r\n") < 0) {
+                        names.add(literal);
+                    }
+                }
+            }
+            if (!names.isEmpty()) {
+                entry.getAliases().computeIfAbsent(propertyKey, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(filteredText(tree, reference), k -> new ArrayList<>()).addAll(names);
+            }
+        }
+    }
+
+    /**
+     * 与 PsiAnnotation#findDeclaredAttributeValue 一致：没有写属性名的值就是 value；只关心字面量和数组，其他表达式返回 null
+     */
+    @Nullable
+    private static LighterASTNode findDeclaredAttributeValue(LighterAST tree, List<LighterASTNode> pairs, String attribute) {
+        for (LighterASTNode pair : pairs) {
+            String name = JavaLightTreeUtil.getNameIdentifierText(tree, pair);
+            if (attribute.equals(name == null ? PsiAnnotation.DEFAULT_REFERENCED_METHOD_NAME : name)) {
+                return LightTreeUtil.firstChildOfType(tree, pair, ATTRIBUTE_VALUES);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String stringLiteralValue(LighterAST tree, LighterASTNode expression) {
+        if (expression.getTokenType() != JavaElementType.LITERAL_EXPRESSION) {
+            return null;
+        }
+        LighterASTNode literal = LightTreeUtil.firstChildOfType(tree, expression, JavaTokenType.STRING_LITERAL);
+        return literal instanceof LighterASTTokenNode
+                ? StringUtil.unescapeStringCharacters(StringUtil.unquoteString(((LighterASTTokenNode) literal).getText().toString())) : null;
+    }
+
+    private static String propertyKey(Pattern pattern, String methodName) {
+        return pattern.matcher(methodName).replaceAll("$1").toLowerCase();
+    }
+
+    /**
+     * 源码中声明的类型文本，与 PsiTypeElement#getText 相同
+     */
+    private static String typeText(LighterAST tree, @Nullable LighterASTNode typeNode) {
+        return typeNode == null ? "" : LightTreeUtil.toFilteredString(tree, typeNode, null);
+    }
+
+    private static String filteredText(LighterAST tree, LighterASTNode node) {
+        return LightTreeUtil.toFilteredString(tree, node, ElementType.JAVA_COMMENT_OR_WHITESPACE_BIT_SET);
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<BeanAccessorEntry> getValueExternalizer() {
+        return new DataExternalizer<BeanAccessorEntry>() {
+            @Override
+            public void save(@NotNull DataOutput out, BeanAccessorEntry value) throws IOException {
+                writeMap(out, value.getGetters());
+                writeMap(out, value.getSetters());
+                DataInputOutputUtil.writeINT(out, value.getAliases().size());
+                for (Map.Entry<String, Map<String, List<String>>> property : value.getAliases().entrySet()) {
+                    IOUtil.writeUTF(out, property.getKey());
+                    DataInputOutputUtil.writeINT(out, property.getValue().size());
+                    for (Map.Entry<String, List<String>> annotation : property.getValue().entrySet()) {
+                        IOUtil.writeUTF(out, annotation.getKey());
+                        DataInputOutputUtil.writeINT(out, annotation.getValue().size());
+                        for (String name : annotation.getValue()) {
+                            IOUtil.writeUTF(out, name);
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public BeanAccessorEntry read(@NotNull DataInput in) throws IOException {
+                Map<String, String> getters = readMap(in);
+                Map<String, String> setters = readMap(in);
+                int propertyCount = DataInputOutputUtil.readINT(in);
+                Map<String, Map<String, List<String>>> aliases = new LinkedHashMap<>(propertyCount * 2);
+                for (int i = 0; i < propertyCount; i++) {
+                    String property = IOUtil.readUTF(in);
+                    int annotationCount = DataInputOutputUtil.readINT(in);
+                    Map<String, List<String>> annotations = new LinkedHashMap<>(annotationCount * 2);
+                    for (int j = 0; j < annotationCount; j++) {
+                        String annotation = IOUtil.readUTF(in);
+                        int nameCount = DataInputOutputUtil.readINT(in);
+                        List<String> names = new ArrayList<>(nameCount);
+                        for (int k = 0; k < nameCount; k++) {
+                            names.add(IOUtil.readUTF(in));
+                        }
+                        annotations.put(annotation, names);
+                    }
+                    aliases.put(property, annotations);
+                }
+                return new BeanAccessorEntry(getters, setters, aliases);
+            }
+        };
+    }
+
+    private static void writeMap(DataOutput out, Map<String, String> map) throws IOException {
+        DataInputOutputUtil.writeINT(out, map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            IOUtil.writeUTF(out, entry.getKey());
+            IOUtil.writeUTF(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(DataInput in) throws IOException {
+        int size = DataInputOutputUtil.readINT(in);
+        Map<String, String> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(IOUtil.readUTF(in), IOUtil.readUTF(in));
+        }
+        return map;
+    }
+
+    @Override
+    public int getVersion() {
+        return 5;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
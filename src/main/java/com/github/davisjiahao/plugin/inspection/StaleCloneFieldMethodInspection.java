@@ -0,0 +1,80 @@
+package com.github.davisjiahao.plugin.inspection;
+
+import com.github.davisjiahao.plugin.action.RefreshCloneFieldMethodAction;
+import com.github.davisjiahao.plugin.utils.CloneMethodStaleChecker;
+import com.intellij.codeInspection.AbstractBaseJavaLocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * StaleCloneFieldMethodInspection
+ *
+ * 标记生成过、但来源或目标类新增了属性而没有复制的方法，快速修复就地刷新方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/19 10:20
+ * @since 1.0
+ **/
+public class StaleCloneFieldMethodInspection extends AbstractBaseJavaLocalInspectionTool {
+
+    /**
+     * 提示中最多列出的属性个数
+     */
+    private static final int MAX_LISTED = 3;
+
+    @Override
+    @NotNull
+    public PsiElementVisitor buildVisitor(@NotNull ProblemsHolder holder, boolean isOnTheFly) {
+        return new JavaElementVisitor() {
+            @Override
+            public void visitMethod(PsiMethod method) {
+                PsiIdentifier nameIdentifier = method.getNameIdentifier();
+                if (nameIdentifier == null || method.getDocComment() == null) {
+                    return;
+                }
+                List<String> missing = CloneMethodStaleChecker.findMissing(method);
+                if (missing == null || missing.isEmpty()) {
+                    return;
+                }
+                holder.registerProblem(nameIdentifier, "Generated clone method is out of date, missing " + describe(missing),
+                        new RefreshFix());
+            }
+        };
+    }
+
+    private static String describe(List<String> missing) {
+        if (missing.size() <= MAX_LISTED) {
+            return String.join(", ", missing);
+        }
+        return String.join(", ", missing.subList(0, MAX_LISTED)) + " and " + (missing.size() - MAX_LISTED) + " more";
+    }
+
+    private static class RefreshFix implements LocalQuickFix {
+
+        @Override
+        @NotNull
+        public String getFamilyName() {
+            return "Refresh clone field method";
+        }
+
+        @Override
+        public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+            PsiMethod method = PsiTreeUtil.getParentOfType(descriptor.getPsiElement(), PsiMethod.class);
+            if (method != null) {
+                RefreshCloneFieldMethodAction.refresh(project, null, SmartPointerManager.createPointer(method), getFamilyName());
+            }
+        }
+
+        @Override
+        public boolean startInWriteAction() {
+            return false;
+        }
+    }
+}
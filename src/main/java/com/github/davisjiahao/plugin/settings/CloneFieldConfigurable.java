@@ -0,0 +1,150 @@
+package com.github.davisjiahao.plugin.settings;
+
+import com.github.davisjiahao.mapping.NamingStrategy;
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * CloneFieldConfigurable
+ *
+ * Settings | Tools 下的配置页
+ *
+ * @author daviswujiahao
+ * @date 2022/12/13 20:30
+ * @since 1.0
+ **/
+public class CloneFieldConfigurable implements Configurable {
+
+    private ComboBox<CloneFieldSettings.GenerationBackend> generationBackend;
+
+    private JBCheckBox deepCopy;
+
+    private JBCheckBox nestedMappers;
+
+    private JBCheckBox bulkMappers;
+
+    private JBCheckBox parallelBulkMappers;
+
+    private JBIntSpinner parallelThreshold;
+
+    private JBIntSpinner slowPhaseThreshold;
+
+    private JBIntSpinner maxMethodBytecodeSize;
+
+    private ComboBox<NamingStrategy> namingStrategy;
+
+    private JBTextField ignoredPrefixes;
+
+    private JBTextField aliasAnnotations;
+
+    @Nls
+    @Override
+    public String getDisplayName() {
+        return "Clone Field Methods";
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        generationBackend = new ComboBox<>(CloneFieldSettings.GenerationBackend.values());
+        deepCopy = new JBCheckBox("Deep copy collections, maps and arrays");
+        nestedMappers = new JBCheckBox("Generate mappers for nested bean properties");
+        bulkMappers = new JBCheckBox("Generate bulk mappers for collections");
+        parallelBulkMappers = new JBCheckBox("Generate parallel bulk mappers");
+        parallelThreshold = new JBIntSpinner(10000, 1, Integer.MAX_VALUE, 1000);
+        slowPhaseThreshold = new JBIntSpinner(500, 1, Integer.MAX_VALUE, 100);
+        maxMethodBytecodeSize = new JBIntSpinner(6000, 500, 65535, 500);
+        namingStrategy = new ComboBox<>(NamingStrategy.values());
+        ignoredPrefixes = new JBTextField();
+        aliasAnnotations = new JBTextField();
+        bulkMappers.addItemListener(e -> parallelBulkMappers.setEnabled(bulkMappers.isSelected()));
+        parallelBulkMappers.addItemListener(e -> parallelThreshold.setEnabled(parallelBulkMappers.isSelected()));
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Generation backend:", generationBackend)
+                .addLabeledComponent("Property name matching:", namingStrategy)
+                .addLabeledComponent("Ignored name prefixes (comma separated):", ignoredPrefixes)
+                .addLabeledComponent("Alias annotations (comma separated):", aliasAnnotations)
+                .addComponent(deepCopy)
+                .addComponent(nestedMappers)
+                .addComponent(bulkMappers)
+                .addComponent(parallelBulkMappers)
+                .addLabeledComponent("Parallel threshold (elements):", parallelThreshold)
+                .addLabeledComponent("Split methods larger than (estimated bytecode bytes):", maxMethodBytecodeSize)
+                .addLabeledComponent("Warn when a generation phase exceeds (ms):", slowPhaseThreshold)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        CloneFieldSettings settings = CloneFieldSettings.getInstance();
+        return generationBackend.getSelectedItem() != settings.generationBackend
+                || deepCopy.isSelected() != settings.deepCopy
+                || nestedMappers.isSelected() != settings.nestedMappers
+                || bulkMappers.isSelected() != settings.bulkMappers
+                || parallelBulkMappers.isSelected() != settings.parallelBulkMappers
+                || parallelThreshold.getNumber() != settings.parallelThreshold
+                || slowPhaseThreshold.getNumber() != settings.slowPhaseThresholdMillis
+                || maxMethodBytecodeSize.getNumber() != settings.maxMethodBytecodeSize
+                || namingStrategy.getSelectedItem() != settings.namingStrategy
+                || !ignoredPrefixes.getText().equals(settings.ignoredPrefixes)
+                || !aliasAnnotations.getText().equals(settings.aliasAnnotations);
+    }
+
+    @Override
+    public void apply() {
+        CloneFieldSettings settings = CloneFieldSettings.getInstance();
+        settings.generationBackend = (CloneFieldSettings.GenerationBackend) generationBackend.getSelectedItem();
+        settings.deepCopy = deepCopy.isSelected();
+        settings.nestedMappers = nestedMappers.isSelected();
+        settings.bulkMappers = bulkMappers.isSelected();
+        settings.parallelBulkMappers = parallelBulkMappers.isSelected();
+        settings.parallelThreshold = parallelThreshold.getNumber();
+        settings.slowPhaseThresholdMillis = slowPhaseThreshold.getNumber();
+        settings.maxMethodBytecodeSize = maxMethodBytecodeSize.getNumber();
+        settings.setNamingStrategy((NamingStrategy) namingStrategy.getSelectedItem());
+        settings.setIgnoredPrefixes(ignoredPrefixes.getText());
+        settings.setAliasAnnotations(aliasAnnotations.getText());
+    }
+
+    @Override
+    public void reset() {
+        CloneFieldSettings settings = CloneFieldSettings.getInstance();
+        generationBackend.setSelectedItem(settings.generationBackend);
+        deepCopy.setSelected(settings.deepCopy);
+        nestedMappers.setSelected(settings.nestedMappers);
+        bulkMappers.setSelected(settings.bulkMappers);
+        parallelBulkMappers.setSelected(settings.parallelBulkMappers);
+        parallelThreshold.setNumber(settings.parallelThreshold);
+        slowPhaseThreshold.setNumber(settings.slowPhaseThresholdMillis);
+        maxMethodBytecodeSize.setNumber(settings.maxMethodBytecodeSize);
+        namingStrategy.setSelectedItem(settings.namingStrategy);
+        ignoredPrefixes.setText(settings.ignoredPrefixes);
+        aliasAnnotations.setText(settings.aliasAnnotations);
+        parallelBulkMappers.setEnabled(settings.bulkMappers);
+        parallelThreshold.setEnabled(settings.parallelBulkMappers);
+    }
+
+    @Override
+    public void disposeUIResources() {
+        generationBackend = null;
+        deepCopy = null;
+        nestedMappers = null;
+        bulkMappers = null;
+        parallelBulkMappers = null;
+        parallelThreshold = null;
+        slowPhaseThreshold = null;
+        maxMethodBytecodeSize = null;
+        namingStrategy = null;
+        ignoredPrefixes = null;
+        aliasAnnotations = null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.davisjiahao.plugin.settings;
+
+import com.github.davisjiahao.plugin.entity.TypeConverter;
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CloneFieldProjectConfigurable
+ *
+ * Settings | Tools 下的项目级配置页：日期格式以及自定义类型转换，每行一个 “来源类型 -> 目标类型: 表达式”
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 10:30
+ * @since 1.0
+ **/
+public class CloneFieldProjectConfigurable implements Configurable {
+
+    private static final String ARROW = "->";
+
+    private final Project project;
+
+    private JBTextField dateTimePattern;
+
+    private JBTextField datePattern;
+
+    private JBTextArea converters;
+
+    public CloneFieldProjectConfigurable(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Nls
+    @Override
+    public String getDisplayName() {
+        return "Clone Field Converters";
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        dateTimePattern = new JBTextField();
+        datePattern = new JBTextField();
+        converters = new JBTextArea(10, 60);
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Date time pattern:", dateTimePattern)
+                .addLabeledComponent("Date pattern:", datePattern)
+                .addLabeledComponent("Converters (source -> target: expression using " + TypeConverter.VALUE + "):",
+                        new JBScrollPane(converters), true)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        CloneFieldProjectSettings settings = CloneFieldProjectSettings.getInstance(project);
+        return !dateTimePattern.getText().equals(settings.dateTimePattern)
+                || !datePattern.getText().equals(settings.datePattern)
+                || !converters.getText().trim().equals(format(settings.converters));
+    }
+
+    @Override
+    public void apply() throws ConfigurationException {
+        checkPattern(dateTimePattern.getText());
+        checkPattern(datePattern.getText());
+        List<TypeConverter> parsed = parse(converters.getText());
+        CloneFieldProjectSettings settings = CloneFieldProjectSettings.getInstance(project);
+        settings.dateTimePattern = dateTimePattern.getText();
+        settings.datePattern = datePattern.getText();
+        settings.converters = parsed;
+    }
+
+    @Override
+    public void reset() {
+        CloneFieldProjectSettings settings = CloneFieldProjectSettings.getInstance(project);
+        dateTimePattern.setText(settings.dateTimePattern);
+        datePattern.setText(settings.datePattern);
+        converters.setText(format(settings.converters));
+    }
+
+    @Override
+    public void disposeUIResources() {
+        dateTimePattern = null;
+        datePattern = null;
+        converters = null;
+    }
+
+    private static void checkPattern(String pattern) throws ConfigurationException {
+        try {
+            DateTimeFormatter.ofPattern(pattern);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException("Invalid date pattern '" + pattern + "': " + e.getMessage());
+        }
+    }
+
+    private static List<TypeConverter> parse(String text) throws ConfigurationException {
+        List<TypeConverter> result = new ArrayList<>();
+        for (String line : StringUtils.split(text, '\n')) {
+            if (StringUtils.isBlank(line)) {
+                continue;
+            }
+            int arrow = line.indexOf(ARROW);
+            int colon = line.indexOf(':', arrow + 1);
+            if (arrow <= 0 || colon < 0) {
+                throw new ConfigurationException("Expected 'source -> target: expression', got '" + line.trim() + "'");
+            }
+            String expression = line.substring(colon + 1).trim();
+            if (!expression.contains(TypeConverter.VALUE)) {
+                throw new ConfigurationException("Expression must reference " + TypeConverter.VALUE + ": '" + line.trim() + "'");
+            }
+            result.add(new TypeConverter(line.substring(0, arrow).trim(), line.substring(arrow + ARROW.length(), colon).trim(), expression));
+        }
+        return result;
+    }
+
+    private static String format(List<TypeConverter> converters) {
+        StringBuilder text = new StringBuilder();
+        for (TypeConverter converter : converters) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            text.append(converter.getSourceType()).append(' ').append(ARROW).append(' ')
+                    .append(converter.getTargetType()).append(": ").append(converter.getExpression());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.davisjiahao.plugin.settings;
+
+import com.github.davisjiahao.plugin.entity.TypeConverter;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import com.intellij.util.xmlb.annotations.XCollection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CloneFieldProjectSettings
+ *
+ * 项目级配置：日期格式以及使用者自定义的类型转换，保存在 .idea 中可以随项目共享
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 10:30
+ * @since 1.0
+ **/
+@State(name = "CloneFieldProjectSettings", storages = @Storage("cloneFieldConverters.xml"))
+public class CloneFieldProjectSettings implements PersistentStateComponent<CloneFieldProjectSettings> {
+
+    /**
+     * Date / LocalDateTime 与 String 之间转换的格式
+     */
+    public String dateTimePattern = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * LocalDate 与 String 之间转换的格式
+     */
+    public String datePattern = "yyyy-MM-dd";
+
+    /**
+     * 自定义转换，优先于内置转换
+     */
+    @XCollection(elementTypes = TypeConverter.class)
+    public List<TypeConverter> converters = new ArrayList<>();
+
+    public static CloneFieldProjectSettings getInstance(@NotNull Project project) {
+        return ServiceManager.getService(project, CloneFieldProjectSettings.class);
+    }
+
+    @Override
+    public CloneFieldProjectSettings getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull CloneFieldProjectSettings state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.davisjiahao.plugin.settings;
+
+import com.github.davisjiahao.mapping.NamingStrategy;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import com.intellij.util.xmlb.annotations.Transient;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * CloneFieldSettings
+ *
+ * 插件的全局配置
+ *
+ * @author daviswujiahao
+ * @date 2022/11/30 20:40
+ * @since 1.0
+ **/
+@State(name = "CloneFieldSettings", storages = @Storage("auto-generate-build-entity-method.xml"))
+public class CloneFieldSettings implements PersistentStateComponent<CloneFieldSettings> {
+
+    public enum GenerationBackend {
+        /**
+         * 直接构建 PSI 语句
+         */
+        PSI,
+        /**
+         * 先用 JavaPoet 生成文本再解析为 PSI
+         */
+        JAVAPOET
+    }
+
+    public GenerationBackend generationBackend = GenerationBackend.PSI;
+
+    /**
+     * 集合、Map、数组属性是否深拷贝，默认直接复制引用
+     */
+    public boolean deepCopy = false;
+
+    /**
+     * 嵌套的复杂对象属性生成（或复用目标类中已有的）转换方法，默认直接复制引用
+     */
+    public boolean nestedMappers = false;
+
+    /**
+     * 同时生成 {@code List<Target> xxxAllFromSource(Collection<? extends Source>)} 批量转换方法
+     */
+    public boolean bulkMappers = false;
+
+    /**
+     * 同时生成在公共 ForkJoinPool 上并行转换的 xxxAllParallelFromSource 方法
+     */
+    public boolean parallelBulkMappers = false;
+
+    /**
+     * 元素数不少于该值时才并行，否则退回顺序转换
+     */
+    public int parallelThreshold = 10000;
+
+    /**
+     * 属性名的匹配策略，NORMALIZED 时 userId、user_id、USER_ID 互相匹配
+     */
+    public NamingStrategy namingStrategy = NamingStrategy.NORMALIZED;
+
+    /**
+     * 匹配时可以忽略的属性名前缀（第一个单词），逗号分隔，如 src,source
+     */
+    public String ignoredPrefixes = "";
+
+    /**
+     * 声明属性别名的注解（字段或 get、set 方法上），逗号分隔，读取 value、name、alternate、alternateNames
+     */
+    public String aliasAnnotations = "com.fasterxml.jackson.annotation.JsonProperty,com.fasterxml.jackson.annotation.JsonAlias,"
+            + "com.google.gson.annotations.SerializedName,com.alibaba.fastjson.annotation.JSONField";
+
+    /**
+     * 估算的方法体字节码超过该值时拆分为多个 private 方法；HotSpot 不编译超过 8000 字节的方法，默认留出估算误差的余量
+     */
+    public int maxMethodBytecodeSize = 6000;
+
+    /**
+     * 生成的某个阶段超过该耗时（毫秒）时在 idea.log 中记录各阶段耗时并提示
+     */
+    public int slowPhaseThresholdMillis = 500;
+
+    /**
+     * 影响属性模型或匹配结果的配置（别名注解、匹配策略、忽略的前缀）变更时递增，属性模型和过期检查的缓存依赖它，不持久化
+     */
+    @Transient
+    private final SimpleModificationTracker modelModificationTracker = new SimpleModificationTracker();
+
+    public static CloneFieldSettings getInstance() {
+        return ServiceManager.getService(CloneFieldSettings.class);
+    }
+
+    @Override
+    public CloneFieldSettings getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull CloneFieldSettings state) {
+        XmlSerializerUtil.copyBean(state, this);
+        modelModificationTracker.incModificationCount();
+    }
+
+    /**
+     * 匹配策略修改后调用，使缓存的过期检查结果失效
+     */
+    public void setNamingStrategy(NamingStrategy namingStrategy) {
+        if (this.namingStrategy != namingStrategy) {
+            this.namingStrategy = namingStrategy;
+            modelModificationTracker.incModificationCount();
+        }
+    }
+
+    /**
+     * 忽略的前缀修改后调用，使缓存的过期检查结果失效
+     */
+    public void setIgnoredPrefixes(String ignoredPrefixes) {
+        if (!Objects.equals(this.ignoredPrefixes, ignoredPrefixes)) {
+            this.ignoredPrefixes = ignoredPrefixes;
+            modelModificationTracker.incModificationCount();
+        }
+    }
+
+    /**
+     * 别名注解修改后调用，使缓存的属性模型失效
+     */
+    public void setAliasAnnotations(String aliasAnnotations) {
+        if (!Objects.equals(this.aliasAnnotations, aliasAnnotations)) {
+            this.aliasAnnotations = aliasAnnotations;
+            modelModificationTracker.incModificationCount();
+        }
+    }
+
+    @Transient
+    public ModificationTracker getModelModificationTracker() {
+        return modelModificationTracker;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.davisjiahao.plugin.toolwindow;
+
+import com.github.davisjiahao.plugin.entity.MapperAuditFinding;
+import com.intellij.psi.PsiMethod;
+import com.intellij.ui.CollectionListModel;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * MapperAuditPanel
+ *
+ * 一次审计的结果列表，结果在审计过程中陆续追加；双击跳转到方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/22 10:00
+ * @since 1.0
+ **/
+public class MapperAuditPanel extends JPanel {
+
+    private final JBLabel status = new JBLabel();
+
+    private final CollectionListModel<MapperAuditFinding> model = new CollectionListModel<>();
+
+    public MapperAuditPanel(@NotNull String initialStatus) {
+        super(new BorderLayout());
+        JBList<MapperAuditFinding> list = new JBList<>(model);
+        list.setCellRenderer(new ColoredListCellRenderer<MapperAuditFinding>() {
+            @Override
+            protected void customizeCellRenderer(@NotNull JList<? extends MapperAuditFinding> list, MapperAuditFinding finding,
+                                                 int index, boolean selected, boolean hasFocus) {
+                append(finding.getKind().name(), SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES);
+                append("  " + finding.getLocation() + "  ", SimpleTextAttributes.REGULAR_ATTRIBUTES);
+                append(finding.getMessage(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+            }
+        });
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(MouseEvent event) {
+                MapperAuditFinding finding = list.getSelectedValue();
+                PsiMethod method = finding == null ? null : finding.getMethod().getElement();
+                if (method == null || !method.canNavigate()) {
+                    return false;
+                }
+                method.navigate(true);
+                return true;
+            }
+        }.installOn(list);
+        status.setBorder(JBUI.Borders.empty(4));
+        status.setText(initialStatus);
+        add(status, BorderLayout.NORTH);
+        add(new JBScrollPane(list), BorderLayout.CENTER);
+    }
+
+    /**
+     * 追加结果，在 UI 线程调用
+     */
+    public void addFindings(@NotNull List<MapperAuditFinding> findings) {
+        model.add(findings);
+        status.setText(model.getSize() + " finding(s) so far...");
+    }
+
+    public int getFindingCount() {
+        return model.getSize();
+    }
+
+    public void setStatus(@NotNull String text) {
+        status.setText(text);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.davisjiahao.plugin.toolwindow;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.content.ContentManager;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * MapperAuditToolWindowFactory
+ *
+ * 审计结果的工具窗口，每次审计一个标签页
+ *
+ * @author daviswujiahao
+ * @date 2022/12/22 10:00
+ * @since 1.0
+ **/
+public class MapperAuditToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    public static final String ID = "Clone Field Audit";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        MapperAuditPanel panel = new MapperAuditPanel("Run Code | Generate Clone Field Methods | Audit Clone Field Methods");
+        toolWindow.getContentManager().addContent(ContentFactory.SERVICE.getInstance().createContent(panel, "", false));
+    }
+
+    /**
+     * 打开工具窗口并新建一个标签页，在 UI 线程调用
+     */
+    @NotNull
+    public static MapperAuditPanel openNewAudit(@NotNull Project project, @NotNull String title) {
+        MapperAuditPanel panel = new MapperAuditPanel("Searching generated methods...");
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(ID);
+        if (toolWindow != null) {
+            ContentManager contentManager = toolWindow.getContentManager();
+            Content content = ContentFactory.SERVICE.getInstance().createContent(panel, title, false);
+            contentManager.addContent(content);
+            contentManager.setSelectedContent(content);
+            toolWindow.activate(null);
+        }
+        return panel;
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.BeanProperty;
+import com.github.davisjiahao.plugin.entity.BeanPropertyModel;
+import com.github.davisjiahao.plugin.index.BeanAccessorEntry;
+import com.github.davisjiahao.plugin.index.BeanAccessorIndex;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * BeanPropertyModelUtil
+ *
+ * 按 PsiClass 缓存属性模型，Java 结构或别名注解配置变更后自动失效，避免每次调用都重新扫描父类链
+ *
+ * @author daviswujiahao
+ * @date 2022/11/26 10:30
+ * @since 1.0
+ **/
+public class BeanPropertyModelUtil {
+
+    private static final Key<CachedValue<BeanPropertyModel>> DECLARED_MODEL_KEY = Key.create("clone.field.declared.property.model");
+
+    private static final Key<CachedValue<BeanPropertyModel>> HIERARCHY_MODEL_KEY = Key.create("clone.field.hierarchy.property.model");
+
+    private static final Pattern SET_PATTERN = Pattern.compile(CloneFieldMethodBuildUtil.SET_REGEX);
+
+    private static final Pattern GET_PATTERN = Pattern.compile(CloneFieldMethodBuildUtil.GET_REGEX);
+
+    private static final Pattern IS_PATTERN = Pattern.compile(CloneFieldMethodBuildUtil.IS_REGEX);
+
+    /**
+     * 获取类及其父类链上的全部属性（父类在前）
+     */
+    @NotNull
+    public static BeanPropertyModel getModel(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, HIERARCHY_MODEL_KEY, () -> {
+            BeanPropertyModel model = new BeanPropertyModel();
+            List<PsiClass> classes;
+            try (GenerationTimings.Phase ignored = GenerationTimings.phase("hierarchy walk")) {
+                classes = CloneFieldMethodBuildUtil.getPsiClassLinkList(psiClass);
+            }
+            for (PsiClass psi : classes) {
+                model.merge(getDeclaredModel(psi));
+            }
+            return CachedValueProvider.Result.create(model, PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT,
+                    CloneFieldSettings.getInstance().getModelModificationTracker());
+        });
+    }
+
+    /**
+     * 获取类自身声明的属性（含 lombok 补全的 get、set）
+     */
+    @NotNull
+    public static BeanPropertyModel getDeclaredModel(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, DECLARED_MODEL_KEY,
+                () -> CachedValueProvider.Result.create(buildDeclaredModel(psiClass), PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT,
+                        CloneFieldSettings.getInstance().getModelModificationTracker()));
+    }
+
+    private static BeanPropertyModel buildDeclaredModel(PsiClass psiClass) {
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("accessor discovery")) {
+            // 优先使用索引（别名也从索引读取），只有索引不可用（dumb mode、非源码类）时才遍历 PSI
+            BeanAccessorEntry entry = BeanAccessorIndex.getEntry(psiClass);
+            if (entry != null) {
+                return buildDeclaredModel(psiClass, entry);
+            }
+            BeanPropertyModel model = doBuildDeclaredModel(psiClass);
+            addAliases(psiClass, model);
+            return model;
+        }
+    }
+
+    private static BeanPropertyModel doBuildDeclaredModel(PsiClass psiClass) {
+        // lombok 推导的方法在前（按字段顺序），显式声明的方法覆盖同名属性
+        BeanPropertyModel model = LombokAccessorUtil.buildModel(psiClass);
+
+        List<String> setters = CloneFieldMethodBuildUtil.getMethods(psiClass, CloneFieldMethodBuildUtil.SET_REGEX);
+        for (String methodName : setters) {
+            BeanProperty property = model.getOrCreate(toKey(SET_PATTERN, methodName));
+            property.setSetterName(methodName);
+            PsiMethod method = findMethod(psiClass, methodName);
+            if (method != null) {
+                PsiParameter[] parameters = method.getParameterList().getParameters();
+                if (parameters.length == 1) {
+                    property.setPsiType(parameters[0].getType());
+                }
+            }
+        }
+
+        List<String> getters = CloneFieldMethodBuildUtil.getMethods(psiClass, CloneFieldMethodBuildUtil.GET_REGEX);
+        for (String methodName : CloneFieldMethodBuildUtil.getMethods(psiClass, CloneFieldMethodBuildUtil.IS_REGEX)) {
+            PsiMethod method = findMethod(psiClass, methodName);
+            if (method != null && PsiType.BOOLEAN.equals(method.getReturnType())) {
+                getters.add(methodName);
+            }
+        }
+        for (String methodName : getters) {
+            BeanProperty property = model.getOrCreate(getterKey(methodName));
+            property.setGetterName(methodName);
+            PsiMethod method = findMethod(psiClass, methodName);
+            if (method != null && method.getReturnType() != null) {
+                property.setPsiType(method.getReturnType());
+            }
+        }
+        return model;
+    }
+
+    private static BeanPropertyModel buildDeclaredModel(PsiClass psiClass, BeanAccessorEntry entry) {
+        BeanPropertyModel model = LombokAccessorUtil.buildModel(psiClass);
+        entry.getSetters().forEach((methodName, typeText) -> {
+            BeanProperty property = model.getOrCreate(toKey(SET_PATTERN, methodName));
+            property.setSetterName(methodName);
+            property.setTypeText(typeText, psiClass);
+        });
+        entry.getGetters().forEach((methodName, typeText) -> {
+            BeanProperty property = model.getOrCreate(getterKey(methodName));
+            property.setGetterName(methodName);
+            property.setTypeText(typeText, psiClass);
+        });
+        List<String> annotations = getAliasAnnotations();
+        if (!annotations.isEmpty()) {
+            entry.getAliases().forEach((key, aliasesByAnnotation) -> {
+                BeanProperty property = model.getProperty(key);
+                if (property != null) {
+                    aliasesByAnnotation.forEach((annotation, aliases) -> {
+                        if (isAliasAnnotation(annotation, annotations)) {
+                            aliases.forEach(property::addAlias);
+                        }
+                    });
+                }
+            });
+        }
+        return model;
+    }
+
+    /**
+     * 索引中保存的是源码中写的注解名（简单名或全限定名），与配置的全限定名比较
+     */
+    private static boolean isAliasAnnotation(String writtenName, List<String> annotations) {
+        for (String qualifiedName : annotations) {
+            if (writtenName.equals(qualifiedName) || writtenName.equals(StringUtil.getShortName(qualifiedName))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 索引不可用时，从字段及 get、set 方法上读取别名注解声明的名字；配置变更后模型缓存随之失效
+     */
+    private static void addAliases(PsiClass psiClass, BeanPropertyModel model) {
+        List<String> annotations = getAliasAnnotations();
+        if (annotations.isEmpty() || model.getProperties().isEmpty()) {
+            return;
+        }
+        for (PsiField field : psiClass.getFields()) {
+            if (!field.hasModifierProperty(PsiModifier.STATIC)) {
+                addAliases(field, model.getProperty(field.getName().toLowerCase()), annotations);
+            }
+        }
+        for (PsiMethod method : psiClass.getMethods()) {
+            String name = method.getName();
+            if (SET_PATTERN.matcher(name).matches()) {
+                addAliases(method, model.getProperty(toKey(SET_PATTERN, name)), annotations);
+            } else if (GET_PATTERN.matcher(name).matches()) {
+                addAliases(method, model.getProperty(toKey(GET_PATTERN, name)), annotations);
+            }
+        }
+    }
+
+    private static void addAliases(PsiModifierListOwner owner, BeanProperty property, List<String> annotations) {
+        if (property == null) {
+            return;
+        }
+        for (String qualifiedName : annotations) {
+            PsiAnnotation annotation = owner.getAnnotation(qualifiedName);
+            if (annotation == null) {
+                continue;
+            }
+            for (String attribute : BeanAccessorIndex.ALIAS_ATTRIBUTES) {
+                for (String alias : LombokAccessorUtil.getStringValues(annotation, attribute)) {
+                    if (StringUtils.isNotBlank(alias)) {
+                        property.addAlias(alias);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> getAliasAnnotations() {
+        List<String> result = new ArrayList<>();
+        for (String name : StringUtils.split(StringUtils.defaultString(CloneFieldSettings.getInstance().aliasAnnotations), ',')) {
+            if (StringUtils.isNotBlank(name)) {
+                result.add(name.trim());
+            }
+        }
+        return result;
+    }
+
+    private static PsiMethod findMethod(PsiClass psiClass, String methodName) {
+        PsiMethod[] methods = psiClass.findMethodsByName(methodName, false);
+        return methods.length > 0 ? methods[0] : null;
+    }
+
+    static String toKey(Pattern pattern, String methodName) {
+        return pattern.matcher(methodName).replaceAll("$1").toLowerCase();
+    }
+
+    /**
+     * getName -> name，boolean 的 isActive -> active，与 mapping-core 的 PropertyResolver 一致
+     */
+    private static String getterKey(String methodName) {
+        return toKey(GET_PATTERN.matcher(methodName).matches() ? GET_PATTERN : IS_PATTERN, methodName);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElementFactory;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.PsiTypesUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BulkMapperBuilder
+ *
+ * 单参数转换方法的批量版本 xxxAllFromSource：预分配 ArrayList，RandomAccess 的 List 按下标遍历；
+ * 并行版本 xxxAllParallelFromSource 超过阈值时在公共 ForkJoinPool 上按下标分片写入结果
+ *
+ * @author daviswujiahao
+ * @date 2022/12/16 21:00
+ * @since 1.0
+ **/
+class BulkMapperBuilder {
+
+    private static final String SOURCES = "sources";
+
+    /**
+     * 生成批量转换方法，parallelThreshold 小于 0 时不生成并行版本；主方法不是单个对象参数时返回空
+     */
+    static List<GeneratedMethod> build(GeneratedMethod main, int parallelThreshold) {
+        if (main.getParams().size() != 1 || main.getReturnType() == null) {
+            return Collections.emptyList();
+        }
+        PsiType sourceType = main.getParams().get(0).getPsiType();
+        PsiClass sourceClass = PsiTypesUtil.getPsiClass(sourceType);
+        PsiClass targetClass = PsiTypesUtil.getPsiClass(main.getReturnType());
+        if (sourceType instanceof PsiPrimitiveType || sourceClass == null || targetClass == null) {
+            return Collections.emptyList();
+        }
+        // 参数擦除后都是 Collection，同名重载的主方法（convert(A)/convert(B)）按来源类区分批量方法名
+        String suffix = "From" + sourceClass.getName();
+        String source = sourceType.getCanonicalText();
+        String target = main.getReturnType().getCanonicalText();
+        PsiElementFactory factory = JavaPsiFacade.getElementFactory(targetClass.getProject());
+        PsiType listType = factory.createTypeFromText("java.util.List<" + target + ">", null);
+        List<CreateMethodParam> params = Collections.singletonList(
+                new CreateMethodParam(SOURCES, factory.createTypeFromText("java.util.Collection<? extends " + source + ">", null)));
+
+        List<GeneratedMethod> result = new ArrayList<>(2);
+        GeneratedMethod bulk = new GeneratedMethod(main.getName() + "All" + suffix, listType, params, false);
+        bulk.getStatements().add("if (" + SOURCES + " == null) {\nreturn null;\n}");
+        bulk.getStatements().add("java.util.List<" + target + "> result = new java.util.ArrayList<>(" + SOURCES + ".size());");
+        bulk.getStatements().add("if (" + SOURCES + " instanceof java.util.RandomAccess && " + SOURCES + " instanceof java.util.List) {\n" +
+                "java.util.List<? extends " + source + "> list = (java.util.List<? extends " + source + ">) " + SOURCES + ";\n" +
+                "for (int i = 0, size = list.size(); i < size; i++) {\n" +
+                "result.add(" + main.getName() + "(list.get(i)));\n" +
+                "}\n" +
+                "} else {\n" +
+                "for (" + source + " source : " + SOURCES + ") {\n" +
+                "result.add(" + main.getName() + "(source));\n" +
+                "}\n" +
+                "}");
+        bulk.getStatements().add("return result;");
+        result.add(bulk);
+
+        if (parallelThreshold >= 0) {
+            GeneratedMethod parallel = new GeneratedMethod(main.getName() + "AllParallel" + suffix, listType, params, false);
+            parallel.getStatements().add("if (" + SOURCES + " == null || " + SOURCES + ".size() < " + parallelThreshold + ") {\n" +
+                    "return " + bulk.getName() + "(" + SOURCES + ");\n" +
+                    "}");
+            parallel.getStatements().add("java.util.List<? extends " + source + "> list = " + SOURCES + " instanceof java.util.RandomAccess && "
+                    + SOURCES + " instanceof java.util.List\n" +
+                    "? (java.util.List<? extends " + source + ">) " + SOURCES + " : new java.util.ArrayList<" + source + ">(" + SOURCES + ");");
+            // 每个下标只写一次，不发生结构修改，并行流结束时结果对调用线程可见
+            parallel.getStatements().add("java.util.List<" + target + "> result = new java.util.ArrayList<>(java.util.Collections.nCopies(list.size(), null));");
+            parallel.getStatements().add("java.util.stream.IntStream.range(0, list.size()).parallel()" +
+                    ".forEach(i -> result.set(i, " + main.getName() + "(list.get(i))));");
+            parallel.getStatements().add("return result;");
+            result.add(parallel);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.davisjiahao.plugin.utils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BytecodeSizeEstimator
+ *
+ * 按生成语句的文本估算 javac 编译后的字节码大小，用于判断方法是否会超过 HotSpot 的 HugeMethodLimit（8000 字节）。
+ * 只做保守估计：调用 3 字节、局部变量读写 2 字节、常量 2 字节、分支 3 字节、new 4 字节、for 循环 24 字节
+ *
+ * @author daviswujiahao
+ * @date 2022/12/20 16:30
+ * @since 1.0
+ **/
+class BytecodeSizeEstimator {
+
+    /**
+     * HotSpot 的 -XX:HugeMethodLimit，超过后方法不会被 JIT 编译
+     */
+    static final int HUGE_METHOD_LIMIT = 8000;
+
+    /**
+     * HotSpot 的 -XX:FreqInlineSize，热点调用的被调方法不超过该大小时可以内联
+     */
+    static final int FREQ_INLINE_SIZE = 325;
+
+    private static final Pattern PACKAGE_PREFIX = Pattern.compile("\\b(?:[a-z_$][\\w$]*\\.)+(?=[A-Z])");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*'");
+
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z_$][\\w$]*\\s*\\(?|\\d[\\w.]*|==|!=|<=|>=|&&|\\|\\||[=<>?]|\\$STR");
+
+    /**
+     * for-each 循环：iterator()、hasNext()、next()、checkcast、goto 以及局部变量读写
+     */
+    private static final int FOR_EACH = 24;
+
+    private static final Set<String> ONE_BYTE = new HashSet<>(Arrays.asList("null", "true", "false", "this", "return"));
+
+    private static final Set<String> BRANCHES = new HashSet<>(Arrays.asList("if", "for", "while", "==", "!=", "<", ">", "<=", ">=", "?", "&&", "||"));
+
+    private static final Set<String> IGNORED = new HashSet<>(Arrays.asList("else", "int", "long", "short", "byte", "char", "boolean",
+            "float", "double", "void", "final", "instanceof"));
+
+    private BytecodeSizeEstimator() {
+    }
+
+    static int estimate(List<String> statements) {
+        int size = 0;
+        for (String statement : statements) {
+            size += estimate(statement);
+        }
+        return size;
+    }
+
+    static int estimate(String statement) {
+        String text = STRING_LITERAL.matcher(PACKAGE_PREFIX.matcher(statement).replaceAll("")).replaceAll("\\$STR");
+        int size = 0;
+        Matcher matcher = TOKEN.matcher(text);
+        while (matcher.find()) {
+            String token = matcher.group().trim();
+            if (token.endsWith("(")) {
+                String name = token.substring(0, token.length() - 1).trim();
+                // if / while 按分支计，for 按 for-each 循环计，其余为方法调用或构造器调用
+                size += "for".equals(name) ? FOR_EACH : 3;
+            } else if ("new".equals(token)) {
+                size += 4;
+            } else if (ONE_BYTE.contains(token)) {
+                size += 1;
+            } else if (BRANCHES.contains(token)) {
+                size += 3;
+            } else if (IGNORED.contains(token) || Character.isUpperCase(token.charAt(0))) {
+                // 类型名不产生指令（强制类型转换另算在调用里也足够保守）
+                continue;
+            } else {
+                // 局部变量读写、赋值、常量
+                size += 2;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.SensitiveProgressWrapper;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * CloneFieldBatchGenerator
+ *
+ * 批量生成：并行计算范围内所有未解析调用对应的方法，去重后在一个写命令中插入。
+ * 每个文件一个读操作，读操作让位于写操作（用户输入时取消，之后重做该文件），文件的结果在读操作完成后才合并。
+ * 已生成（带 @cloneFieldMethod 标记）的方法同样按文件并行重新生成，与类的最新结构不一致的在一个写命令中刷新
+ *
+ * @author daviswujiahao
+ * @date 2022/12/03 14:10
+ * @since 1.0
+ **/
+public class CloneFieldBatchGenerator {
+
+    private final Project project;
+
+    private final boolean isMatched;
+
+    /**
+     * 最近一次 {@link #applyPlans} 中因擦除后签名与已有方法相同而没有插入的辅助方法
+     */
+    private final List<String> erasureClashes = new ArrayList<>();
+
+    public CloneFieldBatchGenerator(@NotNull Project project, boolean isMatched) {
+        this.project = project;
+        this.isMatched = isMatched;
+    }
+
+    /**
+     * 查找范围内的 Java 文件
+     */
+    @NotNull
+    public List<VirtualFile> findFiles(@NotNull GlobalSearchScope scope) {
+        return new ArrayList<>(DumbService.getInstance(project).runReadActionInSmartMode(
+                () -> FileTypeIndex.getFiles(JavaFileType.INSTANCE, scope)));
+    }
+
+    /**
+     * 并行计算所有文件中的生成结果，签名相同（目标类 + 方法名 + 参数类型）的只保留一个
+     */
+    @NotNull
+    public Collection<CloneMethodPlan> computePlans(@NotNull List<VirtualFile> files, @NotNull ProgressIndicator indicator) {
+        Map<String, CloneMethodPlan> plans = new ConcurrentHashMap<>();
+        AtomicInteger processed = new AtomicInteger();
+        indicator.setIndeterminate(false);
+
+        boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            List<CloneMethodPlan> filePlans = readFile(file, indicator, (psiFile, attempt) -> {
+                for (PsiMethodCallExpression call : findCandidateCalls(psiFile)) {
+                    ProgressManager.checkCanceled();
+                    CloneMethodPlan plan = CloneMethodPlanUtil.computePlan(call, isMatched);
+                    if (plan != null && isWritable(plan)) {
+                        attempt.add(plan);
+                    }
+                }
+            });
+            for (CloneMethodPlan plan : filePlans) {
+                plans.putIfAbsent(signatureKey(plan), plan);
+            }
+            indicator.setFraction((double) processed.incrementAndGet() / files.size());
+            return true;
+        });
+        if (!completed) {
+            throw new ProcessCanceledException();
+        }
+        return plans.values();
+    }
+
+    /**
+     * 并行重新生成文件中带生成标记的方法，只返回与类的最新结构不一致的方法及其刷新结果
+     */
+    @NotNull
+    public Map<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> computeRefreshes(@NotNull List<VirtualFile> files,
+                                                                                    @NotNull ProgressIndicator indicator) {
+        Map<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> refreshes = new ConcurrentHashMap<>();
+        boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            List<Pair<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan>> fileRefreshes = readFile(file, indicator, (psiFile, attempt) -> {
+                // 没有标记的文件不遍历方法
+                if (!StringUtil.contains(psiFile.getViewProvider().getContents(), GeneratedMethodMarker.TAG)) {
+                    return;
+                }
+                for (PsiMethod method : PsiTreeUtil.findChildrenOfType(psiFile, PsiMethod.class)) {
+                    ProgressManager.checkCanceled();
+                    if (!method.isWritable() || GeneratedMethodMarker.read(method) == null) {
+                        continue;
+                    }
+                    CloneMethodPlan plan = CloneMethodRefresher.computeRefresh(method);
+                    if (plan != null && !CloneMethodRefresher.isUpToDate(method, plan)) {
+                        attempt.add(Pair.create(SmartPointerManager.createPointer(method), plan));
+                    }
+                }
+            });
+            for (Pair<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> refresh : fileRefreshes) {
+                refreshes.put(refresh.first, refresh.second);
+            }
+            return true;
+        });
+        if (!completed) {
+            throw new ProcessCanceledException();
+        }
+        return refreshes;
+    }
+
+    /**
+     * 在可被写操作打断的读操作中处理一个 Java 文件，被打断或进入 dumb mode 时丢弃本次结果，等写操作、索引结束后重做
+     */
+    private <T> List<T> readFile(VirtualFile file, ProgressIndicator indicator, BiConsumer<PsiJavaFile, List<T>> reader) {
+        while (true) {
+            DumbService.getInstance(project).waitForSmartMode();
+            List<T> attempt = new ArrayList<>();
+            AtomicBoolean smart = new AtomicBoolean();
+            boolean finished = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> {
+                if (DumbService.isDumb(project)) {
+                    return;
+                }
+                smart.set(true);
+                PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+                if (psiFile instanceof PsiJavaFile) {
+                    reader.accept((PsiJavaFile) psiFile, attempt);
+                }
+            }, new SensitiveProgressWrapper(indicator));
+            if (finished && smart.get()) {
+                return attempt;
+            }
+            indicator.checkCanceled();
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+    }
+
+    /**
+     * 文件中所有未解析、可生成的方法调用
+     */
+    @NotNull
+    public static List<PsiMethodCallExpression> findCandidateCalls(@NotNull PsiFile psiFile) {
+        List<PsiMethodCallExpression> result = new ArrayList<>();
+        for (PsiMethodCallExpression call : PsiTreeUtil.findChildrenOfType(psiFile, PsiMethodCallExpression.class)) {
+            PsiReferenceExpression methodExpression = call.getMethodExpression();
+            if (methodExpression.getReferenceName() == null || call.getArgumentList().getExpressions().length == 0) {
+                continue;
+            }
+            if (methodExpression.resolve() == null) {
+                result.add(call);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在一个写命令中插入所有方法，只格式化插入的常量和方法
+     */
+    public int applyPlans(@NotNull Collection<CloneMethodPlan> plans, @NotNull String commandName) {
+        erasureClashes.clear();
+        Map<PsiClass, List<CloneMethodPlan>> plansByClass = new LinkedHashMap<>();
+        for (CloneMethodPlan plan : plans) {
+            PsiClass targetClass = plan.getTargetClass().getElement();
+            if (targetClass != null) {
+                plansByClass.computeIfAbsent(targetClass, k -> new ArrayList<>()).add(plan);
+            }
+        }
+        if (plansByClass.isEmpty()) {
+            return 0;
+        }
+
+        PsiFile[] files = plansByClass.keySet().stream().map(PsiElement::getContainingFile).distinct().toArray(PsiFile[]::new);
+        AtomicInteger inserted = new AtomicInteger();
+        WriteCommandAction.writeCommandAction(project, files).withName(commandName).run(() -> {
+            JavaCodeStyleManager javaCodeStyleManager = JavaCodeStyleManager.getInstance(project);
+            CodeStyleManager codeStyleManager = CodeStyleManager.getInstance(project);
+            for (Map.Entry<PsiClass, List<CloneMethodPlan>> entry : plansByClass.entrySet()) {
+                PsiClass targetClass = entry.getKey();
+                for (CloneMethodPlan plan : entry.getValue()) {
+                    // 同一个类的多个计划各自按插入前的类选择常量名，可能重名；冲突的留给下次生成
+                    if (targetClass.findMethodBySignature(plan.getMethod(), false) != null || plan.conflictsWith(targetClass)) {
+                        continue;
+                    }
+                    // 常量插在字段区，方法插在类末尾，中间是使用者的代码，只格式化插入的成员
+                    for (PsiMember member : plan.insertInto(targetClass)) {
+                        codeStyleManager.reformat(javaCodeStyleManager.shortenClassReferences(member));
+                        if (member instanceof PsiMethod) {
+                            inserted.incrementAndGet();
+                        }
+                    }
+                    for (String clash : plan.getErasureClashes()) {
+                        erasureClashes.add(targetClass.getQualifiedName() + ": " + clash);
+                    }
+                }
+            }
+        });
+        return inserted.get();
+    }
+
+    /**
+     * 在一个写命令中刷新所有方法，返回有改动的方法个数；计算后被删除的方法跳过
+     */
+    public int applyRefreshes(@NotNull Map<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> refreshes, @NotNull String commandName) {
+        Map<PsiMethod, CloneMethodPlan> methods = new LinkedHashMap<>();
+        for (Map.Entry<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan> entry : refreshes.entrySet()) {
+            PsiMethod method = entry.getKey().getElement();
+            if (method != null) {
+                methods.put(method, entry.getValue());
+            }
+        }
+        if (methods.isEmpty()) {
+            return 0;
+        }
+
+        PsiFile[] files = methods.keySet().stream().map(PsiElement::getContainingFile).distinct().toArray(PsiFile[]::new);
+        AtomicInteger refreshed = new AtomicInteger();
+        WriteCommandAction.writeCommandAction(project, files).withName(commandName).run(() -> {
+            for (Map.Entry<PsiMethod, CloneMethodPlan> entry : methods.entrySet()) {
+                if (entry.getKey().isValid() && CloneMethodRefresher.applyRefresh(entry.getKey(), entry.getValue()) > 0) {
+                    refreshed.incrementAndGet();
+                }
+            }
+        });
+        return refreshed.get();
+    }
+
+    @NotNull
+    public List<String> getErasureClashes() {
+        return erasureClashes;
+    }
+
+    private static boolean isWritable(CloneMethodPlan plan) {
+        PsiClass targetClass = plan.getTargetClass().getElement();
+        return targetClass != null && !(targetClass instanceof PsiCompiledElement) && targetClass.isWritable();
+    }
+
+    private static String signatureKey(CloneMethodPlan plan) {
+        PsiMethod method = plan.getMethod();
+        StringBuilder key = new StringBuilder();
+        PsiClass targetClass = plan.getTargetClass().getElement();
+        key.append(targetClass == null ? "" : targetClass.getQualifiedName()).append('#').append(method.getName()).append('(');
+        for (PsiParameter parameter : method.getParameterList().getParameters()) {
+            key.append(TypeConversionUtil.erasure(parameter.getType()).getCanonicalText()).append(',');
+        }
+        return key.append(')').toString();
+    }
+}
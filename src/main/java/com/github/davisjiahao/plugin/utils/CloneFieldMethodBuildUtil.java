@@ -1,12 +1,12 @@
 package com.github.davisjiahao.plugin.utils;
 
+import com.github.davisjiahao.mapping.PropertyResolver;
 import com.github.davisjiahao.plugin.entity.CreateMethodParam;
-import com.google.common.collect.Maps;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
 import com.intellij.psi.codeStyle.JavaCodeStyleManager;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.PsiTypesUtil;
 import com.intellij.refactoring.util.RefactoringUtil;
 import com.intellij.util.text.DateFormatUtil;
 import com.squareup.javapoet.MethodSpec;
@@ -20,7 +20,6 @@ import org.jetbrains.annotations.NotNull;
 import javax.lang.model.element.Modifier;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -33,111 +32,24 @@ import java.util.stream.Collectors;
  **/
 public class CloneFieldMethodBuildUtil {
 
-    protected static final String SET_REGEX = "set(\\w+)";
+    protected static final String SET_REGEX = PropertyResolver.SET_REGEX;
 
-    protected static final String GET_REGEX = "get(\\w+)";
+    protected static final String GET_REGEX = PropertyResolver.GET_REGEX;
 
-    public static String buildCodeBody(PsiType returnType, List<CreateMethodParam> params, boolean isMatched) {
-
-        Pattern setMtd = Pattern.compile(SET_REGEX);
+    protected static final String IS_REGEX = PropertyResolver.IS_REGEX;
 
-        // 获取类的set方法并存放起来
-        List<String> targetKey = new ArrayList<>();
-        Map<String, String> paramMtdMapTarget = new HashMap<>();
-        PsiClass psiClass = PsiTypesUtil.getPsiClass(returnType);
-        List<PsiClass> psiClassLinkList = getPsiClassLinkList(psiClass);
-        for (PsiClass psi : psiClassLinkList) {
-            List<String> methodsList = getMethods(psi, SET_REGEX, "set");
-            for (String methodName : methodsList) {
-                // 替换属性
-                String param = setMtd.matcher(methodName).replaceAll("$1").toLowerCase();
-                // 保存获取的属性信息
-                paramMtdMapTarget.put(param, methodName);
-                targetKey.add(param);
-            }
-        }
-
-        Map<String, SetParam> getMethodMap = buildGetMethodMap(params);
-
-        StringBuilder code = new StringBuilder(psiClass.getQualifiedName() + " newEntity = new " + psiClass.getQualifiedName() + "();\n");
-        for (String param : targetKey) {
-            if (isMatched && null == getMethodMap.get(param)) {
-                continue;
-            }
-            code.append("newEntity.").
-                    append(paramMtdMapTarget.get(param)).append("(").
-                    append(null == getMethodMap.get(param) ? "" : getMethodMap.get(param).getParamName()).
-                    append(null == getMethodMap.get(param) || getMethodMap.get(param).isInNotComplex() ? "" : "." + getMethodMap.get(param).getMethodName() + "()").
-                    append(");\n");
-        }
-        code.append("return newEntity;");
-        return code.toString();
-    }
-
-    protected static Map<String, SetParam> buildGetMethodMap(List<CreateMethodParam> params) {
-
-        Map<String, SetParam> result = Maps.newHashMap();
-
-        for (CreateMethodParam createMethodParam : params) {
-            PsiType psiTypeParam = createMethodParam.getPsiType();
-            PsiClass psiClassParam = PsiTypesUtil.getPsiClass(psiTypeParam);
-            if (psiClassParam == null || getJavaBaseTypeDefaultValue(psiClassParam.getName()) != null) {
-                if (result.containsKey(createMethodParam.getName())) {
-                    continue;
-                }
-                result.put(createMethodParam.getName().toLowerCase(), new SetParam(true, createMethodParam.getName(), createMethodParam.getName()));
-            } else {
-                List<PsiClass> psiClassLinkListParam = getPsiClassLinkList(psiClassParam);
-                Pattern getM = Pattern.compile(GET_REGEX);
-                for (PsiClass psi : psiClassLinkListParam) {
-                    List<String> methodsList = getMethods(psi, GET_REGEX, "get");
-                    for (String methodName : methodsList) {
-                        String param = getM.matcher(methodName).replaceAll("$1").toLowerCase();
-                        if (result.containsKey(param)) {
-                            continue;
-                        }
-                        result.put(param, new SetParam(false, methodName, createMethodParam.getName()));
-                    }
-                }
-            }
-        }
-        return result;
+    /**
+     * 主方法的方法体（深拷贝等需要的辅助方法、类型转换需要的常量见 {@link CloneMethodGenerator#generate}）
+     */
+    public static String buildCodeBody(PsiType returnType, List<CreateMethodParam> params, boolean isMatched) {
+        return String.join("\n", buildStatements(returnType, params, isMatched));
     }
 
-    public static class SetParam {
-        private boolean isInNotComplex;
-        private String methodName;
-        private String paramName;
-
-        public SetParam(boolean isInNotComplex, String methodName, String paramName) {
-            this.isInNotComplex = isInNotComplex;
-            this.methodName = methodName;
-            this.paramName = paramName;
-        }
-
-        public boolean isInNotComplex() {
-            return isInNotComplex;
-        }
-
-        public void setInNotComplex(boolean inNotComplex) {
-            isInNotComplex = inNotComplex;
-        }
-
-        public String getMethodName() {
-            return methodName;
-        }
-
-        public void setMethodName(String methodName) {
-            this.methodName = methodName;
-        }
-
-        public String getParamName() {
-            return paramName;
-        }
-
-        public void setParamName(String paramName) {
-            this.paramName = paramName;
-        }
+    /**
+     * 生成方法体，每个元素是一条语句
+     */
+    public static List<String> buildStatements(PsiType returnType, List<CreateMethodParam> params, boolean isMatched) {
+        return new CloneMethodGenerator(isMatched).buildStatements(returnType, params);
     }
 
     /**
@@ -205,52 +117,18 @@ public class CloneFieldMethodBuildUtil {
         return psiClassList;
     }
 
-    private static boolean isUsedLombok(PsiClass psiClass) {
-        return null != psiClass.getAnnotation("lombok.Data");
-    }
-
-    protected static List<String> getMethods(PsiClass psiClass, String regex, String typeStr) {
-        PsiMethod[] methods = psiClass.getMethods();
+    /**
+     * 类自身声明的、名字符合 regex 的方法；lombok 推导的方法见 {@link LombokAccessorUtil}
+     */
+    protected static List<String> getMethods(PsiClass psiClass, String regex) {
+        Pattern pattern = Pattern.compile(regex);
         List<String> methodList = new ArrayList<>();
-
-        // 判断使用了 lombok，需要补全生成 get、set
-        if (isUsedLombok(psiClass)) {
-            Pattern p = Pattern.compile("static.*?final|final.*?static");
-            PsiField[] fields = psiClass.getFields();
-            for (PsiField psiField : fields) {
-                String fieldVal = Objects.requireNonNull(psiField.getNameIdentifier().getContext()).getText();
-                // serialVersionUID 判断
-                if (fieldVal.contains("serialVersionUID")){
-                    continue;
-                }
-                // static final 常量判断过滤
-                Matcher matcher = p.matcher(fieldVal);
-                if (matcher.find()){
-                    continue;
-                }
-                String name = psiField.getNameIdentifier().getText();
-                methodList.add(typeStr + name.substring(0, 1).toUpperCase() + name.substring(1));
-            }
-
-            for (PsiMethod method : methods) {
-                String methodName = method.getName();
-                if (Pattern.matches(regex, methodName) && !methodList.contains(methodName)) {
-                    methodList.add(methodName);
-                }
-            }
-
-            return methodList;
-        }
-
-
-        // 正常创建的get、set，直接获取即可
-        for (PsiMethod method : methods) {
+        for (PsiMethod method : psiClass.getMethods()) {
             String methodName = method.getName();
-            if (Pattern.matches(regex, methodName)) {
+            if (pattern.matcher(methodName).matches()) {
                 methodList.add(methodName);
             }
         }
-
         return methodList;
     }
 
@@ -293,24 +171,34 @@ public class CloneFieldMethodBuildUtil {
 
 
     public static MethodSpec transformMethod(Project project, PsiType returnType, List<CreateMethodParam> params, String methodName, boolean isMatched) {
+        GeneratedMethod generatedMethod = new GeneratedMethod(methodName, returnType, params, false);
+        generatedMethod.getStatements().addAll(buildStatements(returnType, params, isMatched));
+        return transformMethod(project, generatedMethod);
+    }
+
+    public static MethodSpec transformMethod(Project project, GeneratedMethod generatedMethod) {
 
         PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
 
         List<String> names = Lists.newArrayList();
         List<PsiType> psiTypes = Lists.newArrayList();
-        params.forEach(param-> {
+        generatedMethod.getParams().forEach(param-> {
             names.add(param.getName());
             psiTypes.add(param.getPsiType());
         });
         PsiParameterList parameterList = factory.createParameterList(names.toArray(new String[0]), psiTypes.toArray(new PsiType[0]));
-        TypeName returnTypeName = Optional.ofNullable(returnType)
+        TypeName returnTypeName = Optional.ofNullable(generatedMethod.getReturnType())
                 .map(JavaPoetClassNameUtils::guessType)
                 .orElse(TypeName.VOID);
 
-        return MethodSpec.methodBuilder(methodName)
-                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        MethodSpec.Builder builder = MethodSpec.methodBuilder(generatedMethod.getName());
+        if (generatedMethod.getDocComment() != null) {
+            builder.addJavadoc("$L\n", generatedMethod.getDocComment());
+        }
+        return builder
+                .addModifiers(generatedMethod.isHelper() ? Modifier.PRIVATE : Modifier.PUBLIC, Modifier.STATIC)
                 .addParameters(transformParameter(parameterList.getParameters()))
-                .addCode(CloneFieldMethodBuildUtil.buildCodeBody(returnType, params, isMatched))
+                .addCode("$L", String.join("\n", generatedMethod.getStatements()) + "\n")
                 .returns(returnTypeName)
                 .build();
     }
@@ -0,0 +1,610 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.mapping.Assignment;
+import com.github.davisjiahao.mapping.MappingPlan;
+import com.github.davisjiahao.mapping.MappingPlanner;
+import com.github.davisjiahao.mapping.MatchKind;
+import com.github.davisjiahao.mapping.MatchOptions;
+import com.github.davisjiahao.mapping.SourceAccessor;
+import com.github.davisjiahao.mapping.SourceParameter;
+import com.github.davisjiahao.plugin.entity.BeanProperty;
+import com.github.davisjiahao.plugin.entity.BeanPropertyModel;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
+import com.github.davisjiahao.plugin.entity.TargetConstruction;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiParameter;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.PsiTypesUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * CloneMethodGenerator
+ *
+ * 一次生成的上下文：主方法以及按 (来源类型, 目标类型) 去重的辅助方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/13 20:30
+ * @since 1.0
+ **/
+public class CloneMethodGenerator {
+
+    static final String NEW_ENTITY = "newEntity";
+
+    /**
+     * 拆分出的方法名为 主方法名 + Part + 序号
+     */
+    static final String PART_SUFFIX = "Part";
+
+    private final boolean isMatched;
+
+    private final boolean deepCopy;
+
+    private final boolean nestedMappers;
+
+    private final CloneFieldSettings settings;
+
+    private final MatchOptions matchOptions;
+
+    /**
+     * 方法要插入的类，其中已有的 (来源类型) -> 目标类型 方法直接复用；为 null 时不复用
+     */
+    private final PsiClass targetClass;
+
+    private final Map<String, GeneratedMethod> helpers = new LinkedHashMap<>();
+
+    /**
+     * 转换用到的静态常量，常量名 -> 字段声明，与方法一起插入目标类
+     */
+    private final Map<String, String> constants = new LinkedHashMap<>();
+
+    /**
+     * 本次登记的常量名 -> 类型
+     */
+    private final Map<String, String> constantTypes = new HashMap<>();
+
+    /**
+     * 不是完全匹配的属性（归一化、别名、前缀），供使用者核对
+     */
+    private final List<String> inexactMatches = new ArrayList<>();
+
+    /**
+     * (来源类型, 目标类型) -> 目标类中已有的方法名，首次需要辅助方法时才扫描目标类
+     */
+    private Map<String, String> existingMappers;
+
+    /**
+     * 正在生成的主方法（只有一个参数时）对应的类型对，嵌套属性引用回根类型时调用主方法本身
+     */
+    private String mainKey;
+
+    private String mainName;
+
+    public CloneMethodGenerator(boolean isMatched) {
+        this(isMatched, CloneFieldSettings.getInstance(), null);
+    }
+
+    public CloneMethodGenerator(boolean isMatched, PsiClass targetClass) {
+        this(isMatched, CloneFieldSettings.getInstance(), targetClass);
+    }
+
+    public CloneMethodGenerator(boolean isMatched, CloneFieldSettings settings) {
+        this(isMatched, settings, null);
+    }
+
+    public CloneMethodGenerator(boolean isMatched, CloneFieldSettings settings, PsiClass targetClass) {
+        this.isMatched = isMatched;
+        this.deepCopy = settings.deepCopy;
+        this.nestedMappers = settings.nestedMappers;
+        this.settings = settings;
+        this.matchOptions = matchOptions(settings);
+        this.targetClass = targetClass;
+    }
+
+    /**
+     * 生成主方法、（开启时的）批量转换方法及其依赖的辅助方法，主方法在第一个
+     */
+    public List<GeneratedMethod> generate(PsiType returnType, List<CreateMethodParam> params, String methodName) {
+        if (params.size() == 1) {
+            mainKey = mapperKey(params.get(0).getPsiType(), returnType);
+            mainName = methodName;
+        }
+        GeneratedMethod main = new GeneratedMethod(methodName, returnType, params, false);
+        main.getStatements().addAll(buildStatements(returnType, params, methodName, null));
+        return finish(main, false);
+    }
+
+    /**
+     * 生成写入已有对象的主方法：最后一个参数是目标对象，其余参数是来源，不创建目标对象；
+     * fluent 时返回目标对象以便链式调用，否则返回 void。只支持 set 方式的目标类，见 {@link #canCopyInto}
+     */
+    public List<GeneratedMethod> generateCopyInto(PsiType targetType, List<CreateMethodParam> params, String methodName, boolean fluent) {
+        String receiver = params.get(params.size() - 1).getName();
+        GeneratedMethod main = new GeneratedMethod(methodName, fluent ? targetType : null, params, false);
+        main.getStatements().addAll(buildStatements(targetType, params, methodName, receiver));
+        if (fluent) {
+            main.getStatements().add("return " + receiver + ";");
+        }
+        return finish(main, true);
+    }
+
+    private List<GeneratedMethod> finish(GeneratedMethod main, boolean copyInto) {
+        // 拆分出的方法属于主方法的一部分，一起计算摘要
+        String receiver = copyInto ? main.getParams().get(main.getParams().size() - 1).getName() : NEW_ENTITY;
+        List<String> unitHashes = new ArrayList<>();
+        List<GeneratedMethod> owned = new ArrayList<>();
+        owned.add(main);
+        for (GeneratedMethod helper : helpers.values()) {
+            if (isPartOf(helper, main)) {
+                owned.add(helper);
+            }
+        }
+        for (GeneratedMethod method : owned) {
+            MethodUnitSplitter.split(method.getStatements(), Function.identity(), receiver, main.getName())
+                    .forEach((key, unit) -> unitHashes.add(MethodUnitSplitter.hash(key, unit)));
+        }
+        main.setDocComment(new GeneratedMethodMarker(isMatched, copyInto, MethodUnitSplitter.combine(unitHashes)).toDocText());
+
+        List<GeneratedMethod> result = new ArrayList<>(helpers.size() + 3);
+        result.add(main);
+        if (settings.bulkMappers) {
+            result.addAll(BulkMapperBuilder.build(main, settings.parallelBulkMappers ? settings.parallelThreshold : -1));
+        }
+        result.addAll(helpers.values());
+        return result;
+    }
+
+    /**
+     * 生成方法体，每个元素是一条语句
+     */
+    List<String> buildStatements(PsiType returnType, List<CreateMethodParam> params) {
+        return buildStatements(returnType, params, null, null);
+    }
+
+    /**
+     * 生成方法体，methodName 不为 null 时，过宽的 set 方式方法体拆分到 methodNamePartN 辅助方法中；
+     * receiver 不为 null 时写入该参数（最后一个参数）而不创建 newEntity，也不生成 return
+     */
+    private List<String> buildStatements(PsiType returnType, List<CreateMethodParam> params, String methodName, String receiver) {
+
+        // 获取类的set方法（属性模型按类缓存，父类在前）
+        PsiClass psiClass = PsiTypesUtil.getPsiClass(returnType);
+        BeanPropertyModel targetModel = BeanPropertyModelUtil.getModel(psiClass);
+        TargetConstruction construction = TargetConstructionUtil.getConstruction(psiClass);
+        TargetConstruction.Kind kind = construction == null ? TargetConstruction.Kind.SETTERS : construction.getKind();
+
+        Map<String, PsiType> paramTypes = new HashMap<>();
+        Map<String, BeanPropertyModel> paramModels = new HashMap<>();
+        Set<String> names = new HashSet<>();
+        names.add(NEW_ENTITY);
+        for (CreateMethodParam param : params) {
+            names.add(param.getName());
+            paramTypes.put(param.getName(), param.getPsiType());
+        }
+        String entity = receiver != null ? receiver : NEW_ENTITY;
+        List<SourceParameter> sources = toSources(receiver != null ? params.subList(0, params.size() - 1) : params, paramModels);
+
+        String className = psiClass.getQualifiedName();
+        Map<String, PsiType> slotTypes = new HashMap<>();
+        if (kind != TargetConstruction.Kind.SETTERS) {
+            for (TargetConstruction.Slot slot : construction.getSlots()) {
+                slotTypes.put(slot.getKey(), slot.getPsiType());
+            }
+        }
+        MappingPlan plan = plan(psiClass, construction, sources, isMatched, matchOptions);
+        GenerationTimings.count(GenerationTimings.FIELDS, plan.getAssignments().size());
+        GenerationTimings.count(GenerationTimings.CLASSES, 1 + paramModels.size());
+
+        List<String> statements = new ArrayList<>(plan.getAssignments().size() + 2);
+        if (kind == TargetConstruction.Kind.SETTERS && receiver == null) {
+            statements.add(className + " " + NEW_ENTITY + " = new " + className + "();");
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        // set 方式下每个属性的准备语句和 set 调用是一个整体，拆分方法时不能分开
+        List<List<String>> units = new ArrayList<>(plan.getAssignments().size());
+        for (Assignment assignment : plan.getAssignments()) {
+            ProgressManager.checkCanceled();
+            String key = assignment.getTarget().getKey();
+            String name = assignment.getTarget().getSetterName();
+            String value = null;
+            List<String> unit = new ArrayList<>(2);
+            if (assignment.isMapped()) {
+                SourceAccessor source = assignment.getSource();
+                if (assignment.getMatchKind() != MatchKind.EXACT) {
+                    inexactMatches.add(name + " <- " + source.toExpression() + " (" + assignment.getMatchKind().name().toLowerCase()
+                            + ", " + Math.round(assignment.getConfidence() * 100) + "%)");
+                }
+                PsiType targetType;
+                if (kind == TargetConstruction.Kind.SETTERS) {
+                    BeanProperty targetProperty = targetModel.getProperty(key);
+                    targetType = targetProperty == null ? null : targetProperty.getPsiType();
+                } else {
+                    targetType = slotTypes.get(key);
+                }
+                String localName = kind == TargetConstruction.Kind.SETTERS ? localName(name) : name;
+                ValueConversion conversion = convert(names, localName, source.toExpression(),
+                        sourceType(source, paramTypes, paramModels), targetType);
+                unit.addAll(conversion.getStatements());
+                value = conversion.getExpression();
+            }
+            if (kind == TargetConstruction.Kind.SETTERS) {
+                // full 模式下没有来源的属性生成空的 set 调用，由使用者补全
+                unit.add(entity + "." + name + "(" + StringUtils.defaultString(value) + ");");
+                units.add(unit);
+            } else {
+                statements.addAll(unit);
+                values.put(key, value);
+            }
+        }
+        if (kind == TargetConstruction.Kind.SETTERS) {
+            statements.addAll(methodName == null ? flatten(units) : split(methodName, returnType, params, units, receiver));
+        }
+
+        switch (kind) {
+            case CONSTRUCTOR:
+                List<String> arguments = new ArrayList<>(construction.getSlots().size());
+                for (TargetConstruction.Slot slot : construction.getSlots()) {
+                    String value = values.get(slot.getKey());
+                    arguments.add(value != null ? value : defaultValue(slot.getPsiType()));
+                }
+                statements.add("return new " + className + "(" + String.join(", ", arguments) + ");");
+                break;
+            case BUILDER:
+                StringBuilder builder = new StringBuilder("return ").append(className).append('.')
+                        .append(TargetConstructionUtil.getBuilderMethodName(psiClass)).append("()");
+                for (Assignment assignment : plan.getAssignments()) {
+                    builder.append("\n.").append(assignment.getTarget().getSetterName())
+                            .append('(').append(StringUtils.defaultString(values.get(assignment.getTarget().getKey()))).append(')');
+                }
+                statements.add(builder.append("\n.").append(TargetConstructionUtil.getBuildMethodName(psiClass)).append("();").toString());
+                break;
+            default:
+                if (receiver == null) {
+                    statements.add("return " + NEW_ENTITY + ";");
+                }
+        }
+        return statements;
+    }
+
+    /**
+     * 只计算匹配结果、不生成代码，供检查工具判断生成过的方法是否过期，类的属性模型都走缓存
+     */
+    public static MappingPlan plan(PsiClass psiClass, List<CreateMethodParam> params, boolean isMatched) {
+        return plan(psiClass, TargetConstructionUtil.getConstruction(psiClass), toSources(params, new HashMap<>()), isMatched,
+                matchOptions(CloneFieldSettings.getInstance()));
+    }
+
+    private static MappingPlan plan(PsiClass psiClass, TargetConstruction construction, List<SourceParameter> sources, boolean isMatched,
+                                    MatchOptions options) {
+        if (construction == null || construction.getKind() == TargetConstruction.Kind.SETTERS) {
+            return MappingPlanner.plan(BeanPropertyModelUtil.getModel(psiClass).getPropertySet(), sources, isMatched, options);
+        }
+        // 构造器的参数不能省略，没有来源的参数补默认值
+        return MappingPlanner.plan(TargetConstructionUtil.toPropertySet(construction), sources,
+                isMatched || construction.getKind() == TargetConstruction.Kind.CONSTRUCTOR, options);
+    }
+
+    private static MatchOptions matchOptions(CloneFieldSettings settings) {
+        List<String> prefixes = new ArrayList<>();
+        for (String prefix : StringUtils.split(StringUtils.defaultString(settings.ignoredPrefixes), ',')) {
+            if (StringUtils.isNotBlank(prefix)) {
+                prefixes.add(prefix.trim());
+            }
+        }
+        return new MatchOptions(settings.namingStrategy, prefixes);
+    }
+
+    private static List<SourceParameter> toSources(List<CreateMethodParam> params, Map<String, BeanPropertyModel> paramModels) {
+        List<SourceParameter> sources = new ArrayList<>(params.size());
+        for (CreateMethodParam param : params) {
+            PsiClass psiClassParam = PsiTypesUtil.getPsiClass(param.getPsiType());
+            if (psiClassParam == null || MappingPlanner.isBaseTypeName(psiClassParam.getName())) {
+                sources.add(SourceParameter.baseType(param.getName(), param.getPsiType().getCanonicalText()));
+            } else {
+                BeanPropertyModel model = BeanPropertyModelUtil.getModel(psiClassParam);
+                paramModels.put(param.getName(), model);
+                sources.add(new SourceParameter(param.getName(), param.getPsiType().getCanonicalText(), model.getPropertySet()));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * 估算的字节码超过配置的上限时（默认留出余量，避免超过 HugeMethodLimit 后方法不被 JIT 编译），
+     * 按属性把 set 语句分到若干 private 方法中，每个方法不超过 FreqInlineSize，返回主方法中的委托调用
+     */
+    private List<String> split(String methodName, PsiType returnType, List<CreateMethodParam> params, List<List<String>> units,
+                               String receiver) {
+        List<String> statements = flatten(units);
+        if (BytecodeSizeEstimator.estimate(statements) <= settings.maxMethodBytecodeSize) {
+            return statements;
+        }
+        // 写入已有对象时目标对象已经是参数
+        List<CreateMethodParam> partParams = new ArrayList<>(params);
+        if (receiver == null) {
+            partParams.add(new CreateMethodParam(NEW_ENTITY, returnType));
+        }
+        List<String> arguments = new ArrayList<>(partParams.size());
+        partParams.forEach(param -> arguments.add(param.getName()));
+
+        List<String> delegates = new ArrayList<>();
+        GeneratedMethod part = null;
+        int partSize = 0;
+        for (List<String> unit : units) {
+            int unitSize = BytecodeSizeEstimator.estimate(unit);
+            if (part == null || partSize + unitSize > BytecodeSizeEstimator.FREQ_INLINE_SIZE) {
+                String name = methodName + PART_SUFFIX + (delegates.size() + 1);
+                part = new GeneratedMethod(name, null, partParams, true);
+                // 重载的方法（如 toDto(Order) 与 toDto(OrderLine)）拆分出同名的方法，按参数类型区分
+                helpers.put(PART_SUFFIX + ":" + name + signature(partParams), part);
+                delegates.add(name + "(" + String.join(", ", arguments) + ");");
+                partSize = 0;
+            }
+            part.getStatements().addAll(unit);
+            partSize += unitSize;
+        }
+        return delegates;
+    }
+
+    /**
+     * name 是否是从 methodName 拆分出的方法（只看名字，重载的方法拆分出的方法同名，见 {@link #isPartOf}）
+     */
+    static boolean isPart(String name, String methodName) {
+        String prefix = methodName + PART_SUFFIX;
+        return name.length() > prefix.length() && name.startsWith(prefix) && StringUtils.isNumeric(name.substring(prefix.length()));
+    }
+
+    /**
+     * part 是否是从 owner 拆分出的方法：名字符合，且参数是 owner 的参数（set 方式再加上 newEntity）
+     */
+    static boolean isPartOf(PsiMethod part, PsiMethod owner) {
+        return isPart(part.getName(), owner.getName())
+                && isPartSignature(types(part.getParameterList().getParameters()), types(owner.getParameterList().getParameters()));
+    }
+
+    static boolean isPartOf(GeneratedMethod part, GeneratedMethod owner) {
+        return isPart(part.getName(), owner.getName()) && isPartSignature(types(part.getParams()), types(owner.getParams()));
+    }
+
+    private static boolean isPartSignature(List<String> partTypes, List<String> ownerTypes) {
+        int extra = partTypes.size() - ownerTypes.size();
+        return (extra == 0 || extra == 1) && partTypes.subList(0, ownerTypes.size()).equals(ownerTypes);
+    }
+
+    private static List<String> types(PsiParameter[] parameters) {
+        List<String> result = new ArrayList<>(parameters.length);
+        for (PsiParameter parameter : parameters) {
+            result.add(parameter.getType().getCanonicalText());
+        }
+        return result;
+    }
+
+    private static List<String> types(List<CreateMethodParam> params) {
+        List<String> result = new ArrayList<>(params.size());
+        for (CreateMethodParam param : params) {
+            result.add(param.getPsiType().getCanonicalText());
+        }
+        return result;
+    }
+
+    private static String signature(List<CreateMethodParam> params) {
+        return "(" + String.join(",", types(params)) + ")";
+    }
+
+    private static List<String> flatten(List<List<String>> units) {
+        List<String> statements = new ArrayList<>();
+        units.forEach(statements::addAll);
+        return statements;
+    }
+
+    /**
+     * 基本类型/包装类型转换优先，其次是日期、枚举等类型转换，再次是（开启时的）深拷贝、嵌套对象的转换方法，都不需要时直接取值
+     */
+    private ValueConversion convert(Set<String> names, String localName, String value, PsiType sourceType, PsiType targetType) {
+        ValueConversion conversion = PrimitiveConversionBuilder.build(names, localName, value, sourceType, targetType);
+        if (conversion == null) {
+            conversion = TypeConversionBuilder.build(this, names, localName, value, sourceType, targetType);
+        }
+        if (conversion == null && deepCopy) {
+            conversion = DeepCopyBuilder.build(this, names, localName, value, sourceType, targetType);
+        }
+        if (conversion == null && nestedMappers && sourceType != null && targetType != null && isBean(sourceType) && isBean(targetType)) {
+            conversion = new ValueConversion().setExpression(requireHelper(sourceType, targetType) + "(" + value + ")");
+        }
+        return conversion != null ? conversion : new ValueConversion().setExpression(value);
+    }
+
+    private static String defaultValue(PsiType psiType) {
+        return psiType instanceof PsiPrimitiveType ? PrimitiveConversionBuilder.defaultValue((PsiPrimitiveType) psiType) : "null";
+    }
+
+    /**
+     * 获取（必要时生成）把 sourceType 转换为 targetType 的辅助方法，返回方法名
+     */
+    String requireHelper(PsiType sourceType, PsiType targetType) {
+        String key = mapperKey(sourceType, targetType);
+        String existing = key.equals(mainKey) ? mainName : getExistingMappers().get(key);
+        if (existing != null) {
+            return existing;
+        }
+        GeneratedMethod helper = helpers.get(key);
+        if (helper != null) {
+            return helper.getName();
+        }
+        PsiClass targetPsiClass = PsiTypesUtil.getPsiClass(targetType);
+        String name = (sourceType.equals(targetType) ? "copy" : "to") + (targetPsiClass == null ? "Entity" : targetPsiClass.getName());
+        helper = new GeneratedMethod(name, targetType,
+                Collections.singletonList(new CreateMethodParam("source", sourceType)), true);
+        // 先登记再生成方法体，相互引用的类型不会无限递归
+        helpers.put(key, helper);
+        helper.getStatements().add("if (source == null) {\nreturn null;\n}");
+        helper.getStatements().addAll(buildStatements(targetType, helper.getParams(), name, null));
+        return name;
+    }
+
+    /**
+     * 登记转换用到的静态常量，返回实际使用的常量名：目标类中已有同名同类型的字段时直接使用，
+     * 名字已被其他类型占用（如不同包的同名枚举、使用者自己的同名字段）时依次尝试 name_2、name_3...
+     *
+     * @param type        常量的类型（全限定名）
+     * @param declaration 按常量名生成声明
+     */
+    String requireConstant(String name, String type, Function<String, String> declaration) {
+        for (int i = 1; ; i++) {
+            String candidate = i == 1 ? name : name + "_" + i;
+            String registered = constantTypes.get(candidate);
+            if (registered != null) {
+                if (registered.equals(type)) {
+                    return candidate;
+                }
+                continue;
+            }
+            PsiField existing = targetClass == null ? null : targetClass.findFieldByName(candidate, false);
+            if (existing != null) {
+                PsiType constantType = JavaPsiFacade.getElementFactory(targetClass.getProject()).createTypeFromText(type, targetClass);
+                if (existing.hasModifierProperty(PsiModifier.STATIC) && constantType.equals(existing.getType())) {
+                    return candidate;
+                }
+                continue;
+            }
+            constantTypes.put(candidate, type);
+            constants.put(candidate, declaration.apply(candidate));
+            return candidate;
+        }
+    }
+
+    /**
+     * 本次生成中不是完全匹配的属性，如 setUserId <- source.getUser_id() (normalized, 90%)
+     */
+    public List<String> getInexactMatches() {
+        return inexactMatches;
+    }
+
+    /**
+     * 本次生成需要新增到目标类的常量声明
+     */
+    public Collection<String> getConstants() {
+        return constants.values();
+    }
+
+    private static String mapperKey(PsiType sourceType, PsiType targetType) {
+        return sourceType.getCanonicalText() + "->" + targetType.getCanonicalText();
+    }
+
+    /**
+     * 目标类中已有的单参数、有返回值的静态方法（生成的方法都是静态的），按 (参数类型, 返回类型) 登记，同一对类型只保留第一个
+     */
+    private Map<String, String> getExistingMappers() {
+        if (existingMappers == null) {
+            existingMappers = new HashMap<>();
+            if (targetClass != null) {
+                for (PsiMethod method : targetClass.getMethods()) {
+                    PsiParameter[] parameters = method.getParameterList().getParameters();
+                    PsiType returnType = method.getReturnType();
+                    if (parameters.length == 1 && returnType instanceof PsiClassType
+                            && method.hasModifierProperty(PsiModifier.STATIC)) {
+                        existingMappers.putIfAbsent(mapperKey(parameters[0].getType(), returnType), method.getName());
+                    }
+                }
+            }
+        }
+        return existingMappers;
+    }
+
+    /**
+     * 只有 set 方式的类可以写入已有对象，构造器、builder 方式的类是不可变的
+     */
+    public static boolean canCopyInto(PsiClass psiClass) {
+        TargetConstruction construction = TargetConstructionUtil.getConstruction(psiClass);
+        return construction == null || construction.getKind() == TargetConstruction.Kind.SETTERS;
+    }
+
+    /**
+     * 生成的方法赋值的目标类型：copyInto 方式为最后一个参数的类型，否则为返回类型
+     */
+    static PsiType targetTypeOf(PsiMethod method, GeneratedMethodMarker marker) {
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        if (!marker.isCopyInto()) {
+            return method.getReturnType();
+        }
+        return parameters.length < 2 ? null : parameters[parameters.length - 1].getType();
+    }
+
+    /**
+     * 生成的方法中 set 调用的限定符：copyInto 方式为最后一个参数，否则为 newEntity
+     */
+    static String receiverOf(PsiMethod method, GeneratedMethodMarker marker) {
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        return marker.isCopyInto() && parameters.length > 0 ? parameters[parameters.length - 1].getName() : NEW_ENTITY;
+    }
+
+    /**
+     * 生成的方法的来源参数：copyInto 方式不包括最后一个（目标对象）参数
+     */
+    static List<CreateMethodParam> sourceParamsOf(PsiMethod method, GeneratedMethodMarker marker) {
+        PsiParameter[] parameters = method.getParameterList().getParameters();
+        int count = marker.isCopyInto() ? Math.max(0, parameters.length - 1) : parameters.length;
+        List<CreateMethodParam> params = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            params.add(new CreateMethodParam(parameters[i].getName(), parameters[i].getType()));
+        }
+        return params;
+    }
+
+    /**
+     * 可以用 set 方法、构造器或 builder 构造的类
+     */
+    static boolean isBean(PsiType psiType) {
+        PsiClass psiClass = PsiTypesUtil.getPsiClass(psiType);
+        if (psiClass == null || MappingPlanner.isBaseTypeName(psiClass.getName())
+                || StringUtils.startsWith(psiClass.getQualifiedName(), "java.")) {
+            return false;
+        }
+        TargetConstruction construction = TargetConstructionUtil.getConstruction(psiClass);
+        if (construction == null) {
+            return false;
+        }
+        return construction.getKind() == TargetConstruction.Kind.SETTERS
+                ? !BeanPropertyModelUtil.getModel(psiClass).getWritableProperties().isEmpty()
+                : !construction.getSlots().isEmpty();
+    }
+
+    private static PsiType sourceType(SourceAccessor source, Map<String, PsiType> paramTypes, Map<String, BeanPropertyModel> paramModels) {
+        String paramName = source.getParameter().getName();
+        if (source.isParameterItself()) {
+            return paramTypes.get(paramName);
+        }
+        BeanPropertyModel model = paramModels.get(paramName);
+        BeanProperty property = model == null ? null : model.getProperty(source.getProperty().getKey());
+        return property == null ? null : property.getPsiType();
+    }
+
+    /**
+     * set 方法对应的局部变量名，lombok fluent 方法没有 set 前缀
+     */
+    private static String localName(String setterName) {
+        return setterName.length() > 3 && setterName.startsWith("set") ? StringUtils.uncapitalize(setterName.substring(3)) : setterName;
+    }
+
+    /**
+     * 生成不与已有名字冲突的局部变量名
+     */
+    static String uniqueName(Set<String> names, String base) {
+        String name = base;
+        for (int i = 1; !names.add(name); i++) {
+            name = base + i;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,330 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.intellij.codeInsight.ExpectedTypeInfo;
+import com.intellij.codeInsight.daemon.impl.quickfix.CreateFromUsageUtils;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * CloneMethodPlanUtil
+ *
+ * 在读锁下计算要插入的方法，不修改 PSI
+ *
+ * @author daviswujiahao
+ * @date 2022/11/28 21:05
+ * @since 1.0
+ **/
+public class CloneMethodPlanUtil {
+
+    /**
+     * 计算方法调用对应的生成结果，无法推断返回类型或目标类时返回 null
+     */
+    @Nullable
+    public static CloneMethodPlan computePlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        return timed(() -> doComputePlan(call, isMatched));
+    }
+
+    /**
+     * 计算 copyInto(source..., target) 调用对应的生成结果：最后一个实参是要写入的目标对象，
+     * 调用的结果被使用时生成返回目标对象的 fluent 方法，否则返回 void。
+     * 少于两个实参、目标类型无法解析或不是 set 方式的类时返回 null
+     */
+    @Nullable
+    public static CloneMethodPlan computeCopyIntoPlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        return timed(() -> doComputeCopyIntoPlan(call, isMatched));
+    }
+
+    /**
+     * 计算 toMap(entity) 调用对应的实体转 Map 方法，实参不是有可读属性的实体、
+     * 或调用处需要的类型不能接收 Map&lt;String, Object&gt; 时返回 null
+     */
+    @Nullable
+    public static CloneMethodPlan computeToMapPlan(@NotNull PsiMethodCallExpression call) {
+        return timed(() -> doComputeToMapPlan(call));
+    }
+
+    /**
+     * 计算 fromMap(map) 调用对应的 Map 转实体方法，实参不是键为 String 的 Map、
+     * 或调用处需要的类型不是 set 方式的类时返回 null
+     */
+    @Nullable
+    public static CloneMethodPlan computeFromMapPlan(@NotNull PsiMethodCallExpression call) {
+        return timed(() -> doComputeFromMapPlan(call));
+    }
+
+    @Nullable
+    private static CloneMethodPlan timed(Supplier<CloneMethodPlan> computation) {
+        // 被写操作取消后会重新执行，每次都重新计时
+        GenerationTimings timings = GenerationTimings.begin();
+        try {
+            CloneMethodPlan plan = computation.get();
+            if (plan != null) {
+                plan.setTimings(timings);
+            }
+            return plan;
+        } finally {
+            GenerationTimings.end();
+        }
+    }
+
+    @Nullable
+    private static CloneMethodPlan doComputePlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        Project project = call.getProject();
+        PsiReferenceExpression methodExpression = call.getMethodExpression();
+
+        PsiClass targetClass = resolveTargetClass(call);
+        if (targetClass == null) {
+            return null;
+        }
+
+        List<CreateMethodParam> params;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("getExpectedParameters")) {
+            params = CloneFieldMethodBuildUtil.getExpectedParameters(call);
+        }
+        ProgressManager.checkCanceled();
+
+        ExpectedTypeInfo[] expectedTypeInfos;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("guessExpectedTypes")) {
+            expectedTypeInfos = CreateFromUsageUtils.guessExpectedTypes(methodExpression,
+                    methodExpression.getParent() instanceof PsiStatement);
+        }
+        if (expectedTypeInfos.length == 0 || PsiUtil.resolveClassInClassTypeOnly(expectedTypeInfos[0].getType()) == null) {
+            return null;
+        }
+        ProgressManager.checkCanceled();
+
+        return buildPlan(project, expectedTypeInfos[0].getType(), params, methodExpression.getReferenceName(), isMatched, targetClass);
+    }
+
+    @Nullable
+    private static CloneMethodPlan doComputeCopyIntoPlan(@NotNull PsiMethodCallExpression call, boolean isMatched) {
+        PsiClass targetClass = resolveTargetClass(call);
+        if (targetClass == null) {
+            return null;
+        }
+
+        List<CreateMethodParam> params;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("getExpectedParameters")) {
+            params = CloneFieldMethodBuildUtil.getExpectedParameters(call);
+        }
+        if (params.size() < 2) {
+            return null;
+        }
+        PsiType entityType = params.get(params.size() - 1).getPsiType();
+        PsiClass entityClass = PsiUtil.resolveClassInClassTypeOnly(entityType);
+        if (entityClass == null || !CloneMethodGenerator.canCopyInto(entityClass)) {
+            return null;
+        }
+        ProgressManager.checkCanceled();
+
+        boolean fluent = !(call.getParent() instanceof PsiExpressionStatement);
+        return buildCopyIntoPlan(call.getProject(), entityType, params, call.getMethodExpression().getReferenceName(), isMatched,
+                fluent, targetClass);
+    }
+
+    @Nullable
+    private static CloneMethodPlan doComputeToMapPlan(@NotNull PsiMethodCallExpression call) {
+        PsiClass targetClass = resolveTargetClass(call);
+        List<CreateMethodParam> params;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("getExpectedParameters")) {
+            params = CloneFieldMethodBuildUtil.getExpectedParameters(call);
+        }
+        if (targetClass == null || params.size() != 1) {
+            return null;
+        }
+        PsiClass entityClass = PsiUtil.resolveClassInClassTypeOnly(params.get(0).getPsiType());
+        if (entityClass == null || StringUtils.startsWith(entityClass.getQualifiedName(), "java.")
+                || BeanPropertyModelUtil.getModel(entityClass).getReadableProperties().isEmpty()) {
+            return null;
+        }
+        ProgressManager.checkCanceled();
+
+        PsiType mapType = JavaPsiFacade.getElementFactory(call.getProject()).createTypeFromText(MapConversionBuilder.MAP_TYPE, call);
+        // 结果被使用时，需要的类型必须能接收 Map<String, Object>
+        if (!(call.getParent() instanceof PsiExpressionStatement)) {
+            PsiType expectedType = guessExpectedType(call);
+            if (expectedType == null || !expectedType.isAssignableFrom(mapType)) {
+                return null;
+            }
+        }
+        CloneMethodGenerator generator = new CloneMethodGenerator(false, targetClass);
+        GeneratedMethod method;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("body building")) {
+            method = MapConversionBuilder.buildToMap(call.getMethodExpression().getReferenceName(), mapType, params.get(0));
+        }
+        return toPlan(call.getProject(), generator, Collections.singletonList(method), targetClass);
+    }
+
+    @Nullable
+    private static CloneMethodPlan doComputeFromMapPlan(@NotNull PsiMethodCallExpression call) {
+        PsiClass targetClass = resolveTargetClass(call);
+        List<CreateMethodParam> params;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("getExpectedParameters")) {
+            params = CloneFieldMethodBuildUtil.getExpectedParameters(call);
+        }
+        if (targetClass == null || params.size() != 1) {
+            return null;
+        }
+        PsiType keyType = PsiUtil.substituteTypeParameter(params.get(0).getPsiType(), CommonClassNames.JAVA_UTIL_MAP, 0, false);
+        if (keyType == null || !keyType.equalsToText(CommonClassNames.JAVA_LANG_STRING)) {
+            return null;
+        }
+        PsiType entityType = guessExpectedType(call);
+        PsiClass entityClass = PsiUtil.resolveClassInClassTypeOnly(entityType);
+        if (entityClass == null || !CloneMethodGenerator.canCopyInto(entityClass)) {
+            return null;
+        }
+        ProgressManager.checkCanceled();
+
+        CloneMethodGenerator generator = new CloneMethodGenerator(false, targetClass);
+        GeneratedMethod method;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("body building")) {
+            method = MapConversionBuilder.buildFromMap(generator, call.getMethodExpression().getReferenceName(), entityType, params.get(0),
+                    PsiType.getJavaLangString(call.getManager(), call.getResolveScope()));
+        }
+        return toPlan(call.getProject(), generator, Collections.singletonList(method), targetClass);
+    }
+
+    /**
+     * 调用处需要的类型，推断不出时返回 null
+     */
+    @Nullable
+    private static PsiType guessExpectedType(@NotNull PsiMethodCallExpression call) {
+        ExpectedTypeInfo[] expectedTypeInfos;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("guessExpectedTypes")) {
+            expectedTypeInfos = CreateFromUsageUtils.guessExpectedTypes(call.getMethodExpression(), false);
+        }
+        return expectedTypeInfos.length == 0 ? null : expectedTypeInfos[0].getType();
+    }
+
+    /**
+     * 按配置选择直接构建 PSI 或经 JavaPoet 文本生成，主方法在第一个，转换用到的常量一并生成
+     */
+    @NotNull
+    public static CloneMethodPlan buildPlan(Project project, PsiType returnType, List<CreateMethodParam> params, String methodName,
+                                            boolean isMatched, PsiClass targetClass) {
+        CloneMethodGenerator generator = new CloneMethodGenerator(isMatched, targetClass);
+        List<GeneratedMethod> generatedMethods;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("body building")) {
+            generatedMethods = generator.generate(returnType, params, methodName);
+        }
+        return toPlan(project, generator, generatedMethods, targetClass);
+    }
+
+    /**
+     * 写入已有对象（最后一个参数）的方法，见 {@link CloneMethodGenerator#generateCopyInto}
+     */
+    @NotNull
+    public static CloneMethodPlan buildCopyIntoPlan(Project project, PsiType entityType, List<CreateMethodParam> params, String methodName,
+                                                    boolean isMatched, boolean fluent, PsiClass targetClass) {
+        CloneMethodGenerator generator = new CloneMethodGenerator(isMatched, targetClass);
+        List<GeneratedMethod> generatedMethods;
+        try (GenerationTimings.Phase ignored = GenerationTimings.phase("body building")) {
+            generatedMethods = generator.generateCopyInto(entityType, params, methodName, fluent);
+        }
+        return toPlan(project, generator, generatedMethods, targetClass);
+    }
+
+    private static CloneMethodPlan toPlan(Project project, CloneMethodGenerator generator, List<GeneratedMethod> generatedMethods,
+                                          PsiClass targetClass) {
+        CloneMethodPlan plan = new CloneMethodPlan(SmartPointerManager.createPointer(targetClass),
+                renderMethods(project, generatedMethods, targetClass));
+        plan.setFields(renderFields(project, generator.getConstants(), targetClass));
+        plan.setInexactMatches(generator.getInexactMatches());
+        return plan;
+    }
+
+    /**
+     * 把常量声明转换成（非物理的）PsiField
+     */
+    @NotNull
+    public static List<PsiField> renderFields(Project project, Collection<String> declarations, PsiClass targetClass) {
+        PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
+        List<PsiField> result = new ArrayList<>(declarations.size());
+        for (String declaration : declarations) {
+            result.add(factory.createFieldFromText(declaration, targetClass));
+        }
+        return result;
+    }
+
+    /**
+     * 把生成结果转换成（非物理的）PsiMethod
+     */
+    @NotNull
+    public static List<PsiMethod> renderMethods(Project project, List<GeneratedMethod> generatedMethods, PsiClass targetClass) {
+        boolean javaPoet = CloneFieldSettings.getInstance().generationBackend == CloneFieldSettings.GenerationBackend.JAVAPOET;
+        PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
+
+        List<PsiMethod> result = new ArrayList<>(generatedMethods.size());
+        for (GeneratedMethod generatedMethod : generatedMethods) {
+            ProgressManager.checkCanceled();
+            if (javaPoet) {
+                String text;
+                try (GenerationTimings.Phase ignored = GenerationTimings.phase("JavaPoet emission")) {
+                    text = CloneFieldMethodBuildUtil.transformMethod(project, generatedMethod).toString();
+                }
+                try (GenerationTimings.Phase ignored = GenerationTimings.phase("createMethodFromText")) {
+                    result.add(factory.createMethodFromText(text, targetClass));
+                }
+            } else {
+                try (GenerationTimings.Phase ignored = GenerationTimings.phase("PSI building")) {
+                    result.add(PsiMethodBuildUtil.buildMethod(project, generatedMethod, targetClass));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 有限定符时生成到限定符对应的类，否则生成到调用所在文件的第一个类
+     */
+    @Nullable
+    public static PsiClass resolveTargetClass(@NotNull PsiMethodCallExpression call) {
+        PsiClass qualifierClass = resolveQualifierClass(call.getMethodExpression());
+        if (qualifierClass != null) {
+            return qualifierClass;
+        }
+        PsiFile file = call.getContainingFile();
+        if (file instanceof PsiJavaFile && ((PsiJavaFile) file).getClasses().length > 0) {
+            return ((PsiJavaFile) file).getClasses()[0];
+        }
+        return null;
+    }
+
+    private static PsiClass resolveQualifierClass(PsiReferenceExpression myRef) {
+        PsiExpression qualifier = myRef.getQualifierExpression();
+        if (qualifier != null) {
+            PsiClass psiClass = PsiUtil.resolveClassInClassTypeOnly(qualifier.getType());
+
+            if (psiClass != null) {
+                return psiClass;
+            }
+
+            if (!(qualifier instanceof PsiJavaCodeReferenceElement)) {
+                return null;
+            }
+
+            PsiElement psiElement = ((PsiJavaCodeReferenceElement) qualifier).resolve();
+            if (!(psiElement instanceof PsiClass)) {
+                return null;
+            }
+            return (PsiClass) psiElement;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,326 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.codeStyle.JavaCodeStyleManager;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.javadoc.PsiDocTag;
+import com.intellij.psi.util.PsiTypesUtil;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * CloneMethodRefresher
+ *
+ * 就地刷新生成过的方法：按单元（set 调用及其前面的准备语句，见 {@link MethodUnitSplitter}）对比新旧方法体，
+ * 只插入、删除或替换变化的单元，使用者改过的单元保留不动，只缩短和格式化新插入的语句。
+ * 标记中只有一个合并摘要：与当前方法体一致时，和新生成结果不同的单元都是类结构变化导致的，直接替换；
+ * 不一致时无法区分是谁改的，和新生成结果不同的旧单元一律当作使用者改过保留，刷新后把它们的摘要记到标记里
+ *
+ * @author daviswujiahao
+ * @date 2022/12/18 14:30
+ * @since 1.0
+ **/
+public class CloneMethodRefresher {
+
+    /**
+     * 读阶段：按标记中的模式重新生成方法，不是生成的方法时返回 null
+     */
+    @Nullable
+    public static CloneMethodPlan computeRefresh(@NotNull PsiMethod method) {
+        GeneratedMethodMarker marker = GeneratedMethodMarker.read(method);
+        PsiClass targetClass = method.getContainingClass();
+        if (marker == null || targetClass == null) {
+            return null;
+        }
+        PsiType targetType = CloneMethodGenerator.targetTypeOf(method, marker);
+        PsiClass entityClass = PsiTypesUtil.getPsiClass(targetType);
+        if (entityClass == null || (marker.isCopyInto() && !CloneMethodGenerator.canCopyInto(entityClass))) {
+            return null;
+        }
+        List<CreateMethodParam> params = new ArrayList<>();
+        for (PsiParameter parameter : method.getParameterList().getParameters()) {
+            params.add(new CreateMethodParam(parameter.getName(), parameter.getType()));
+        }
+        ProgressManager.checkCanceled();
+        if (marker.isCopyInto()) {
+            return CloneMethodPlanUtil.buildCopyIntoPlan(method.getProject(), targetType, params, method.getName(),
+                    marker.isMatched(), !PsiType.VOID.equals(method.getReturnType()), targetClass);
+        }
+        return CloneMethodPlanUtil.buildPlan(method.getProject(), targetType, params, method.getName(),
+                marker.isMatched(), targetClass);
+    }
+
+    /**
+     * 方法体是否与重新生成的结果一致（使用者改过的单元不算差异）
+     */
+    public static boolean isUpToDate(@NotNull PsiMethod method, @NotNull CloneMethodPlan plan) {
+        RefreshDiff diff = new RefreshDiff(method, plan);
+        return diff.kept.containsAll(diff.oldUnits.keySet()) && diff.kept.containsAll(diff.newUnits.keySet());
+    }
+
+    /**
+     * 类中从主方法拆分出的方法（按名字和参数类型识别，重载的方法各自的部分互不影响）
+     */
+    @NotNull
+    public static List<PsiMethod> findParts(@NotNull PsiMethod method) {
+        PsiClass psiClass = method.getContainingClass();
+        List<PsiMethod> parts = new ArrayList<>();
+        if (psiClass != null) {
+            for (PsiMethod candidate : psiClass.getMethods()) {
+                if (CloneMethodGenerator.isPartOf(candidate, method)) {
+                    parts.add(candidate);
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * 写阶段：应用差异，返回变化的单元个数。
+     * 主方法和拆分出的方法一起按单元对比：生成后没改过的单元，不再需要或内容变化时删除，
+     * 使用者改过的单元（如补全了 full 模式的空调用）原样保留，也不再插入新生成的同名单元；
+     * 新单元插入到所在方法中前一个单元之后，缺少的拆分方法先创建，不再需要且已经空了的拆分方法删除
+     */
+    public static int applyRefresh(@NotNull PsiMethod method, @NotNull CloneMethodPlan plan) {
+        Project project = method.getProject();
+        PsiClass targetClass = method.getContainingClass();
+        if (method.getBody() == null || targetClass == null) {
+            return 0;
+        }
+        RefreshDiff diff = new RefreshDiff(method, plan);
+        List<PsiElement> inserted = new ArrayList<>();
+        Set<String> changed = new HashSet<>();
+
+        for (Map.Entry<String, Unit> entry : diff.oldUnits.entrySet()) {
+            if (!diff.kept.contains(entry.getKey())) {
+                entry.getValue().statements.forEach(PsiElement::delete);
+                changed.add(entry.getKey());
+            }
+        }
+        Map<String, PsiMethod> oldParts = new HashMap<>();
+        for (PsiMethod part : findParts(method)) {
+            if (diff.newParts.containsKey(part.getName()) || diff.retainedParts.contains(part.getName())) {
+                oldParts.put(part.getName(), part);
+            } else {
+                part.delete();
+            }
+        }
+
+        PsiMethod previous = method;
+        for (PsiMethod newMethod : ContainerUtil.prepend(new ArrayList<>(diff.newParts.values()), plan.getMethod())) {
+            PsiMethod target = newMethod == plan.getMethod() ? method : oldParts.get(newMethod.getName());
+            if (target == null) {
+                PsiMethod empty = (PsiMethod) newMethod.copy();
+                for (PsiStatement statement : Objects.requireNonNull(empty.getBody()).getStatements()) {
+                    statement.delete();
+                }
+                target = (PsiMethod) targetClass.addAfter(empty, previous);
+                inserted.add(target);
+            }
+            PsiCodeBlock body = Objects.requireNonNull(target.getBody());
+            PsiElement anchor = body.getLBrace();
+            for (Map.Entry<String, List<PsiStatement>> entry : diff.split(newMethod).entrySet()) {
+                Unit oldUnit = diff.oldUnits.get(entry.getKey());
+                if (diff.kept.contains(entry.getKey())) {
+                    if (oldUnit.method == target) {
+                        anchor = oldUnit.statements.get(oldUnit.statements.size() - 1);
+                    }
+                    continue;
+                }
+                for (PsiStatement statement : entry.getValue()) {
+                    anchor = body.addAfter(statement, anchor);
+                    inserted.add(anchor);
+                }
+                changed.add(entry.getKey());
+            }
+            previous = target;
+        }
+
+        // 新增的常量（如新属性的日期格式）
+        for (PsiField field : plan.getFields()) {
+            if (targetClass.findFieldByName(field.getName(), false) == null) {
+                inserted.add(targetClass.add(field));
+            }
+        }
+        // 新增的辅助方法（如新属性的集合元素转换）
+        for (PsiMethod helper : plan.getMethods().subList(1, plan.getMethods().size())) {
+            if (!CloneMethodGenerator.isPartOf(helper, plan.getMethod()) && targetClass.findMethodBySignature(helper, false) == null) {
+                inserted.add(targetClass.add(helper));
+            }
+        }
+
+        JavaCodeStyleManager javaCodeStyleManager = JavaCodeStyleManager.getInstance(project);
+        CodeStyleManager codeStyleManager = CodeStyleManager.getInstance(project);
+        for (PsiElement element : inserted) {
+            if (element.isValid()) {
+                codeStyleManager.reformat(javaCodeStyleManager.shortenClassReferences(element));
+            }
+        }
+        updateMarker(method, diff);
+        return changed.size();
+    }
+
+    /**
+     * 单元及其所在的方法
+     */
+    private static class Unit {
+
+        private final PsiMethod method;
+
+        private final List<PsiStatement> statements;
+
+        private Unit(PsiMethod method, List<PsiStatement> statements) {
+            this.method = method;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * 新旧方法（连同拆分出的方法）按单元对比的结果
+     */
+    private static class RefreshDiff {
+
+        private final String receiver;
+
+        private final String methodName;
+
+        private final GeneratedMethodMarker newMarker;
+
+        /**
+         * 旧方法中的单元，键见 {@link MethodUnitSplitter}
+         */
+        private final Map<String, Unit> oldUnits;
+
+        private final Map<String, Unit> newUnits;
+
+        /**
+         * 新计划中拆分出的方法，按名字
+         */
+        private final Map<String, PsiMethod> newParts = new LinkedHashMap<>();
+
+        /**
+         * 原样保留的旧单元：使用者改过的，或者内容和所在方法都没变的
+         */
+        private final Set<String> kept = new HashSet<>();
+
+        /**
+         * 新计划中不再需要，但还有使用者改过的单元的拆分方法，连同委托调用一起保留
+         */
+        private final Set<String> retainedParts = new HashSet<>();
+
+        private RefreshDiff(PsiMethod method, CloneMethodPlan plan) {
+            GeneratedMethodMarker marker = GeneratedMethodMarker.read(method);
+            Set<String> editedHashes = marker == null ? Collections.emptySet() : marker.getEditedHashes();
+            receiver = marker == null ? CloneMethodGenerator.NEW_ENTITY : CloneMethodGenerator.receiverOf(method, marker);
+            methodName = method.getName();
+            newMarker = GeneratedMethodMarker.read(plan.getMethod());
+            for (PsiMethod part : plan.getMethods()) {
+                if (CloneMethodGenerator.isPartOf(part, plan.getMethod())) {
+                    newParts.put(part.getName(), part);
+                }
+            }
+            oldUnits = collect(ContainerUtil.prepend(findParts(method), method));
+            newUnits = collect(ContainerUtil.prepend(new ArrayList<>(newParts.values()), plan.getMethod()));
+            Map<String, String> oldHashes = hashes(oldUnits);
+            boolean untouched = marker != null && marker.getFingerprint().equals(MethodUnitSplitter.combine(oldHashes.values()));
+
+            for (Map.Entry<String, Unit> entry : oldUnits.entrySet()) {
+                ProgressManager.checkCanceled();
+                Unit oldUnit = entry.getValue();
+                Unit newUnit = newUnits.get(entry.getKey());
+                if (newUnit != null && oldUnit.method.getName().equals(newUnit.method.getName())
+                        && normalize(oldUnit.statements).equals(normalize(newUnit.statements))) {
+                    kept.add(entry.getKey());
+                } else if (!untouched || editedHashes.contains(oldHashes.get(entry.getKey()))) {
+                    kept.add(entry.getKey());
+                    if (oldUnit.method != method && !newParts.containsKey(oldUnit.method.getName())) {
+                        retainedParts.add(oldUnit.method.getName());
+                    }
+                }
+            }
+            for (String part : retainedParts) {
+                String delegate = MethodUnitSplitter.partKey(part);
+                if (oldUnits.containsKey(delegate)) {
+                    kept.add(delegate);
+                }
+            }
+        }
+
+        private Map<String, List<PsiStatement>> split(PsiMethod method) {
+            PsiCodeBlock body = method.getBody();
+            if (body == null) {
+                return Collections.emptyMap();
+            }
+            return MethodUnitSplitter.split(Arrays.asList(body.getStatements()), PsiElement::getText, receiver, methodName);
+        }
+
+        /**
+         * 同一个键只取第一次出现的单元，其余的（使用者复制的语句）不参与对比
+         */
+        private Map<String, Unit> collect(List<PsiMethod> methods) {
+            Map<String, Unit> units = new LinkedHashMap<>();
+            for (PsiMethod method : methods) {
+                split(method).forEach((key, statements) -> units.putIfAbsent(key, new Unit(method, statements)));
+            }
+            return units;
+        }
+    }
+
+    /**
+     * 各单元的摘要，按单元的键
+     */
+    private static Map<String, String> hashes(Map<String, Unit> units) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        units.forEach((key, unit) -> hashes.put(key, MethodUnitSplitter.hash(key, ContainerUtil.map(unit.statements, PsiElement::getText))));
+        return hashes;
+    }
+
+    private static List<String> normalize(List<PsiStatement> statements) {
+        List<String> result = new ArrayList<>(statements.size());
+        for (PsiStatement statement : statements) {
+            result.add(GeneratedMethodMarker.normalize(statement.getText()));
+        }
+        return result;
+    }
+
+    /**
+     * 按刷新后的方法体重新计算标记：合并摘要覆盖所有单元，与新生成结果不同的（保留的）单元单独记摘要。
+     * 只替换标记所在的 tag，保留使用者在注释里写的其他内容
+     */
+    private static void updateMarker(PsiMethod method, RefreshDiff diff) {
+        if (diff.newMarker == null) {
+            return;
+        }
+        Map<String, Unit> units = diff.collect(ContainerUtil.prepend(findParts(method), method));
+        Map<String, String> hashes = hashes(units);
+        List<String> editedHashes = new ArrayList<>();
+        for (Map.Entry<String, Unit> entry : units.entrySet()) {
+            Unit newUnit = diff.newUnits.get(entry.getKey());
+            if (newUnit == null || !normalize(entry.getValue().statements).equals(normalize(newUnit.statements))) {
+                editedHashes.add(hashes.get(entry.getKey()));
+            }
+        }
+        GeneratedMethodMarker marker = new GeneratedMethodMarker(diff.newMarker.isMatched(), diff.newMarker.isCopyInto(),
+                MethodUnitSplitter.combine(hashes.values()), editedHashes);
+        PsiDocComment newDoc = JavaPsiFacade.getElementFactory(method.getProject())
+                .createDocCommentFromText("/**\n * " + marker.toDocText().replace("\n", "\n * ") + "\n */");
+        PsiDocComment doc = method.getDocComment();
+        if (doc == null) {
+            method.addBefore(newDoc, method.getFirstChild());
+            return;
+        }
+        PsiDocTag tag = doc.findTagByName(GeneratedMethodMarker.TAG);
+        PsiDocTag newTag = newDoc.findTagByName(GeneratedMethodMarker.TAG);
+        if (tag != null && newTag != null) {
+            tag.replace(newTag);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.mapping.Assignment;
+import com.github.davisjiahao.mapping.MappingPlan;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.TargetConstruction;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTypesUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * CloneMethodStaleChecker
+ *
+ * 检查工具在每次高亮时调用，必须足够轻：期望的赋值列表按方法缓存（Java 结构或匹配配置变化后失效），
+ * 每次只扫描方法体（以及拆分出的方法）里的 set / builder 调用，不重新生成代码
+ *
+ * @author daviswujiahao
+ * @date 2022/12/19 10:20
+ * @since 1.0
+ **/
+public class CloneMethodStaleChecker {
+
+    private static final Key<CachedValue<Expectation>> FULL_KEY = Key.create("clone.field.stale.expectation.full");
+
+    private static final Key<CachedValue<Expectation>> MATCHED_KEY = Key.create("clone.field.stale.expectation.matched");
+
+    /**
+     * 方法过期时返回缺少的赋值（set / builder 方法名，构造器方式为参数个数的说明），
+     * 不是生成的方法、或类型无法解析时返回 null
+     */
+    @Nullable
+    public static List<String> findMissing(@NotNull PsiMethod method) {
+        GeneratedMethodMarker marker = GeneratedMethodMarker.read(method);
+        PsiCodeBlock body = method.getBody();
+        if (marker == null || body == null) {
+            return null;
+        }
+        Expectation expectation = CachedValuesManager.getCachedValue(method, marker.isMatched() ? MATCHED_KEY : FULL_KEY,
+                () -> CachedValueProvider.Result.create(buildExpectation(method, marker),
+                        PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT,
+                        CloneFieldSettings.getInstance().getModelModificationTracker()));
+        if (expectation == null) {
+            return null;
+        }
+
+        // 方法名 -> 是否带了参数
+        String receiver = CloneMethodGenerator.receiverOf(method, marker);
+        Map<String, Boolean> calls = new HashMap<>();
+        int constructorArguments = -1;
+        for (PsiStatement statement : body.getStatements()) {
+            ProgressManager.checkCanceled();
+            if (statement instanceof PsiExpressionStatement) {
+                PsiExpression expression = ((PsiExpressionStatement) statement).getExpression();
+                collectCall(expression, receiver, calls);
+                collectPartCalls(method, expression, receiver, calls);
+            } else if (statement instanceof PsiReturnStatement) {
+                PsiExpression value = ((PsiReturnStatement) statement).getReturnValue();
+                if (value instanceof PsiNewExpression && ((PsiNewExpression) value).getArgumentList() != null) {
+                    constructorArguments = ((PsiNewExpression) value).getArgumentList().getExpressions().length;
+                } else {
+                    collectCall(value, null, calls);
+                }
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        if (expectation.kind == TargetConstruction.Kind.CONSTRUCTOR) {
+            if (constructorArguments >= 0 && constructorArguments != expectation.constructorArguments) {
+                missing.add(expectation.constructorArguments + " constructor arguments");
+            }
+            return missing;
+        }
+        for (Map.Entry<String, Boolean> entry : expectation.names.entrySet()) {
+            Boolean withArgument = calls.get(entry.getKey());
+            // 有来源的属性必须带参数；full 模式下没有来源的属性至少要有空的调用
+            if (withArgument == null || (entry.getValue() && !withArgument)) {
+                missing.add(entry.getKey());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * set 方式（receiver 不为 null）只看 receiver.xxx(..) 语句，builder 方式沿 return 表达式的调用链收集
+     */
+    private static void collectCall(PsiExpression expression, String receiver, Map<String, Boolean> calls) {
+        boolean setters = receiver != null;
+        while (expression instanceof PsiMethodCallExpression) {
+            PsiMethodCallExpression call = (PsiMethodCallExpression) expression;
+            PsiReferenceExpression methodExpression = call.getMethodExpression();
+            PsiExpression qualifier = methodExpression.getQualifierExpression();
+            if (setters && (qualifier == null || !receiver.equals(qualifier.getText()))) {
+                return;
+            }
+            calls.merge(methodExpression.getReferenceName(), call.getArgumentList().getExpressions().length > 0, Boolean::logicalOr);
+            if (setters) {
+                return;
+            }
+            expression = qualifier;
+        }
+    }
+
+    /**
+     * 过宽的方法拆分后，set 调用在 methodNamePartN 方法中
+     */
+    private static void collectPartCalls(PsiMethod method, PsiExpression expression, String receiver, Map<String, Boolean> calls) {
+        PsiClass psiClass = method.getContainingClass();
+        if (psiClass == null || !(expression instanceof PsiMethodCallExpression)) {
+            return;
+        }
+        PsiReferenceExpression methodExpression = ((PsiMethodCallExpression) expression).getMethodExpression();
+        String name = methodExpression.getReferenceName();
+        if (methodExpression.getQualifierExpression() != null || name == null || !CloneMethodGenerator.isPart(name, method.getName())) {
+            return;
+        }
+        for (PsiMethod part : psiClass.findMethodsByName(name, false)) {
+            PsiCodeBlock body = part.getBody();
+            if (body == null || !CloneMethodGenerator.isPartOf(part, method)) {
+                continue;
+            }
+            for (PsiStatement statement : body.getStatements()) {
+                ProgressManager.checkCanceled();
+                if (statement instanceof PsiExpressionStatement) {
+                    collectCall(((PsiExpressionStatement) statement).getExpression(), receiver, calls);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static Expectation buildExpectation(PsiMethod method, GeneratedMethodMarker marker) {
+        PsiClass psiClass = PsiTypesUtil.getPsiClass(CloneMethodGenerator.targetTypeOf(method, marker));
+        if (psiClass == null || (marker.isCopyInto() && !CloneMethodGenerator.canCopyInto(psiClass))) {
+            return null;
+        }
+        TargetConstruction construction = TargetConstructionUtil.getConstruction(psiClass);
+        List<CreateMethodParam> params = CloneMethodGenerator.sourceParamsOf(method, marker);
+        MappingPlan plan = CloneMethodGenerator.plan(psiClass, params, marker.isMatched());
+
+        Expectation expectation = new Expectation(construction == null ? TargetConstruction.Kind.SETTERS : construction.getKind());
+        expectation.constructorArguments = construction == null ? 0 : construction.getSlots().size();
+        for (Assignment assignment : plan.getAssignments()) {
+            expectation.names.put(assignment.getTarget().getSetterName(), assignment.isMapped());
+        }
+        return expectation;
+    }
+
+    /**
+     * 按当前类结构，生成的方法应当包含的赋值
+     */
+    private static class Expectation {
+
+        private final TargetConstruction.Kind kind;
+
+        /**
+         * set / builder 方法名 -> 是否有来源（有来源时调用必须带参数）
+         */
+        private final Map<String, Boolean> names = new LinkedHashMap<>();
+
+        private int constructorArguments;
+
+        Expectation(TargetConstruction.Kind kind) {
+            this.kind = kind;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.intellij.psi.*;
+import com.intellij.psi.util.InheritanceUtil;
+import com.intellij.psi.util.PsiTypesUtil;
+import com.intellij.psi.util.PsiUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DeepCopyBuilder
+ *
+ * 集合、Map、数组属性的深拷贝：按 size() 预分配容器后逐个拷贝，
+ * 复杂元素类型生成辅助方法转换，基本类型数组用 Arrays.copyOf
+ *
+ * @author daviswujiahao
+ * @date 2022/12/13 20:30
+ * @since 1.0
+ **/
+class DeepCopyBuilder {
+
+    /**
+     * 目标声明类型 -> 可以预分配容量的具体容器
+     */
+    private static final Map<String, String> COLLECTION_CONTAINERS = new HashMap<>();
+
+    private static final Map<String, String> MAP_CONTAINERS = new HashMap<>();
+
+    static {
+        for (String type : Arrays.asList("java.lang.Iterable", "java.util.Collection", "java.util.List", "java.util.ArrayList")) {
+            COLLECTION_CONTAINERS.put(type, "java.util.ArrayList");
+        }
+        for (String type : Arrays.asList("java.util.Set", "java.util.HashSet")) {
+            COLLECTION_CONTAINERS.put(type, "java.util.HashSet");
+        }
+        COLLECTION_CONTAINERS.put("java.util.LinkedHashSet", "java.util.LinkedHashSet");
+        for (String type : Arrays.asList("java.util.Queue", "java.util.Deque", "java.util.ArrayDeque")) {
+            COLLECTION_CONTAINERS.put(type, "java.util.ArrayDeque");
+        }
+        for (String type : Arrays.asList("java.util.Map", "java.util.HashMap")) {
+            MAP_CONTAINERS.put(type, "java.util.HashMap");
+        }
+        MAP_CONTAINERS.put("java.util.LinkedHashMap", "java.util.LinkedHashMap");
+    }
+
+    /**
+     * 生成深拷贝，类型不支持时返回 null（调用方退回引用拷贝）
+     */
+    static ValueConversion build(CloneMethodGenerator generator, Set<String> names, String localName, String value,
+                              PsiType sourceType, PsiType targetType) {
+        if (sourceType == null || targetType == null) {
+            return null;
+        }
+        if (sourceType instanceof PsiArrayType && targetType instanceof PsiArrayType) {
+            return buildArray(generator, names, localName, value, (PsiArrayType) sourceType, (PsiArrayType) targetType);
+        }
+        PsiClass targetClass = PsiTypesUtil.getPsiClass(targetType);
+        if (targetClass == null) {
+            return null;
+        }
+        String container = COLLECTION_CONTAINERS.get(targetClass.getQualifiedName());
+        if (container != null) {
+            return buildCollection(generator, names, localName, value, sourceType, targetType, container);
+        }
+        container = MAP_CONTAINERS.get(targetClass.getQualifiedName());
+        if (container != null) {
+            return buildMap(generator, names, localName, value, sourceType, targetType, container);
+        }
+        return null;
+    }
+
+    private static ValueConversion buildCollection(CloneMethodGenerator generator, Set<String> names, String localName, String value,
+                                                PsiType sourceType, PsiType targetType, String container) {
+        PsiType sourceElement = elementType(sourceType, CommonClassNames.JAVA_LANG_ITERABLE, 0);
+        PsiType targetElement = elementType(targetType, CommonClassNames.JAVA_LANG_ITERABLE, 0);
+        if (sourceElement == null || targetElement == null
+                || !InheritanceUtil.isInheritor(sourceType, CommonClassNames.JAVA_UTIL_COLLECTION)) {
+            return null;
+        }
+        String local = CloneMethodGenerator.uniqueName(names, localName);
+        String copy = CloneMethodGenerator.uniqueName(names, local + "Copy");
+        String item = CloneMethodGenerator.uniqueName(names, "item");
+        String element = convert(generator, item, sourceElement, targetElement);
+        if (element == null) {
+            return null;
+        }
+        String capacity = "java.util.ArrayList".equals(container) || "java.util.ArrayDeque".equals(container)
+                ? local + ".size()" : hashCapacity(local);
+
+        String containerType = container + "<" + targetElement.getCanonicalText() + ">";
+        return new ValueConversion()
+                .addStatement(sourceType.getCanonicalText() + " " + local + " = " + value + ";")
+                .addStatement(containerType + " " + copy + " = null;")
+                .addStatement("if (" + local + " != null) {\n" +
+                        copy + " = new " + container + "<>(" + capacity + ");\n" +
+                        "for (" + sourceElement.getCanonicalText() + " " + item + " : " + local + ") {\n" +
+                        copy + ".add(" + element + ");\n" +
+                        "}\n" +
+                        "}")
+                .setExpression(copy);
+    }
+
+    private static ValueConversion buildMap(CloneMethodGenerator generator, Set<String> names, String localName, String value,
+                                         PsiType sourceType, PsiType targetType, String container) {
+        PsiType sourceKey = elementType(sourceType, CommonClassNames.JAVA_UTIL_MAP, 0);
+        PsiType sourceValue = elementType(sourceType, CommonClassNames.JAVA_UTIL_MAP, 1);
+        PsiType targetKey = elementType(targetType, CommonClassNames.JAVA_UTIL_MAP, 0);
+        PsiType targetValue = elementType(targetType, CommonClassNames.JAVA_UTIL_MAP, 1);
+        if (sourceKey == null || sourceValue == null || targetKey == null || targetValue == null
+                || !targetKey.isAssignableFrom(sourceKey)) {
+            return null;
+        }
+        String local = CloneMethodGenerator.uniqueName(names, localName);
+        String copy = CloneMethodGenerator.uniqueName(names, local + "Copy");
+        String entry = CloneMethodGenerator.uniqueName(names, "entry");
+        String entryValue = convert(generator, entry + ".getValue()", sourceValue, targetValue);
+        if (entryValue == null) {
+            return null;
+        }
+
+        String containerType = container + "<" + targetKey.getCanonicalText() + ", " + targetValue.getCanonicalText() + ">";
+        return new ValueConversion()
+                .addStatement(sourceType.getCanonicalText() + " " + local + " = " + value + ";")
+                .addStatement(containerType + " " + copy + " = null;")
+                .addStatement("if (" + local + " != null) {\n" +
+                        copy + " = new " + container + "<>(" + hashCapacity(local) + ");\n" +
+                        "for (java.util.Map.Entry<" + sourceKey.getCanonicalText() + ", " + sourceValue.getCanonicalText() + "> " + entry +
+                        " : " + local + ".entrySet()) {\n" +
+                        copy + ".put(" + entry + ".getKey(), " + entryValue + ");\n" +
+                        "}\n" +
+                        "}")
+                .setExpression(copy);
+    }
+
+    private static ValueConversion buildArray(CloneMethodGenerator generator, Set<String> names, String localName, String value,
+                                           PsiArrayType sourceType, PsiArrayType targetType) {
+        PsiType sourceComponent = sourceType.getComponentType();
+        PsiType targetComponent = targetType.getComponentType();
+        String local = CloneMethodGenerator.uniqueName(names, localName);
+
+        ValueConversion conversion = new ValueConversion()
+                .addStatement(sourceType.getCanonicalText() + " " + local + " = " + value + ";");
+        if (sourceComponent.equals(targetComponent) && !CloneMethodGenerator.isBean(sourceComponent)) {
+            return conversion.setExpression(local + " == null ? null : java.util.Arrays.copyOf(" + local + ", " + local + ".length)");
+        }
+        // 泛型数组不能 new
+        if (PsiUtil.resolveClassInType(targetComponent) instanceof PsiTypeParameter || targetComponent instanceof PsiArrayType) {
+            return null;
+        }
+        String index = CloneMethodGenerator.uniqueName(names, "i");
+        String element = convert(generator, local + "[" + index + "]", sourceComponent, targetComponent);
+        if (element == null) {
+            return null;
+        }
+        String copy = CloneMethodGenerator.uniqueName(names, local + "Copy");
+        return conversion
+                .addStatement(targetType.getCanonicalText() + " " + copy + " = null;")
+                .addStatement("if (" + local + " != null) {\n" +
+                        copy + " = new " + targetComponent.getCanonicalText() + "[" + local + ".length];\n" +
+                        "for (int " + index + " = 0; " + index + " < " + local + ".length; " + index + "++) {\n" +
+                        copy + "[" + index + "] = " + element + ";\n" +
+                        "}\n" +
+                        "}")
+                .setExpression(copy);
+    }
+
+    /**
+     * 元素转换：复杂类型生成辅助方法，可直接赋值的原样返回，否则返回 null
+     */
+    private static String convert(CloneMethodGenerator generator, String expression, PsiType sourceType, PsiType targetType) {
+        if (CloneMethodGenerator.isBean(sourceType) && CloneMethodGenerator.isBean(targetType)) {
+            return generator.requireHelper(sourceType, targetType) + "(" + expression + ")";
+        }
+        if (targetType.isAssignableFrom(sourceType)) {
+            return expression;
+        }
+        return null;
+    }
+
+    private static PsiType elementType(PsiType type, String superClass, int index) {
+        PsiType elementType = PsiUtil.substituteTypeParameter(type, superClass, index, false);
+        if (elementType instanceof PsiWildcardType) {
+            PsiWildcardType wildcardType = (PsiWildcardType) elementType;
+            return wildcardType.isExtends() ? wildcardType.getExtendsBound() : null;
+        }
+        return elementType;
+    }
+
+    private static String hashCapacity(String local) {
+        return "(int) (" + local + ".size() / 0.75f) + 1";
+    }
+}
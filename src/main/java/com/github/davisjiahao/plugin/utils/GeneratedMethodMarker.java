@@ -0,0 +1,150 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.javadoc.PsiDocComment;
+import com.intellij.psi.javadoc.PsiDocTag;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * GeneratedMethodMarker
+ *
+ * 生成的主方法在注释中带上标记：@cloneFieldMethod &lt;full|matched&gt; [into] &lt;fingerprint&gt; [edited...]，
+ * into 表示方法写入最后一个参数（copyInto 方式），
+ * fingerprint 是方法体（连同拆分出的方法）各单元（见 {@link MethodUnitSplitter}）摘要合并成的一个摘要，
+ * 刷新时与当前方法体的摘要一致说明生成（或上次刷新）后没人改过；
+ * edited 只记上次刷新时因为与生成结果不同而保留的单元（使用者改过的）的摘要，刚生成的方法没有
+ *
+ * @author daviswujiahao
+ * @date 2022/12/18 14:30
+ * @since 1.0
+ **/
+public class GeneratedMethodMarker {
+
+    public static final String TAG = "cloneFieldMethod";
+
+    private static final String FULL = "full";
+
+    private static final String MATCHED = "matched";
+
+    private static final String INTO = "into";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{8}");
+
+    /**
+     * 每行的单元摘要个数，避免注释过长
+     */
+    private static final int HASHES_PER_LINE = 8;
+
+    /**
+     * 包名前缀（插入时会被 shortenClassReferences 去掉），比较时忽略
+     */
+    private static final Pattern PACKAGE_PREFIX = Pattern.compile("\\b(?:[a-z_$][\\w$]*\\.)+(?=[A-Z])");
+
+    private final boolean matched;
+
+    private final boolean copyInto;
+
+    private final String fingerprint;
+
+    private final Set<String> editedHashes;
+
+    public GeneratedMethodMarker(boolean matched, boolean copyInto, String fingerprint) {
+        this(matched, copyInto, fingerprint, Collections.emptySet());
+    }
+
+    public GeneratedMethodMarker(boolean matched, boolean copyInto, String fingerprint, Collection<String> editedHashes) {
+        this.matched = matched;
+        this.copyInto = copyInto;
+        this.fingerprint = fingerprint;
+        this.editedHashes = new LinkedHashSet<>(editedHashes);
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    public boolean isCopyInto() {
+        return copyInto;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * 上次刷新时保留的、使用者改过的单元的摘要
+     */
+    public Set<String> getEditedHashes() {
+        return editedHashes;
+    }
+
+    /**
+     * 注释正文，保留的单元摘要较多时分行
+     */
+    public String toDocText() {
+        StringBuilder text = new StringBuilder()
+                .append('@').append(TAG).append(' ').append(matched ? MATCHED : FULL).append(copyInto ? " " + INTO : "").append(' ').append(fingerprint);
+        int count = 1;
+        for (String editedHash : editedHashes) {
+            text.append(count++ % HASHES_PER_LINE == 0 ? '\n' : ' ').append(editedHash);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 读取方法上的标记，不是生成的方法时返回 null
+     */
+    @Nullable
+    public static GeneratedMethodMarker read(@NotNull PsiMethod method) {
+        PsiDocComment docComment = method.getDocComment();
+        PsiDocTag tag = docComment == null ? null : docComment.findTagByName(TAG);
+        if (tag == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        for (PsiElement element : tag.getDataElements()) {
+            text.append(element.getText()).append(' ');
+        }
+        String[] values = WHITESPACE.split(text.toString().trim());
+        if (values.length < 2 || !(FULL.equals(values[0]) || MATCHED.equals(values[0]))) {
+            return null;
+        }
+        boolean copyInto = INTO.equals(values[1]);
+        int fingerprintIndex = copyInto ? 2 : 1;
+        if (values.length <= fingerprintIndex) {
+            return null;
+        }
+        // 分行后可能混入注释的前导星号，只取摘要
+        List<String> editedHashes = new ArrayList<>();
+        for (int i = fingerprintIndex + 1; i < values.length; i++) {
+            if (HASH.matcher(values[i]).matches()) {
+                editedHashes.add(values[i]);
+            }
+        }
+        return new GeneratedMethodMarker(MATCHED.equals(values[0]), copyInto, values[fingerprintIndex], editedHashes);
+    }
+
+    /**
+     * 方法体摘要，忽略空白和包名，插入后缩短引用、格式化都不影响结果
+     */
+    @NotNull
+    public static String fingerprint(@NotNull List<String> statements) {
+        int hash = 0;
+        for (String statement : statements) {
+            hash = 31 * hash + normalize(statement).hashCode();
+        }
+        return String.format("%08x", hash);
+    }
+
+    @NotNull
+    public static String normalize(@NotNull String statement) {
+        return WHITESPACE.matcher(PACKAGE_PREFIX.matcher(statement).replaceAll("")).replaceAll("");
+    }
+}
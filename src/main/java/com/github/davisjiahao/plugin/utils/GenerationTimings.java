@@ -0,0 +1,172 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GenerationTimings
+ *
+ * 一次生成各阶段的耗时（不含子阶段，各阶段之和即总耗时）以及字段数、类数。
+ * 读阶段通过 {@link #begin()} 绑定到当前线程，深层的工具方法用 {@link #phase(String)} 记录，
+ * 没有绑定时不做任何事；写阶段在 UI 线程上继续使用同一个对象
+ *
+ * @author daviswujiahao
+ * @date 2022/12/19 16:10
+ * @since 1.0
+ **/
+public class GenerationTimings {
+
+    private static final Logger LOG = Logger.getInstance(GenerationTimings.class);
+
+    private static final ThreadLocal<GenerationTimings> CURRENT = new ThreadLocal<>();
+
+    private static final Phase NO_OP = new Phase(null, null);
+
+    public static final String FIELDS = "fields";
+
+    public static final String CLASSES = "classes";
+
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+
+    private final Deque<Phase> running = new ArrayDeque<>();
+
+    /**
+     * 开始记录并绑定到当前线程，与 {@link #end()} 成对使用
+     */
+    @NotNull
+    public static GenerationTimings begin() {
+        GenerationTimings timings = new GenerationTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 当前线程上记录一个阶段，没有绑定时返回空操作
+     */
+    @NotNull
+    public static Phase phase(@NotNull String name) {
+        GenerationTimings timings = CURRENT.get();
+        return timings == null ? NO_OP : timings.start(name);
+    }
+
+    /**
+     * 当前线程上累加计数
+     */
+    public static void count(@NotNull String name, int value) {
+        GenerationTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.counts.merge(name, value, Integer::sum);
+        }
+    }
+
+    /**
+     * 在这个对象上记录一个阶段（写阶段使用，不依赖线程绑定）
+     */
+    @NotNull
+    public Phase start(@NotNull String name) {
+        Phase phase = new Phase(this, name);
+        running.push(phase);
+        return phase;
+    }
+
+    public long getTotalMillis() {
+        long total = 0;
+        for (long nanos : phaseNanos.values()) {
+            total += nanos;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+
+    /**
+     * 超过阈值的阶段，没有时返回 null
+     */
+    @Nullable
+    public String findSlowPhase(long thresholdMillis) {
+        for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+            if (TimeUnit.NANOSECONDS.toMillis(entry.getValue()) > thresholdMillis) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 一行结构化文本：total=..ms fields=.. classes=.. phases=[name=..ms, ...]
+     */
+    @NotNull
+    public String format() {
+        StringBuilder text = new StringBuilder("total=").append(getTotalMillis()).append("ms");
+        counts.forEach((name, value) -> text.append(' ').append(name).append('=').append(value));
+        text.append(" phases=[");
+        boolean first = true;
+        for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+            if (!first) {
+                text.append(", ");
+            }
+            first = false;
+            text.append(entry.getKey()).append('=').append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+        }
+        return text.append(']').toString();
+    }
+
+    /**
+     * 写入 idea.log：有阶段超过阈值时为 warn，否则为 debug（开启 #com.github.davisjiahao.plugin.utils.GenerationTimings 可见），
+     * 返回超过阈值的阶段
+     */
+    @Nullable
+    public String report(@NotNull String action, long thresholdMillis) {
+        String slowPhase = findSlowPhase(thresholdMillis);
+        if (slowPhase != null) {
+            LOG.warn(action + ": phase '" + slowPhase + "' exceeded " + thresholdMillis + "ms, " + format());
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug(action + ": " + format());
+        }
+        return slowPhase;
+    }
+
+    /**
+     * 一个正在计时的阶段，用 try-with-resources 关闭
+     */
+    public static class Phase implements AutoCloseable {
+
+        private final GenerationTimings owner;
+
+        private final String name;
+
+        private final long startNanos = System.nanoTime();
+
+        private long childNanos;
+
+        Phase(GenerationTimings owner, String name) {
+            this.owner = owner;
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            if (owner == null) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            owner.running.remove(this);
+            owner.phaseNanos.merge(name, elapsed - childNanos, Long::sum);
+            Phase parent = owner.running.peek();
+            if (parent != null) {
+                parent.childNanos += elapsed;
+            }
+        }
+    }
+}
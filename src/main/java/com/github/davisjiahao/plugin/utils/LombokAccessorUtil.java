@@ -0,0 +1,127 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.mapping.ClassModel;
+import com.github.davisjiahao.mapping.Property;
+import com.github.davisjiahao.mapping.PropertyResolver;
+import com.github.davisjiahao.mapping.PropertySet;
+import com.github.davisjiahao.plugin.entity.BeanProperty;
+import com.github.davisjiahao.plugin.entity.BeanPropertyModel;
+import com.intellij.psi.*;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LombokAccessorUtil
+ *
+ * 读取类上会影响 lombok 生成 get、set 方法的注解：@Data、@Value、类或字段上的 @Getter / @Setter、@NonFinal，
+ * 以及 @Accessors 的 fluent / prefix，转换成 mapping-core 的类结构后由 {@link PropertyResolver} 按与注解处理器、运行时相同的规则推导。
+ * 只读取修饰符、注解和字段名，这些都由 stub 提供，不会加载类的语法树；lombok.config 不在考虑范围内
+ *
+ * @author daviswujiahao
+ * @date 2022/12/20 09:40
+ * @since 1.0
+ **/
+public class LombokAccessorUtil {
+
+    private static final String DATA = "lombok.Data";
+
+    private static final String VALUE = "lombok.Value";
+
+    private static final String GETTER = "lombok.Getter";
+
+    private static final String SETTER = "lombok.Setter";
+
+    private static final String ACCESSORS = "lombok.experimental.Accessors";
+
+    private static final String NON_FINAL = "lombok.experimental.NonFinal";
+
+    /**
+     * lombok 生成的 get、set 方法，key 为去掉前缀后的小写属性名；没有 lombok 注解时返回空模型
+     */
+    @NotNull
+    public static BeanPropertyModel buildModel(@NotNull PsiClass psiClass) {
+        BeanPropertyModel model = new BeanPropertyModel();
+        // 类上没有注解时字段上仍可能有 @Getter / @Setter，不能据此跳过
+        if (psiClass.isInterface()) {
+            return model;
+        }
+        boolean isData = psiClass.getAnnotation(DATA) != null;
+        ClassModel classModel = new ClassModel(StringUtils.defaultString(psiClass.getQualifiedName()))
+                .setLombokGetter(isData || isEnabled(psiClass.getAnnotation(GETTER)))
+                .setLombokSetter(isData || isEnabled(psiClass.getAnnotation(SETTER)))
+                .setLombokValue(psiClass.getAnnotation(VALUE) != null)
+                .setLombokAccessors(toAccessors(psiClass.getAnnotation(ACCESSORS)));
+        for (PsiField field : psiClass.getFields()) {
+            PsiAnnotation getter = field.getAnnotation(GETTER);
+            PsiAnnotation setter = field.getAnnotation(SETTER);
+            boolean isStatic = field.hasModifierProperty(PsiModifier.STATIC);
+            boolean isFinal = field.hasModifierProperty(PsiModifier.FINAL);
+            classModel.addField(new ClassModel.FieldModel(field.getName(), field.getType().getCanonicalText(), isStatic && isFinal)
+                    .setStatic(isStatic)
+                    .setFinal(isFinal)
+                    .setLombokNonFinal(field.getAnnotation(NON_FINAL) != null)
+                    .setLombokGetter(getter == null ? null : isEnabled(getter))
+                    .setLombokSetter(setter == null ? null : isEnabled(setter))
+                    .setLombokAccessors(toAccessors(field.getAnnotation(ACCESSORS))));
+        }
+
+        PropertySet properties = new PropertySet();
+        PropertyResolver.resolveDeclared(classModel, properties);
+        for (Property resolved : properties.getProperties()) {
+            BeanProperty property = model.getOrCreate(resolved.getKey());
+            property.setTypeText(resolved.getTypeName(), psiClass);
+            property.setGetterName(resolved.getGetterName());
+            property.setSetterName(resolved.getSetterName());
+        }
+        return model;
+    }
+
+    @Nullable
+    private static ClassModel.LombokAccessors toAccessors(@Nullable PsiAnnotation annotation) {
+        return annotation == null ? null : new ClassModel.LombokAccessors(getBooleanAttribute(annotation, "fluent"), getStringValues(annotation, "prefix"));
+    }
+
+    /**
+     * AccessLevel.NONE 表示不生成，PRIVATE 生成的方法在其他类中不可见，同样忽略
+     */
+    private static boolean isEnabled(@Nullable PsiAnnotation annotation) {
+        if (annotation == null) {
+            return false;
+        }
+        PsiAnnotationMemberValue value = annotation.findDeclaredAttributeValue("value");
+        if (value instanceof PsiReferenceExpression) {
+            String level = ((PsiReferenceExpression) value).getReferenceName();
+            return !"NONE".equals(level) && !"PRIVATE".equals(level);
+        }
+        return true;
+    }
+
+    private static boolean getBooleanAttribute(@Nullable PsiAnnotation annotation, String name) {
+        PsiAnnotationMemberValue value = annotation == null ? null : annotation.findDeclaredAttributeValue(name);
+        return value instanceof PsiLiteralExpression && Boolean.TRUE.equals(((PsiLiteralExpression) value).getValue());
+    }
+
+    /**
+     * 字符串或字符串数组类型的注解属性，没有声明时返回空列表
+     */
+    static List<String> getStringValues(@Nullable PsiAnnotation annotation, String name) {
+        PsiAnnotationMemberValue value = annotation == null ? null : annotation.findDeclaredAttributeValue(name);
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        PsiAnnotationMemberValue[] values = value instanceof PsiArrayInitializerMemberValue
+                ? ((PsiArrayInitializerMemberValue) value).getInitializers() : new PsiAnnotationMemberValue[]{value};
+        List<String> result = new ArrayList<>(values.length);
+        for (PsiAnnotationMemberValue item : values) {
+            if (item instanceof PsiLiteralExpression && ((PsiLiteralExpression) item).getValue() instanceof String) {
+                result.add((String) ((PsiLiteralExpression) item).getValue());
+            }
+        }
+        return result;
+    }
+}
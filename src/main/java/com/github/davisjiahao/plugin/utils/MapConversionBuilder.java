@@ -0,0 +1,175 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.BeanProperty;
+import com.github.davisjiahao.plugin.entity.BeanPropertyModel;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
+import com.github.davisjiahao.plugin.entity.TypeConverter;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.CommonClassNames;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.PsiTypesUtil;
+import com.squareup.javapoet.TypeName;
+
+import java.beans.Introspector;
+import java.util.*;
+
+/**
+ * MapConversionBuilder
+ *
+ * 实体与 Map&lt;String, Object&gt; 之间的直接转换，代替 BeanUtils / convertValue 的反射和中间对象：
+ * 实体转 Map 时按可读属性个数预分配 HashMap，扩容阈值内放下全部属性；
+ * Map 转实体时遍历 Map 中实际存在的键，按键名 switch 到对应的 set 方法，值做类型强转或转换，
+ * 只包含部分属性的 Map（如 JSON patch）只设置出现的属性，null 键（HashMap、JDBC 的行允许）跳过
+ *
+ * @author daviswujiahao
+ * @date 2022/12/23 15:00
+ * @since 1.0
+ **/
+class MapConversionBuilder {
+
+    static final String MAP_TYPE = "java.util.Map<java.lang.String, java.lang.Object>";
+
+    private static final String[] ACCESSOR_PREFIXES = {"set", "get", "is"};
+
+    /**
+     * 实体转 Map：returnType 为 {@link #MAP_TYPE}，param 是实体
+     */
+    static GeneratedMethod buildToMap(String methodName, PsiType returnType, CreateMethodParam param) {
+        PsiClass entityClass = PsiTypesUtil.getPsiClass(param.getPsiType());
+        List<BeanProperty> properties = BeanPropertyModelUtil.getModel(entityClass).getReadableProperties();
+        Set<String> names = new HashSet<>();
+        names.add(param.getName());
+        String map = CloneMethodGenerator.uniqueName(names, "map");
+
+        GeneratedMethod method = new GeneratedMethod(methodName, returnType, Collections.singletonList(param), false);
+        List<String> statements = method.getStatements();
+        statements.add(MAP_TYPE + " " + map + " = new java.util.HashMap<>(" + capacity(properties.size()) + ");");
+        for (BeanProperty property : properties) {
+            statements.add(map + ".put(\"" + propertyName(property) + "\", " + param.getName() + "." + property.getGetterName() + "());");
+        }
+        statements.add("return " + map + ";");
+        return method;
+    }
+
+    /**
+     * Map 转实体：entityType 是 set 方式的类，param 的类型是键为 String 的 Map；
+     * 别名（如 @JsonProperty）作为额外的 case 标签，没有类型的属性跳过
+     */
+    static GeneratedMethod buildFromMap(CloneMethodGenerator generator, String methodName, PsiType entityType, CreateMethodParam param,
+                                        PsiType stringType) {
+        PsiClass entityClass = PsiTypesUtil.getPsiClass(entityType);
+        BeanPropertyModel model = BeanPropertyModelUtil.getModel(entityClass);
+        String className = entityClass.getQualifiedName();
+        Set<String> names = new HashSet<>();
+        names.add(param.getName());
+        String entity = CloneMethodGenerator.uniqueName(names, CloneMethodGenerator.NEW_ENTITY);
+        String entry = CloneMethodGenerator.uniqueName(names, "entry");
+        String value = CloneMethodGenerator.uniqueName(names, "value");
+
+        StringBuilder loop = new StringBuilder()
+                .append("for (java.util.Map.Entry<java.lang.String, ?> ").append(entry).append(" : ").append(param.getName()).append(".entrySet()) {\n")
+                .append("if (").append(entry).append(".getKey() == null) {\ncontinue;\n}\n")
+                .append("java.lang.Object ").append(value).append(" = ").append(entry).append(".getValue();\n")
+                .append("switch (").append(entry).append(".getKey()) {\n");
+        // 不同属性的别名可能相同，case 标签不能重复
+        Set<String> labels = new HashSet<>();
+        for (BeanProperty property : model.getWritableProperties()) {
+            PsiType targetType = property.getPsiType();
+            if (targetType == null) {
+                continue;
+            }
+            boolean hasLabel = false;
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(propertyName(property));
+            keys.addAll(property.getAliases());
+            for (String key : keys) {
+                if (labels.add(key)) {
+                    loop.append("case \"").append(StringUtil.escapeStringCharacters(key)).append("\":\n");
+                    hasLabel = true;
+                }
+            }
+            if (hasLabel) {
+                loop.append(entity).append('.').append(property.getSetterName())
+                        .append('(').append(fromObject(generator, value, targetType, stringType)).append(");\n")
+                        .append("break;\n");
+            }
+        }
+        loop.append("default:\nbreak;\n}\n}");
+
+        GeneratedMethod method = new GeneratedMethod(methodName, entityType, Collections.singletonList(param), false);
+        method.getStatements().add(className + " " + entity + " = new " + className + "();");
+        method.getStatements().add(loop.toString());
+        method.getStatements().add("return " + entity + ";");
+        return method;
+    }
+
+    /**
+     * Object 值转换为属性类型：数值经 Number 取目标类型的值（JDBC 返回的 Integer、BigDecimal 都可以），
+     * 其他基本类型拆箱，字符串可以转换的类型（数值、日期、枚举、BigDecimal、自定义转换）在值为 String 时转换，其余直接强转
+     */
+    private static String fromObject(CloneMethodGenerator generator, String value, PsiType targetType, PsiType stringType) {
+        if (targetType.equalsToText(CommonClassNames.JAVA_LANG_OBJECT)) {
+            return value;
+        }
+        PsiPrimitiveType primitive = targetType instanceof PsiPrimitiveType
+                ? (PsiPrimitiveType) targetType : PsiPrimitiveType.getUnboxedType(targetType);
+        if (primitive != null) {
+            String whenNull = targetType instanceof PsiPrimitiveType ? PrimitiveConversionBuilder.defaultValue(primitive) : "null";
+            TypeName typeName = JavaPoetClassNameUtils.getPrimitiveTypeBySimpleName(primitive.getCanonicalText());
+            if (TypeName.BOOLEAN.equals(typeName) || TypeName.CHAR.equals(typeName)) {
+                return targetType instanceof PsiPrimitiveType
+                        ? value + " == null ? " + whenNull + " : (" + primitive.getBoxedTypeName() + ") " + value
+                        : "(" + targetType.getCanonicalText() + ") " + value;
+            }
+            // 缓存、JSON patch 中的数值常是字符串
+            String number = fromString(generator, value, targetType, stringType,
+                    "((java.lang.Number) " + value + ")." + primitive.getCanonicalText() + "Value()");
+            return value + " == null ? " + whenNull + " : " + number;
+        }
+        String cast = "(" + targetType.getCanonicalText() + ") " + value;
+        if (targetType.isAssignableFrom(stringType)) {
+            return cast;
+        }
+        return fromString(generator, value, targetType, stringType, cast);
+    }
+
+    /**
+     * 值为 String 时使用 String 到 targetType 的转换，否则是 otherwise；没有可用的转换时直接返回 otherwise
+     */
+    private static String fromString(CloneMethodGenerator generator, String value, PsiType targetType, PsiType stringType, String otherwise) {
+        String conversion = TypeConversionBuilder.findConversion(generator, stringType, targetType);
+        if (conversion == null) {
+            return otherwise;
+        }
+        // 自定义转换可能是任意表达式，加括号避免与条件表达式的优先级冲突
+        return value + " instanceof java.lang.String ? (" + conversion.replace(TypeConverter.VALUE, "((java.lang.String) " + value + ")")
+                + ") : " + otherwise;
+    }
+
+    /**
+     * 放下 size 个元素而不扩容的初始容量（默认负载因子 0.75）
+     */
+    static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    /**
+     * Map 的键：JavaBeans 规则的属性名（setUserId -> userId，getURL -> URL），fluent 方法直接使用方法名
+     */
+    static String propertyName(BeanProperty property) {
+        String accessor = property.getSetterName() != null ? property.getSetterName() : property.getGetterName();
+        if (accessor == null) {
+            return property.getKey();
+        }
+        for (String prefix : ACCESSOR_PREFIXES) {
+            if (accessor.length() > prefix.length() && accessor.startsWith(prefix)
+                    && Character.isUpperCase(accessor.charAt(prefix.length()))) {
+                return Introspector.decapitalize(accessor.substring(prefix.length()));
+            }
+        }
+        return accessor;
+    }
+}
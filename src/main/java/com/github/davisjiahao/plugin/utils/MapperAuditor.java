@@ -0,0 +1,224 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.mapping.Assignment;
+import com.github.davisjiahao.mapping.MappingPlan;
+import com.github.davisjiahao.mapping.Property;
+import com.github.davisjiahao.mapping.SourceAccessor;
+import com.github.davisjiahao.plugin.entity.BeanProperty;
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.MapperAuditFinding;
+import com.github.davisjiahao.plugin.entity.TargetConstruction;
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.SensitiveProgressWrapper;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.PsiSearchHelper;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.PsiTypesUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * MapperAuditor
+ *
+ * 审计范围内所有生成过的方法（带 @cloneFieldMethod 标记）：缺少的属性、没有来源的属性、类型不兼容的属性，
+ * 以及估算字节码接近 JIT 上限的方法。先用词索引找到注释中含标记的文件，再按文件并行、每个文件一个读操作，
+ * 读操作让位于写操作（用户输入时取消，之后重做该文件），每个文件的结果一产生就交给调用方
+ *
+ * @author daviswujiahao
+ * @date 2022/12/22 10:00
+ * @since 1.0
+ **/
+public class MapperAuditor {
+
+    private final Project project;
+
+    public MapperAuditor(@NotNull Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 注释中含生成标记的文件（词索引查询，不解析文件）
+     */
+    @NotNull
+    public List<VirtualFile> findFiles(@NotNull GlobalSearchScope scope) {
+        List<VirtualFile> files = Collections.synchronizedList(new ArrayList<>());
+        DumbService.getInstance(project).runReadActionInSmartMode(() ->
+                PsiSearchHelper.getInstance(project).processAllFilesWithWordInComments(GeneratedMethodMarker.TAG, scope, psiFile -> {
+                    if (psiFile instanceof PsiJavaFile && psiFile.getVirtualFile() != null) {
+                        files.add(psiFile.getVirtualFile());
+                    }
+                    return true;
+                }));
+        return files;
+    }
+
+    /**
+     * 并行审计所有文件，findings 在工作线程上调用（每个文件一次，没有问题时不调用），返回审计的方法个数
+     */
+    public int audit(@NotNull List<VirtualFile> files, @NotNull ProgressIndicator indicator,
+                     @NotNull Consumer<List<MapperAuditFinding>> findings) {
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger methods = new AtomicInteger();
+        indicator.setIndeterminate(false);
+
+        boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(files, indicator, file -> {
+            List<MapperAuditFinding> result = new ArrayList<>();
+            methods.addAndGet(auditFile(file, indicator, result));
+            if (!result.isEmpty()) {
+                findings.accept(result);
+            }
+            indicator.setFraction((double) processed.incrementAndGet() / files.size());
+            return true;
+        });
+        if (!completed) {
+            throw new ProcessCanceledException();
+        }
+        return methods.get();
+    }
+
+    /**
+     * 在可被写操作打断的读操作中审计一个文件，被打断或进入 dumb mode 时丢弃本次结果，等写操作、索引结束后重做，返回审计的方法个数
+     */
+    private int auditFile(VirtualFile file, ProgressIndicator indicator, List<MapperAuditFinding> result) {
+        while (true) {
+            DumbService.getInstance(project).waitForSmartMode();
+            List<MapperAuditFinding> attempt = new ArrayList<>();
+            AtomicInteger methods = new AtomicInteger();
+            AtomicBoolean smart = new AtomicBoolean();
+            boolean finished = ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> {
+                if (DumbService.isDumb(project)) {
+                    return;
+                }
+                smart.set(true);
+                PsiFile psiFile = file.isValid() ? PsiManager.getInstance(project).findFile(file) : null;
+                if (!(psiFile instanceof PsiJavaFile)) {
+                    return;
+                }
+                for (PsiMethod method : PsiTreeUtil.findChildrenOfType(psiFile, PsiMethod.class)) {
+                    ProgressManager.checkCanceled();
+                    GeneratedMethodMarker marker = GeneratedMethodMarker.read(method);
+                    if (marker != null) {
+                        methods.incrementAndGet();
+                        audit(method, marker, attempt);
+                    }
+                }
+            }, new SensitiveProgressWrapper(indicator));
+            if (finished && smart.get()) {
+                result.addAll(attempt);
+                return methods.get();
+            }
+            indicator.checkCanceled();
+            ProgressIndicatorUtils.yieldToPendingWriteActions();
+        }
+    }
+
+    /**
+     * 审计一个生成过的方法，在读操作中调用
+     */
+    private static void audit(PsiMethod method, GeneratedMethodMarker marker, List<MapperAuditFinding> result) {
+        PsiClass containingClass = method.getContainingClass();
+        PsiType targetType = CloneMethodGenerator.targetTypeOf(method, marker);
+        PsiClass targetClass = targetType == null ? null : PsiTypesUtil.getPsiClass(targetType);
+        if (containingClass == null || targetClass == null) {
+            return;
+        }
+        SmartPsiElementPointer<PsiMethod> pointer = SmartPointerManager.createPointer(method);
+        String location = containingClass.getName() + "." + method.getName();
+
+        List<String> missing = CloneMethodStaleChecker.findMissing(method);
+        if (missing != null && !missing.isEmpty()) {
+            result.add(new MapperAuditFinding(MapperAuditFinding.Kind.MISSING, pointer, location, "Missing " + String.join(", ", missing)));
+        }
+
+        List<CreateMethodParam> params = CloneMethodGenerator.sourceParamsOf(method, marker);
+        Map<String, PsiType> paramTypes = new HashMap<>();
+        for (CreateMethodParam param : params) {
+            paramTypes.put(param.getName(), param.getPsiType());
+        }
+        // 按 full 模式计算，matched 模式生成时跳过的属性同样需要报告
+        MappingPlan plan = CloneMethodGenerator.plan(targetClass, params, false);
+        List<String> unmapped = new ArrayList<>();
+        for (Property property : plan.getUnmapped()) {
+            unmapped.add(property.getSetterName());
+        }
+        if (!unmapped.isEmpty()) {
+            result.add(new MapperAuditFinding(MapperAuditFinding.Kind.UNMAPPED, pointer, location,
+                    "No source for " + String.join(", ", unmapped)));
+        }
+
+        boolean nestedMappers = CloneFieldSettings.getInstance().nestedMappers;
+        Map<String, PsiType> targetTypes = targetTypes(targetClass);
+        for (Assignment assignment : plan.getAssignments()) {
+            if (!assignment.isMapped()) {
+                continue;
+            }
+            PsiType sourceType = sourceType(assignment.getSource(), paramTypes);
+            PsiType targetType = targetTypes.get(assignment.getTarget().getKey());
+            if (sourceType == null || targetType == null || TypeConversionUtil.isAssignable(targetType, sourceType)
+                    || TypeConversionBuilder.isSupported(sourceType, targetType)
+                    || (nestedMappers && CloneMethodGenerator.isBean(sourceType) && CloneMethodGenerator.isBean(targetType))) {
+                continue;
+            }
+            result.add(new MapperAuditFinding(MapperAuditFinding.Kind.TYPE_MISMATCH, pointer, location,
+                    assignment.getTarget().getSetterName() + ": " + sourceType.getPresentableText() + " -> " + targetType.getPresentableText()));
+        }
+
+        // 已拆分的方法只看主方法本身；各部分不超过 FreqInlineSize
+        PsiCodeBlock body = method.getBody();
+        if (body != null) {
+            List<String> statements = new ArrayList<>();
+            for (PsiStatement statement : body.getStatements()) {
+                statements.add(statement.getText());
+            }
+            int estimate = BytecodeSizeEstimator.estimate(statements);
+            if (estimate > CloneFieldSettings.getInstance().maxMethodBytecodeSize) {
+                result.add(new MapperAuditFinding(MapperAuditFinding.Kind.HUGE_METHOD, pointer, location,
+                        "Estimated " + estimate + " bytes of bytecode, HotSpot does not compile methods over "
+                                + BytecodeSizeEstimator.HUGE_METHOD_LIMIT));
+            }
+        }
+    }
+
+    /**
+     * 目标属性 key -> 类型，按目标类的构造方式取 set 方法或构造器、builder 参数
+     */
+    private static Map<String, PsiType> targetTypes(PsiClass targetClass) {
+        Map<String, PsiType> result = new HashMap<>();
+        TargetConstruction construction = TargetConstructionUtil.getConstruction(targetClass);
+        if (construction == null || construction.getKind() == TargetConstruction.Kind.SETTERS) {
+            for (BeanProperty property : BeanPropertyModelUtil.getModel(targetClass).getWritableProperties()) {
+                result.put(property.getKey(), property.getPsiType());
+            }
+        } else {
+            for (TargetConstruction.Slot slot : construction.getSlots()) {
+                result.put(slot.getKey(), slot.getPsiType());
+            }
+        }
+        return result;
+    }
+
+    private static PsiType sourceType(SourceAccessor source, Map<String, PsiType> paramTypes) {
+        PsiType paramType = paramTypes.get(source.getParameter().getName());
+        if (source.isParameterItself() || paramType == null) {
+            return paramType;
+        }
+        PsiClass paramClass = PsiTypesUtil.getPsiClass(paramType);
+        BeanProperty property = paramClass == null ? null
+                : BeanPropertyModelUtil.getModel(paramClass).getProperty(source.getProperty().getKey());
+        return property == null ? null : property.getPsiType();
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.davisjiahao.plugin.utils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MethodUnitSplitter
+ *
+ * 把生成的方法体切分成单元：每个 receiver.setXxx(...)（receiver 为 newEntity 或 copyInto 方式的目标参数）
+ * 连同紧挨在它前面的准备语句是一个单元，拆分方法的委托调用、声明 newEntity 的语句、
+ * return 语句（构造器 / builder 方式下连同准备语句）各是一个单元。
+ * 只看语句文本，生成时的字符串和插入后的 PSI 语句切分结果一致，标记中记各单元摘要合并成的一个摘要，刷新时据此识别使用者改过的单元
+ *
+ * @author daviswujiahao
+ * @date 2022/12/24 10:00
+ * @since 1.0
+ **/
+class MethodUnitSplitter {
+
+    static final String DECLARATION = "<declaration>";
+
+    static final String RETURN = "<return>";
+
+    private static final String PART = "part:";
+
+    private static final Pattern RETURN_STATEMENT = Pattern.compile("^return\\b");
+
+    private static final Pattern DECLARATION_STATEMENT =
+            Pattern.compile("^[\\w$.<>\\[\\],?\\s]*[\\w$>\\]]\\s+" + Pattern.quote(CloneMethodGenerator.NEW_ENTITY) + "\\s*=");
+
+    private static final Pattern CALL_STATEMENT = Pattern.compile("^([\\w$]+)\\s*\\(");
+
+    /**
+     * 按单元切分，键为单元的键（set 方法名、part:拆分方法名、{@link #DECLARATION}、{@link #RETURN}），methodName 是主方法名
+     */
+    static <T> Map<String, List<T>> split(List<T> statements, Function<T, String> text, String receiver, String methodName) {
+        Pattern receiverCall = Pattern.compile("^" + Pattern.quote(receiver) + "\\s*\\.\\s*([\\w$]+)\\s*\\(");
+        Map<String, List<T>> units = new LinkedHashMap<>();
+        List<T> pending = new ArrayList<>();
+        for (T statement : statements) {
+            pending.add(statement);
+            String key = unitKey(text.apply(statement).trim(), receiverCall, methodName);
+            if (key != null) {
+                units.computeIfAbsent(key, k -> new ArrayList<>()).addAll(pending);
+                pending = new ArrayList<>();
+            }
+        }
+        if (!pending.isEmpty()) {
+            units.computeIfAbsent(RETURN, k -> new ArrayList<>()).addAll(pending);
+        }
+        return units;
+    }
+
+    private static String unitKey(String statement, Pattern receiverCall, String methodName) {
+        if (RETURN_STATEMENT.matcher(statement).find()) {
+            return RETURN;
+        }
+        if (DECLARATION_STATEMENT.matcher(statement).find()) {
+            return DECLARATION;
+        }
+        Matcher matcher = receiverCall.matcher(statement);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        matcher = CALL_STATEMENT.matcher(statement);
+        if (matcher.find() && CloneMethodGenerator.isPart(matcher.group(1), methodName)) {
+            return partKey(matcher.group(1));
+        }
+        return null;
+    }
+
+    /**
+     * 拆分方法 partName 的委托调用所在单元的键
+     */
+    static String partKey(String partName) {
+        return PART + partName;
+    }
+
+    /**
+     * 单元的摘要：键和语句一起计算，忽略空白和包名
+     */
+    static String hash(String key, List<String> statements) {
+        List<String> hashed = new ArrayList<>(statements.size() + 1);
+        hashed.add(key);
+        hashed.addAll(statements);
+        return GeneratedMethodMarker.fingerprint(hashed);
+    }
+
+    /**
+     * 各单元摘要合并成的一个摘要：按位相加，与单元所在的方法和顺序无关
+     */
+    static String combine(Collection<String> unitHashes) {
+        int sum = 0;
+        for (String unitHash : unitHashes) {
+            sum += Integer.parseUnsignedInt(unitHash, 16);
+        }
+        return String.format("%08x", sum);
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.intellij.psi.util.TypeConversionUtil;
+import com.squareup.javapoet.TypeName;
+
+import java.util.Set;
+
+/**
+ * PrimitiveConversionBuilder
+ *
+ * 基本类型与包装类型之间的转换：基本类型直接拓宽，包装类型判空后显式拆箱，
+ * 不生成 Integer.valueOf / intValue 之类的往返装箱
+ *
+ * @author daviswujiahao
+ * @date 2022/12/14 20:10
+ * @since 1.0
+ **/
+class PrimitiveConversionBuilder {
+
+    /**
+     * 生成转换，类型相同或不是数值/布尔/字符之间的转换时返回 null（调用方直接赋值）
+     */
+    static ValueConversion build(Set<String> names, String localName, String value, PsiType sourceType, PsiType targetType) {
+        if (sourceType == null || targetType == null || sourceType.equals(targetType)) {
+            return null;
+        }
+        PsiPrimitiveType sourcePrimitive = unbox(sourceType);
+        PsiPrimitiveType targetPrimitive = unbox(targetType);
+        if (sourcePrimitive == null || targetPrimitive == null
+                || !TypeConversionUtil.isAssignable(targetPrimitive, sourcePrimitive)) {
+            return null;
+        }
+        boolean sourceBoxed = !(sourceType instanceof PsiPrimitiveType);
+        boolean targetBoxed = !(targetType instanceof PsiPrimitiveType);
+
+        if (!sourceBoxed) {
+            // int -> long 直接拓宽；int -> Long 先拓宽再装箱，int -> Integer 只需装箱
+            String converted = targetBoxed && !sourcePrimitive.equals(targetPrimitive)
+                    ? "(" + targetPrimitive.getCanonicalText() + ") " + value : value;
+            return new ValueConversion().setExpression(converted);
+        }
+
+        // Integer -> Integer 的子类型赋值不用转换
+        if (targetBoxed && sourcePrimitive.equals(targetPrimitive)) {
+            return null;
+        }
+        ValueConversion conversion = new ValueConversion();
+        String local = value;
+        if (!isIdentifier(value)) {
+            local = CloneMethodGenerator.uniqueName(names, localName);
+            conversion.addStatement(sourceType.getCanonicalText() + " " + local + " = " + value + ";");
+        }
+        String unboxed = unbox(local, sourcePrimitive, targetPrimitive, targetBoxed);
+        String whenNull = targetBoxed ? "null" : defaultValue(targetPrimitive);
+        return conversion.setExpression(local + " == null ? " + whenNull + " : " + unboxed);
+    }
+
+    private static PsiPrimitiveType unbox(PsiType psiType) {
+        if (psiType instanceof PsiPrimitiveType) {
+            return PsiType.VOID.equals(psiType) || PsiType.NULL.equals(psiType) ? null : (PsiPrimitiveType) psiType;
+        }
+        return PsiPrimitiveType.getUnboxedType(psiType);
+    }
+
+    /**
+     * Number 的子类直接取目标类型的值（Integer -> long 用 longValue() 一步完成拆箱和拓宽）；
+     * Character、Boolean 只能取自身的值，目标是包装类型时需要强转，否则条件表达式的类型是 Character
+     */
+    private static String unbox(String local, PsiPrimitiveType source, PsiPrimitiveType target, boolean targetBoxed) {
+        TypeName sourceName = JavaPoetClassNameUtils.getPrimitiveTypeBySimpleName(source.getCanonicalText());
+        if (!TypeName.CHAR.equals(sourceName) && !TypeName.BOOLEAN.equals(sourceName)) {
+            return local + "." + target.getCanonicalText() + "Value()";
+        }
+        String unboxed = local + "." + source.getCanonicalText() + "Value()";
+        return targetBoxed && !source.equals(target) ? "(" + target.getCanonicalText() + ") " + unboxed : unboxed;
+    }
+
+    /**
+     * 基本类型的默认值，byte/short 在方法参数上下文中不能隐式收窄，需要强转
+     */
+    static String defaultValue(PsiPrimitiveType primitiveType) {
+        TypeName typeName = JavaPoetClassNameUtils.getPrimitiveTypeBySimpleName(primitiveType.getCanonicalText());
+        if (TypeName.BOOLEAN.equals(typeName)) {
+            return "false";
+        }
+        if (TypeName.CHAR.equals(typeName)) {
+            return "'\\u0000'";
+        }
+        if (TypeName.BYTE.equals(typeName) || TypeName.SHORT.equals(typeName)) {
+            return "(" + typeName + ") 0";
+        }
+        if (TypeName.LONG.equals(typeName)) {
+            return "0L";
+        }
+        if (TypeName.FLOAT.equals(typeName)) {
+            return "0F";
+        }
+        if (TypeName.DOUBLE.equals(typeName)) {
+            return "0D";
+        }
+        return "0";
+    }
+
+    private static boolean isIdentifier(String value) {
+        if (value.isEmpty() || !Character.isJavaIdentifierStart(value.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            if (!Character.isJavaIdentifierPart(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.CreateMethodParam;
+import com.github.davisjiahao.plugin.entity.GeneratedMethod;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiUtil;
+
+/**
+ * PsiMethodBuildUtil
+ *
+ * 直接用 PsiElementFactory 构建方法，省去 JavaPoet 输出文本再整体解析的过程
+ *
+ * @author daviswujiahao
+ * @date 2022/11/30 20:40
+ * @since 1.0
+ **/
+public class PsiMethodBuildUtil {
+
+    public static PsiMethod buildMethod(Project project, GeneratedMethod generatedMethod, PsiElement context) {
+        PsiElementFactory factory = JavaPsiFacade.getInstance(project).getElementFactory();
+
+        PsiType returnType = generatedMethod.getReturnType();
+        PsiMethod method = factory.createMethod(generatedMethod.getName(), returnType == null ? PsiType.VOID : returnType);
+        PsiUtil.setModifierProperty(method, generatedMethod.isHelper() ? PsiModifier.PRIVATE : PsiModifier.PUBLIC, true);
+        PsiUtil.setModifierProperty(method, PsiModifier.STATIC, true);
+
+        PsiParameterList parameterList = method.getParameterList();
+        for (CreateMethodParam param : generatedMethod.getParams()) {
+            parameterList.add(factory.createParameter(param.getName(), param.getPsiType()));
+        }
+
+        if (generatedMethod.getDocComment() != null) {
+            method.addBefore(factory.createDocCommentFromText("/**\n * " + generatedMethod.getDocComment().replace("\n", "\n * ") + "\n */"), method.getFirstChild());
+        }
+
+        PsiCodeBlock body = method.getBody();
+        for (String statement : generatedMethod.getStatements()) {
+            body.add(factory.createStatementFromText(statement, context));
+        }
+        return method;
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.mapping.PropertySet;
+import com.github.davisjiahao.plugin.entity.TargetConstruction;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TargetConstructionUtil
+ *
+ * 判断目标类的构造方式：有无参构造器和 set 方法时沿用 set 方法，
+ * 否则依次尝试 lombok @Builder、参数最多的构造器（含 record 规范构造器）、lombok @Value / @AllArgsConstructor
+ *
+ * @author daviswujiahao
+ * @date 2022/12/15 20:40
+ * @since 1.0
+ **/
+public class TargetConstructionUtil {
+
+    private static final Key<CachedValue<TargetConstruction>> CONSTRUCTION_KEY = Key.create("clone.field.target.construction");
+
+    private static final TargetConstruction SETTERS = new TargetConstruction(TargetConstruction.Kind.SETTERS);
+
+    /**
+     * 获取目标类的构造方式，无法构造（如只有 private 构造器）时返回 null
+     */
+    @Nullable
+    public static TargetConstruction getConstruction(@NotNull PsiClass psiClass) {
+        return CachedValuesManager.getCachedValue(psiClass, CONSTRUCTION_KEY,
+                () -> CachedValueProvider.Result.create(buildConstruction(psiClass), PsiModificationTracker.JAVA_STRUCTURE_MODIFICATION_COUNT));
+    }
+
+    /**
+     * 构造器参数或 builder 方法转换成可以交给 MappingPlanner 的属性集合，名字放在 setterName 上
+     */
+    @NotNull
+    public static PropertySet toPropertySet(@NotNull TargetConstruction construction) {
+        PropertySet propertySet = new PropertySet();
+        for (TargetConstruction.Slot slot : construction.getSlots()) {
+            propertySet.getOrCreate(slot.getKey()).setSetterName(slot.getName());
+        }
+        return propertySet;
+    }
+
+    private static TargetConstruction buildConstruction(PsiClass psiClass) {
+        if (psiClass.isInterface() || psiClass.isEnum() || psiClass.hasModifierProperty(PsiModifier.ABSTRACT)) {
+            return null;
+        }
+        PsiMethod[] constructors = psiClass.getConstructors();
+        PsiAnnotation builder = psiClass.getAnnotation("lombok.Builder");
+        boolean lombokAllArgs = psiClass.getAnnotation("lombok.Value") != null
+                || psiClass.getAnnotation("lombok.AllArgsConstructor") != null;
+
+        // 没有显式构造器时，只要 lombok 没有生成带参构造器就有默认构造器
+        boolean hasNoArgs = psiClass.getAnnotation("lombok.NoArgsConstructor") != null
+                || (constructors.length == 0 && builder == null && !lombokAllArgs);
+        PsiMethod canonical = null;
+        for (PsiMethod constructor : constructors) {
+            if (constructor.hasModifierProperty(PsiModifier.PRIVATE)) {
+                continue;
+            }
+            int count = constructor.getParameterList().getParametersCount();
+            if (count == 0) {
+                hasNoArgs = true;
+            } else if (canonical == null || count > canonical.getParameterList().getParametersCount()) {
+                canonical = constructor;
+            }
+        }
+
+        if (hasNoArgs && !BeanPropertyModelUtil.getModel(psiClass).getWritableProperties().isEmpty()) {
+            return SETTERS;
+        }
+        if (builder != null) {
+            return buildBuilder(psiClass, builder);
+        }
+        if (canonical != null) {
+            TargetConstruction construction = new TargetConstruction(TargetConstruction.Kind.CONSTRUCTOR);
+            for (PsiParameter parameter : canonical.getParameterList().getParameters()) {
+                construction.getSlots().add(new TargetConstruction.Slot(parameter.getName().toLowerCase(), parameter.getName(), parameter.getType()));
+            }
+            return construction;
+        }
+        if (lombokAllArgs && constructors.length == 0) {
+            TargetConstruction construction = new TargetConstruction(TargetConstruction.Kind.CONSTRUCTOR);
+            for (PsiField field : getInstanceFields(psiClass)) {
+                construction.getSlots().add(new TargetConstruction.Slot(field.getName().toLowerCase(), field.getName(), field.getType()));
+            }
+            return construction;
+        }
+        return hasNoArgs ? SETTERS : null;
+    }
+
+    private static TargetConstruction buildBuilder(PsiClass psiClass, PsiAnnotation builder) {
+        String setterPrefix = getStringAttribute(builder, "setterPrefix", "");
+        TargetConstruction construction = new TargetConstruction(TargetConstruction.Kind.BUILDER);
+        for (PsiField field : getInstanceFields(psiClass)) {
+            String name = setterPrefix.isEmpty() ? field.getName() : setterPrefix + StringUtils.capitalize(field.getName());
+            construction.getSlots().add(new TargetConstruction.Slot(field.getName().toLowerCase(), name, field.getType()));
+        }
+        return construction;
+    }
+
+    /**
+     * builder() 方法名，默认 builder
+     */
+    @NotNull
+    public static String getBuilderMethodName(@NotNull PsiClass psiClass) {
+        PsiAnnotation builder = psiClass.getAnnotation("lombok.Builder");
+        return builder == null ? "builder" : getStringAttribute(builder, "builderMethodName", "builder");
+    }
+
+    /**
+     * build() 方法名，默认 build
+     */
+    @NotNull
+    public static String getBuildMethodName(@NotNull PsiClass psiClass) {
+        PsiAnnotation builder = psiClass.getAnnotation("lombok.Builder");
+        return builder == null ? "build" : getStringAttribute(builder, "buildMethodName", "build");
+    }
+
+    /**
+     * lombok 生成的构造器 / builder 包含的字段：非静态字段，已初始化的 final 字段除外（@Builder.Default 仍然包含）
+     */
+    private static List<PsiField> getInstanceFields(PsiClass psiClass) {
+        boolean allFinal = psiClass.getAnnotation("lombok.Value") != null;
+        List<PsiField> fields = new ArrayList<>();
+        for (PsiField field : psiClass.getFields()) {
+            if (field.hasModifierProperty(PsiModifier.STATIC)) {
+                continue;
+            }
+            boolean isFinal = allFinal || field.hasModifierProperty(PsiModifier.FINAL);
+            if (isFinal && field.hasInitializer() && field.getAnnotation("lombok.Builder.Default") == null) {
+                continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private static String getStringAttribute(PsiAnnotation annotation, String name, String defaultValue) {
+        PsiAnnotationMemberValue value = annotation.findDeclaredAttributeValue(name);
+        if (value instanceof PsiLiteralExpression && ((PsiLiteralExpression) value).getValue() instanceof String) {
+            String text = (String) ((PsiLiteralExpression) value).getValue();
+            return StringUtils.isEmpty(text) ? defaultValue : text;
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,280 @@
+package com.github.davisjiahao.plugin.utils;
+
+import com.github.davisjiahao.plugin.entity.TypeConverter;
+import com.github.davisjiahao.plugin.settings.CloneFieldProjectSettings;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.*;
+import com.intellij.psi.util.PsiTypesUtil;
+import com.intellij.psi.util.TypeConversionUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TypeConversionBuilder
+ *
+ * 同名但类型不同的属性之间的转换：先查项目中自定义的转换，再查内置转换（日期、枚举、字符串与数值）。
+ * 日期格式使用目标类中共享的 DateTimeFormatter 常量（线程安全），String 转枚举使用预先建好的 name -> 枚举 Map，
+ * 不在每次调用时 new SimpleDateFormat 或遍历 values()；一侧是基本类型时使用不装箱的内置转换（String.valueOf、Integer.parseInt 等）
+ *
+ * @author daviswujiahao
+ * @date 2022/12/21 10:30
+ * @since 1.0
+ **/
+class TypeConversionBuilder {
+
+    private static final String DATE_TIME_FORMATTER = "DATE_TIME_FORMATTER";
+
+    private static final String DATE_FORMATTER = "DATE_FORMATTER";
+
+    private static final String FORMATTER_TYPE = "java.time.format.DateTimeFormatter";
+
+    private static final String ZONE = "java.time.ZoneId.systemDefault()";
+
+    private static final List<TypeConverter> BUILT_IN = new ArrayList<>();
+
+    /**
+     * 来源或目标是基本类型（类型名不装箱）的内置转换，不经过包装类型
+     */
+    private static final List<TypeConverter> PRIMITIVE_BUILT_IN = new ArrayList<>();
+
+    static {
+        String date = "java.util.Date";
+        String localDateTime = "java.time.LocalDateTime";
+        String localDate = "java.time.LocalDate";
+        String string = CommonClassNames.JAVA_LANG_STRING;
+        String longType = CommonClassNames.JAVA_LANG_LONG;
+        String bigDecimal = "java.math.BigDecimal";
+
+        BUILT_IN.add(new TypeConverter(date, string, DATE_TIME_FORMATTER + ".format($value.toInstant().atZone(" + ZONE + "))"));
+        BUILT_IN.add(new TypeConverter(string, date, "java.util.Date.from(java.time.LocalDateTime.parse($value, "
+                + DATE_TIME_FORMATTER + ").atZone(" + ZONE + ").toInstant())"));
+        BUILT_IN.add(new TypeConverter(localDateTime, string, DATE_TIME_FORMATTER + ".format($value)"));
+        BUILT_IN.add(new TypeConverter(string, localDateTime, "java.time.LocalDateTime.parse($value, " + DATE_TIME_FORMATTER + ")"));
+        BUILT_IN.add(new TypeConverter(localDate, string, DATE_FORMATTER + ".format($value)"));
+        BUILT_IN.add(new TypeConverter(string, localDate, "java.time.LocalDate.parse($value, " + DATE_FORMATTER + ")"));
+
+        BUILT_IN.add(new TypeConverter(localDateTime, longType, "$value.atZone(" + ZONE + ").toInstant().toEpochMilli()"));
+        BUILT_IN.add(new TypeConverter(longType, localDateTime, "java.time.LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli($value), " + ZONE + ")"));
+        BUILT_IN.add(new TypeConverter(date, longType, "$value.getTime()"));
+        BUILT_IN.add(new TypeConverter(longType, date, "new java.util.Date($value)"));
+        BUILT_IN.add(new TypeConverter(date, localDateTime, "java.time.LocalDateTime.ofInstant($value.toInstant(), " + ZONE + ")"));
+        BUILT_IN.add(new TypeConverter(localDateTime, date, "java.util.Date.from($value.atZone(" + ZONE + ").toInstant())"));
+
+        BUILT_IN.add(new TypeConverter(string, bigDecimal, "new java.math.BigDecimal($value)"));
+        BUILT_IN.add(new TypeConverter(bigDecimal, string, "$value.toPlainString()"));
+        BUILT_IN.add(new TypeConverter(string, CommonClassNames.JAVA_LANG_INTEGER, "java.lang.Integer.valueOf($value)"));
+        BUILT_IN.add(new TypeConverter(string, longType, "java.lang.Long.valueOf($value)"));
+        BUILT_IN.add(new TypeConverter(string, CommonClassNames.JAVA_LANG_DOUBLE, "java.lang.Double.valueOf($value)"));
+        BUILT_IN.add(new TypeConverter(string, CommonClassNames.JAVA_LANG_FLOAT, "java.lang.Float.valueOf($value)"));
+        BUILT_IN.add(new TypeConverter(string, CommonClassNames.JAVA_LANG_SHORT, "java.lang.Short.valueOf($value)"));
+        BUILT_IN.add(new TypeConverter(string, CommonClassNames.JAVA_LANG_BYTE, "java.lang.Byte.valueOf($value)"));
+        for (String number : new String[]{CommonClassNames.JAVA_LANG_INTEGER, longType, CommonClassNames.JAVA_LANG_DOUBLE}) {
+            BUILT_IN.add(new TypeConverter(number, string, "$value.toString()"));
+        }
+
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "int", "java.lang.Integer.parseInt($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "long", "java.lang.Long.parseLong($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "double", "java.lang.Double.parseDouble($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "float", "java.lang.Float.parseFloat($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "short", "java.lang.Short.parseShort($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(string, "byte", "java.lang.Byte.parseByte($value)"));
+        for (String number : new String[]{"int", "long", "double"}) {
+            PRIMITIVE_BUILT_IN.add(new TypeConverter(number, string, "java.lang.String.valueOf($value)"));
+        }
+        PRIMITIVE_BUILT_IN.add(new TypeConverter("long", localDateTime, "java.time.LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli($value), " + ZONE + ")"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter("long", date, "new java.util.Date($value)"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(localDateTime, "long", "$value.atZone(" + ZONE + ").toInstant().toEpochMilli()"));
+        PRIMITIVE_BUILT_IN.add(new TypeConverter(date, "long", "$value.getTime()"));
+    }
+
+    /**
+     * 生成转换，没有适用的转换（包括可以直接赋值）时返回 null
+     */
+    static ValueConversion build(CloneMethodGenerator generator, Set<String> names, String localName, String value,
+                                 PsiType sourceType, PsiType targetType) {
+        if (sourceType == null || targetType == null || targetType.isAssignableFrom(sourceType)) {
+            return null;
+        }
+        TypeConverter converter = findConverter(generator, sourceType, targetType);
+        if (converter == null) {
+            return null;
+        }
+
+        ValueConversion conversion = new ValueConversion();
+        if (sourceType instanceof PsiPrimitiveType && sourceType.getCanonicalText().equals(converter.getSourceType())) {
+            // 按基本类型找到的内置转换直接作用于取值，不装箱，也不需要判空
+            return conversion.setExpression(converter.getExpression().replace(TypeConverter.VALUE, value));
+        }
+        String local = CloneMethodGenerator.uniqueName(names, localName);
+        // 自定义转换按包装类型声明，表达式可能调用包装类型的方法（如 $value.toString()），基本类型的值先装箱
+        String localType = sourceType instanceof PsiPrimitiveType ? typeName(sourceType) : sourceType.getCanonicalText();
+        conversion.addStatement(localType + " " + local + " = " + value + ";");
+        String converted = converter.getExpression().replace(TypeConverter.VALUE, local);
+        if (sourceType instanceof PsiPrimitiveType) {
+            return conversion.setExpression(converted);
+        }
+        String whenNull = targetType instanceof PsiPrimitiveType
+                ? PrimitiveConversionBuilder.defaultValue((PsiPrimitiveType) targetType) : "null";
+        return conversion.setExpression(local + " == null ? " + whenNull + " : " + converted);
+    }
+
+    /**
+     * 查找转换并登记其用到的常量，返回含 {@link TypeConverter#VALUE} 的表达式，没有可用的转换时返回 null
+     */
+    static String findConversion(CloneMethodGenerator generator, PsiType sourceType, PsiType targetType) {
+        TypeConverter converter = findConverter(generator, sourceType, targetType);
+        return converter == null ? null : converter.getExpression();
+    }
+
+    /**
+     * 同 {@link #findConversion}，返回的转换保留匹配上的来源类型，据此判断基本类型的值是否需要装箱
+     */
+    private static TypeConverter findConverter(CloneMethodGenerator generator, PsiType sourceType, PsiType targetType) {
+        Project project = findProject(sourceType, targetType);
+        if (project == null) {
+            return null;
+        }
+        CloneFieldProjectSettings projectSettings = CloneFieldProjectSettings.getInstance(project);
+        TypeConverter converter = lookUpConverter(projectSettings, sourceType, targetType);
+        if (converter == null) {
+            return null;
+        }
+        String expression = converter.getExpression();
+        // 常量名可能因冲突换成 XXX_2，表达式中换成实际使用的名字
+        PsiClass targetEnum = enumClass(targetType);
+        if (targetEnum != null && mentions(expression, enumLookupName(targetEnum))) {
+            expression = rename(expression, enumLookupName(targetEnum), requireEnumLookup(generator, targetEnum));
+        }
+        if (mentions(expression, DATE_TIME_FORMATTER)) {
+            expression = rename(expression, DATE_TIME_FORMATTER, requireFormatter(generator, DATE_TIME_FORMATTER, projectSettings.dateTimePattern));
+        }
+        if (mentions(expression, DATE_FORMATTER)) {
+            expression = rename(expression, DATE_FORMATTER, requireFormatter(generator, DATE_FORMATTER, projectSettings.datePattern));
+        }
+        return new TypeConverter(converter.getSourceType(), converter.getTargetType(), expression);
+    }
+
+    private static boolean mentions(String expression, String name) {
+        return identifier(name).matcher(expression).find();
+    }
+
+    private static String rename(String expression, String name, String actualName) {
+        return identifier(name).matcher(expression).replaceAll(Matcher.quoteReplacement(actualName));
+    }
+
+    private static Pattern identifier(String name) {
+        return Pattern.compile("(?<![\\w$.])" + Pattern.quote(name) + "(?![\\w$])");
+    }
+
+    /**
+     * 是否有可用的转换（自定义或内置），不登记常量，供检查使用
+     */
+    static boolean isSupported(PsiType sourceType, PsiType targetType) {
+        Project project = sourceType == null || targetType == null ? null : findProject(sourceType, targetType);
+        return project != null && lookUpConverter(CloneFieldProjectSettings.getInstance(project), sourceType, targetType) != null;
+    }
+
+    /**
+     * 自定义转换优先，其次是内置转换，没有时返回 null
+     */
+    private static TypeConverter lookUpConverter(CloneFieldProjectSettings projectSettings, PsiType sourceType, PsiType targetType) {
+        String source = typeName(sourceType);
+        String target = typeName(targetType);
+        for (TypeConverter converter : projectSettings.converters) {
+            if (source.equals(converter.getSourceType()) && target.equals(converter.getTargetType())
+                    && StringUtils.isNotBlank(converter.getExpression())) {
+                return converter;
+            }
+        }
+        return findBuiltIn(source, target, sourceType, targetType);
+    }
+
+    private static TypeConverter findBuiltIn(String source, String target, PsiType sourceType, PsiType targetType) {
+        PsiClass sourceEnum = enumClass(sourceType);
+        PsiClass targetEnum = enumClass(targetType);
+        if (targetEnum != null && (sourceEnum != null || CommonClassNames.JAVA_LANG_STRING.equals(source))) {
+            return new TypeConverter(source, target, enumLookupName(targetEnum) + ".get(" + TypeConverter.VALUE + (sourceEnum != null ? ".name()" : "") + ")");
+        }
+        if (sourceEnum != null && CommonClassNames.JAVA_LANG_STRING.equals(target)) {
+            return new TypeConverter(source, target, TypeConverter.VALUE + ".name()");
+        }
+        if (sourceType instanceof PsiPrimitiveType || targetType instanceof PsiPrimitiveType) {
+            String primitiveSource = sourceType instanceof PsiPrimitiveType ? sourceType.getCanonicalText() : source;
+            String primitiveTarget = targetType instanceof PsiPrimitiveType ? targetType.getCanonicalText() : target;
+            for (TypeConverter converter : PRIMITIVE_BUILT_IN) {
+                if (primitiveSource.equals(converter.getSourceType()) && primitiveTarget.equals(converter.getTargetType())) {
+                    return converter;
+                }
+            }
+            // 包装类型的内置转换会调用包装类型的方法，基本类型的值需要装箱，不使用
+            if (sourceType instanceof PsiPrimitiveType) {
+                return null;
+            }
+        }
+        for (TypeConverter converter : BUILT_IN) {
+            if (source.equals(converter.getSourceType()) && target.equals(converter.getTargetType())) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 枚举的 name -> 常量 Map，只在类初始化时遍历一次 values()；名字不存在时转换结果为 null。返回实际使用的常量名
+     */
+    private static String requireEnumLookup(CloneMethodGenerator generator, PsiClass enumClass) {
+        String enumName = enumClass.getQualifiedName();
+        String type = "java.util.Map<java.lang.String, " + enumName + ">";
+        return generator.requireConstant(enumLookupName(enumClass), type, constant -> "private static final " + type + " " + constant
+                + " = java.util.Arrays.stream(" + enumName + ".values())"
+                + ".collect(java.util.stream.Collectors.toMap(java.lang.Enum::name, java.util.function.Function.identity()));");
+    }
+
+    /**
+     * OrderStatus -> ORDER_STATUS_BY_NAME（不同包的同名枚举由 {@link CloneMethodGenerator#requireConstant} 加序号区分）
+     */
+    private static String enumLookupName(PsiClass enumClass) {
+        return toConstantName(enumClass.getName()) + "_BY_NAME";
+    }
+
+    private static String requireFormatter(CloneMethodGenerator generator, String name, String pattern) {
+        return generator.requireConstant(name, FORMATTER_TYPE, constant -> "private static final " + FORMATTER_TYPE + " " + constant
+                + " = " + FORMATTER_TYPE + ".ofPattern(\"" + StringUtils.replace(pattern, "\"", "\\\"") + "\");");
+    }
+
+    private static PsiClass enumClass(PsiType psiType) {
+        PsiClass psiClass = PsiTypesUtil.getPsiClass(psiType);
+        return psiClass != null && psiClass.isEnum() ? psiClass : null;
+    }
+
+    /**
+     * 擦除泛型后的全限定名，基本类型用包装类型
+     */
+    private static String typeName(PsiType psiType) {
+        if (psiType instanceof PsiPrimitiveType) {
+            String boxed = ((PsiPrimitiveType) psiType).getBoxedTypeName();
+            return boxed != null ? boxed : psiType.getCanonicalText();
+        }
+        return TypeConversionUtil.erasure(psiType).getCanonicalText();
+    }
+
+    private static Project findProject(PsiType sourceType, PsiType targetType) {
+        PsiClass psiClass = PsiTypesUtil.getPsiClass(targetType);
+        if (psiClass == null) {
+            psiClass = PsiTypesUtil.getPsiClass(sourceType);
+        }
+        return psiClass == null ? null : psiClass.getProject();
+    }
+
+    /**
+     * OrderStatus -> ORDER_STATUS
+     */
+    private static String toConstantName(String simpleName) {
+        return simpleName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.davisjiahao.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ValueConversion
+ *
+ * 一个属性值的转换结果：先执行的准备语句 + 最终取值表达式，
+ * 由调用方决定传给 set 方法、构造器参数还是 builder 方法
+ *
+ * @author daviswujiahao
+ * @date 2022/12/15 20:40
+ * @since 1.0
+ **/
+class ValueConversion {
+
+    private final List<String> statements = new ArrayList<>(2);
+
+    private String expression;
+
+    List<String> getStatements() {
+        return statements;
+    }
+
+    String getExpression() {
+        return expression;
+    }
+
+    ValueConversion addStatement(String statement) {
+        statements.add(statement);
+        return this;
+    }
+
+    ValueConversion setExpression(String expression) {
+        this.expression = expression;
+        return this;
+    }
+}
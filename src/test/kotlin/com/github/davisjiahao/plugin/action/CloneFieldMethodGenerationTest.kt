@@ -0,0 +1,317 @@
+package com.github.davisjiahao.plugin.action
+
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings
+import com.intellij.lang.annotation.HighlightSeverity
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiJavaFile
+import com.intellij.testFramework.PlatformTestUtil
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+
+/**
+ * 端到端执行意图，检查插入的方法体（忽略空白比较）并且没有编译错误
+ */
+class CloneFieldMethodGenerationTest : LightJavaCodeInsightFixtureTestCase() {
+
+    private var bulkMappers = false
+    private var parallelBulkMappers = false
+    private var parallelThreshold = 0
+    private var nestedMappers = false
+
+    override fun setUp() {
+        super.setUp()
+        val settings = CloneFieldSettings.getInstance()
+        bulkMappers = settings.bulkMappers
+        parallelBulkMappers = settings.parallelBulkMappers
+        parallelThreshold = settings.parallelThreshold
+        nestedMappers = settings.nestedMappers
+    }
+
+    override fun tearDown() {
+        try {
+            val settings = CloneFieldSettings.getInstance()
+            settings.bulkMappers = bulkMappers
+            settings.parallelBulkMappers = parallelBulkMappers
+            settings.parallelThreshold = parallelThreshold
+            settings.nestedMappers = nestedMappers
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    fun testEntityToMapFillsPreSizedMap() {
+        myFixture.addClass(PERSON)
+        configureMapper("public java.util.Map<String, Object> use(Person person) {\n        return to<caret>Map(person);\n    }")
+
+        generate(CreateEntityToMapMethodAction(), "toMap")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("Map<String,Object>map=newHashMap<>(6);"))
+        assertTrue(body, body.contains("map.put(\"name\",person.getName());"))
+        assertTrue(body, body.contains("map.put(\"age\",person.getAge());"))
+        assertTrue(body, body.contains("map.put(\"id\",person.getId());"))
+        assertTrue(body, body.contains("map.put(\"score\",person.getScore());"))
+        assertTrue(body, body.contains("returnmap;"))
+        assertNoErrors()
+    }
+
+    fun testMapToEntitySkipsNullKeys() {
+        myFixture.addClass(PERSON)
+        configureFromMap()
+
+        generate(CreateMapToEntityMethodAction(), "fromMap")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("if(entry.getKey()==null){continue;}Objectvalue=entry.getValue();switch(entry.getKey()){"))
+        assertTrue(body, body.contains("case\"name\":newEntity.setName((String)value);break;"))
+        assertNoErrors()
+    }
+
+    fun testMapToEntityParsesNumericStrings() {
+        myFixture.addClass(PERSON)
+        configureFromMap()
+
+        generate(CreateMapToEntityMethodAction(), "fromMap")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("newEntity.setAge(value==null?0:valueinstanceofString?(Integer.parseInt(((String)value))):((Number)value).intValue());"))
+        assertTrue(body, body.contains("newEntity.setId(value==null?null:valueinstanceofString?(Long.valueOf(((String)value))):((Number)value).longValue());"))
+        assertTrue(body, body.contains("newEntity.setScore(value==null?(short)0:valueinstanceofString?(Short.parseShort(((String)value))):((Number)value).shortValue());"))
+        assertNoErrors()
+    }
+
+    fun testPrimitiveConversionsAreInlinedWithoutBoxing() {
+        myFixture.addClass(
+            "package demo;\n\npublic class Counter {\n" +
+                "    private String count;\n    private int total;\n" +
+                "    public String getCount() { return count; }\n    public int getTotal() { return total; }\n}"
+        )
+        myFixture.addClass(
+            "package demo;\n\npublic class CounterView {\n" +
+                "    private int count;\n    private String total;\n" +
+                "    public void setCount(int count) { this.count = count; }\n    public void setTotal(String total) { this.total = total; }\n}"
+        )
+        configureMapper("public CounterView use(Counter source) {\n        return conv<caret>ert(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        val body = normalizedMapper()
+        // 引用类型的来源先判空再解析，基本类型的来源直接转换，不经过包装类型的局部变量
+        assertTrue(body, body.contains("Stringcount=source.getCount();newEntity.setCount(count==null?0:Integer.parseInt(count));"))
+        assertTrue(body, body.contains("newEntity.setTotal(String.valueOf(source.getTotal()));"))
+        assertFalse(body, body.contains("Integertotal"))
+        assertNoErrors()
+    }
+
+    fun testWrappersAreUnboxedNullSafelyAndPrimitivesWidened() {
+        myFixture.addClass(
+            "package demo;\n\npublic class Order {\n" +
+                "    private Integer amount;\n    private int total;\n" +
+                "    public Integer getAmount() { return amount; }\n    public int getTotal() { return total; }\n}"
+        )
+        myFixture.addClass(
+            "package demo;\n\npublic class OrderView {\n" +
+                "    private int amount;\n    private Long total;\n" +
+                "    public void setAmount(int amount) { this.amount = amount; }\n    public void setTotal(Long total) { this.total = total; }\n}"
+        )
+        configureMapper("public OrderView use(Order source) {\n        return conv<caret>ert(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("Integeramount=source.getAmount();newEntity.setAmount(amount==null?0:amount.intValue());"))
+        assertTrue(body, body.contains("newEntity.setTotal((long)source.getTotal());"))
+        assertFalse(body, body.contains("valueOf"))
+        assertNoErrors()
+    }
+
+    fun testImmutableTargetIsBuiltThroughItsConstructor() {
+        myFixture.addClass("package demo;\n\npublic class Location {\n    private int x;\n    public int getX() { return x; }\n}")
+        myFixture.addClass(
+            "package demo;\n\npublic class Point {\n    private final int x;\n    private final int y;\n" +
+                "    public Point(int x, int y) { this.x = x; this.y = y; }\n}"
+        )
+        configureMapper("public Point use(Location source) {\n        return conv<caret>ert(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        // 构造器参数不能省略，没有来源的参数补默认值
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("returnnewPoint(source.getX(),0);"))
+        assertFalse(body, body.contains("newEntity"))
+        assertNoErrors()
+    }
+
+    fun testLombokBuilderTargetIsBuiltThroughABuilderChain() {
+        myFixture.addClass("package lombok;\n\npublic @interface Builder {}")
+        myFixture.addClass(
+            "package demo;\n\npublic class TicketForm {\n    private Long id;\n    private String title;\n" +
+                "    public Long getId() { return id; }\n    public String getTitle() { return title; }\n}"
+        )
+        myFixture.addClass("package demo;\n\n@lombok.Builder\npublic class Ticket {\n    private Long id;\n    private String title;\n}")
+        configureMapper("public Ticket use(TicketForm source) {\n        return conv<caret>ert(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        // 桩注解不会真正生成 builder()，只检查生成的调用链
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("returnTicket.builder().id(source.getId()).title(source.getTitle()).build();"))
+    }
+
+    fun testBulkMappersLoopByIndexAndFallBackBelowTheParallelThreshold() {
+        enableBulkMappers()
+        myFixture.addClass(PERSON)
+        configureMapper("public Person use(Person source) {\n        return co<caret>py(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "copy")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("publicList<Person>copyAllFromPerson(Collection<?extendsPerson>sources){"))
+        assertTrue(body, body.contains("for(inti=0,size=list.size();i<size;i++){result.add(copy(list.get(i)));}"))
+        assertTrue(body, body.contains("if(sources==null||sources.size()<1000){returncopyAllFromPerson(sources);}"))
+        assertTrue(body, body.contains(".parallel().forEach(i->result.set(i,copy(list.get(i))));"))
+        assertNoErrors()
+    }
+
+    fun testBulkMapperClashingWithAnExistingErasureIsNotInserted() {
+        enableBulkMappers()
+        myFixture.addClass(PERSON)
+        configureMapper(
+            "public Person use(Person source) {\n        return co<caret>py(source);\n    }\n\n" +
+                "    public java.util.List<Person> copyAllFromPerson(java.util.Collection<String> names) {\n        return null;\n    }"
+        )
+
+        generate(CreateCloneFieldMethodAction(), "copy")
+
+        val existing = mapperClass().findMethodsByName("copyAllFromPerson", false)
+        assertEquals(1, existing.size)
+        assertEquals("java.util.Collection<java.lang.String>", existing[0].parameterList.parameters[0].type.canonicalText)
+    }
+
+    fun testNestedBeanIsConvertedThroughAGeneratedHelper() {
+        CloneFieldSettings.getInstance().nestedMappers = true
+        addNestedBeans()
+        configureMapper("public CustomerView use(Customer source) {\n        return conv<caret>ert(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("newEntity.setAddress(toAddressView(source.getAddress()));"))
+        assertTrue(body, body.contains("AddressViewtoAddressView(Addresssource){if(source==null){returnnull;}"))
+        assertTrue(body, body.contains(".setCity(source.getCity());"))
+        assertNoErrors()
+    }
+
+    fun testNestedBeanReusesAnExistingStaticMapper() {
+        CloneFieldSettings.getInstance().nestedMappers = true
+        addNestedBeans()
+        configureMapper(
+            "public CustomerView use(Customer source) {\n        return conv<caret>ert(source);\n    }\n\n" +
+                "    public static AddressView toView(Address address) {\n        return null;\n    }"
+        )
+
+        generate(CreateCloneFieldMethodAction(), "convert")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("newEntity.setAddress(toView(source.getAddress()));"))
+        assertFalse(body, body.contains("toAddressView"))
+        assertNoErrors()
+    }
+
+    fun testSelfReferenceCallsTheMainMethod() {
+        CloneFieldSettings.getInstance().nestedMappers = true
+        myFixture.addClass(
+            "package demo;\n\npublic class Node {\n    private Node parent;\n" +
+                "    public Node getParent() { return parent; }\n    public void setParent(Node parent) { this.parent = parent; }\n}"
+        )
+        configureMapper("public Node use(Node source) {\n        return co<caret>py(source);\n    }")
+
+        generate(CreateCloneFieldMethodAction(), "copy")
+
+        val body = normalizedMapper()
+        assertTrue(body, body.contains("newEntity.setParent(copy(source.getParent()));"))
+        assertFalse(body, body.contains("copyNode"))
+        assertNoErrors()
+    }
+
+    private fun addNestedBeans() {
+        myFixture.addClass("package demo;\n\npublic class Address {\n    private String city;\n    public String getCity() { return city; }\n}")
+        myFixture.addClass(
+            "package demo;\n\npublic class AddressView {\n    private String city;\n" +
+                "    public void setCity(String city) { this.city = city; }\n}"
+        )
+        myFixture.addClass(
+            "package demo;\n\npublic class Customer {\n    private Address address;\n" +
+                "    public Address getAddress() { return address; }\n}"
+        )
+        myFixture.addClass(
+            "package demo;\n\npublic class CustomerView {\n    private AddressView address;\n" +
+                "    public void setAddress(AddressView address) { this.address = address; }\n}"
+        )
+    }
+
+    private fun enableBulkMappers() {
+        val settings = CloneFieldSettings.getInstance()
+        settings.bulkMappers = true
+        settings.parallelBulkMappers = true
+        settings.parallelThreshold = 1000
+    }
+
+    private fun configureFromMap() {
+        configureMapper("public Person use(java.util.Map<String, Object> row) {\n        return from<caret>Map(row);\n    }")
+    }
+
+    private fun configureMapper(use: String) {
+        myFixture.configureByText("Mapper.java", "package demo;\n\npublic class Mapper {\n    $use\n}\n")
+    }
+
+    /**
+     * 与使用者操作相同：检查可用后调用意图，等待后台分析完成、UI 线程插入方法
+     */
+    private fun generate(action: CreateCloneFieldMethodAction, methodName: String) {
+        val element = myFixture.file.findElementAt(myFixture.caretOffset)
+        assertTrue(action.isAvailable(project, myFixture.editor, element))
+        action.invoke(project, myFixture.editor, element!!)
+
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+        while (mapperClass().findMethodsByName(methodName, false).isEmpty()) {
+            assertTrue("$methodName was not generated in time", System.currentTimeMillis() < deadline)
+            PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue()
+            Thread.sleep(5)
+        }
+    }
+
+    private fun assertNoErrors() {
+        val errors = myFixture.doHighlighting(HighlightSeverity.ERROR)
+        assertTrue(errors.joinToString("\n") { it.description }, errors.isEmpty())
+    }
+
+    private fun mapperClass(): PsiClass = (myFixture.file as PsiJavaFile).classes.single()
+
+    /**
+     * Mapper 文件去掉空白后的文本
+     */
+    private fun normalizedMapper(): String = myFixture.file.text.replace(Regex("\\s+"), "")
+
+    companion object {
+        private const val TIMEOUT_MILLIS = 60_000L
+
+        private val PERSON = """
+            package demo;
+
+            public class Person {
+                private String name;
+                private int age;
+                private Long id;
+                private short score;
+                public String getName() { return name; }
+                public void setName(String name) { this.name = name; }
+                public int getAge() { return age; }
+                public void setAge(int age) { this.age = age; }
+                public Long getId() { return id; }
+                public void setId(Long id) { this.id = id; }
+                public short getScore() { return score; }
+                public void setScore(short score) { this.score = score; }
+            }
+            """.trimIndent()
+    }
+}
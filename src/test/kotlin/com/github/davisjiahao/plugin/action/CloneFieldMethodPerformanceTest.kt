@@ -0,0 +1,162 @@
+package com.github.davisjiahao.plugin.action
+
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiJavaFile
+import com.intellij.testFramework.PlatformTestUtil
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+
+/**
+ * 在生成的大型夹具上端到端执行两个意图（分析、插入、缩短引用、格式化），超过时间预算即失败
+ */
+class CloneFieldMethodPerformanceTest : LightJavaCodeInsightFixtureTestCase() {
+
+    fun testFullMethodFor500FieldClasses() {
+        myFixture.addClass(bean("Source", fieldCount = 500))
+        myFixture.addClass(bean("Target", fieldCount = 500))
+
+        PlatformTestUtil.startPerformanceTest("full method for 500 fields", 4000) {
+            generate(CreateCloneFieldMethodAction())
+        }.setup { configureMapper() }.attempts(ATTEMPTS).assertTiming()
+
+        assertEquals(500, countSetterCalls())
+    }
+
+    fun testMatchedMethodFor500FieldClasses() {
+        myFixture.addClass(bean("Source", fieldCount = 500))
+        myFixture.addClass(bean("Target", fieldCount = 500, fieldPrefix = "g", sharedFields = 250))
+
+        PlatformTestUtil.startPerformanceTest("matched method for 500 fields", 4000) {
+            generate(CreateCloneFieldMatchMethodAction())
+        }.setup { configureMapper() }.attempts(ATTEMPTS).assertTiming()
+
+        assertEquals(250, countSetterCalls())
+    }
+
+    fun testFullMethodForEightDeepHierarchies() {
+        addHierarchy("Source")
+        addHierarchy("Target")
+
+        PlatformTestUtil.startPerformanceTest("full method for 8-deep hierarchies", 2000) {
+            generate(CreateCloneFieldMethodAction())
+        }.setup { configureMapper() }.attempts(ATTEMPTS).assertTiming()
+
+        assertEquals(HIERARCHY_DEPTH * FIELDS_PER_LEVEL, countSetterCalls())
+    }
+
+    fun testMatchedMethodForLombokDataChains() {
+        myFixture.addClass("package lombok; public @interface Data {}")
+        addHierarchy("Source", lombok = true)
+        addHierarchy("Target", lombok = true)
+
+        PlatformTestUtil.startPerformanceTest("matched method for Lombok @Data chains", 2000) {
+            generate(CreateCloneFieldMatchMethodAction())
+        }.setup { configureMapper() }.attempts(ATTEMPTS).assertTiming()
+
+        assertEquals(HIERARCHY_DEPTH * FIELDS_PER_LEVEL, countSetterCalls())
+    }
+
+    fun testFullMethodInto5000LineTargetClass() {
+        myFixture.addClass(bean("Source", fieldCount = 100))
+        myFixture.addClass(bean("Target", fieldCount = 100))
+        val existingMethods = (0 until 1000).joinToString("\n") {
+            "    public int existing$it(int value) {\n        int result = value * $it;\n        return result + 1;\n    }\n"
+        }
+
+        PlatformTestUtil.startPerformanceTest("full method into a 5000-line class", 3000) {
+            generate(CreateCloneFieldMethodAction())
+        }.setup { configureMapper(existingMethods) }.attempts(ATTEMPTS).assertTiming()
+
+        assertTrue(mapperClass().containingFile.text.lines().size > 5000)
+        assertEquals(100, countSetterCalls())
+    }
+
+    private fun configureMapper(members: String = "") {
+        myFixture.configureByText(
+            "Mapper.java", """
+            package demo;
+
+            public class Mapper {
+            $members
+                public Target use(Source source) {
+                    return conv<caret>ert(source);
+                }
+            }
+            """.trimIndent()
+        )
+    }
+
+    /**
+     * 与使用者操作相同：检查可用后调用意图，等待后台分析完成、UI 线程插入方法
+     */
+    private fun generate(action: CreateCloneFieldMethodAction) {
+        val element = myFixture.file.findElementAt(myFixture.caretOffset)
+        assertTrue(action.isAvailable(project, myFixture.editor, element))
+        action.invoke(project, myFixture.editor, element!!)
+
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+        while (mapperClass().findMethodsByName(METHOD_NAME, false).isEmpty()) {
+            assertTrue("$METHOD_NAME was not generated in time", System.currentTimeMillis() < deadline)
+            PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue()
+            Thread.sleep(5)
+        }
+    }
+
+    private fun mapperClass(): PsiClass = (myFixture.file as PsiJavaFile).classes.single()
+
+    /**
+     * 主方法及拆分出的方法中的 set 调用个数
+     */
+    private fun countSetterCalls(): Int = Regex("newEntity\\.set\\w+\\(\\w").findAll(mapperClass().text).count()
+
+    private fun addHierarchy(prefix: String, lombok: Boolean = false) {
+        for (level in 1..HIERARCHY_DEPTH) {
+            val superClass = if (level > 1) "$prefix${level - 1}" else null
+            val name = if (level == HIERARCHY_DEPTH) prefix else "$prefix$level"
+            myFixture.addClass(
+                bean(name, FIELDS_PER_LEVEL, fieldPrefix = "l${level}f", sharedFields = 0, superClass = superClass, lombok = lombok)
+            )
+        }
+    }
+
+    /**
+     * 生成 Java Bean：前 sharedFields 个字段名与其他前缀无关（f0、f1...），之后的字段使用 fieldPrefix
+     */
+    private fun bean(
+        name: String,
+        fieldCount: Int,
+        fieldPrefix: String = "f",
+        sharedFields: Int = fieldCount,
+        superClass: String? = null,
+        lombok: Boolean = false
+    ): String {
+        val types = listOf("String", "int", "Long", "boolean")
+        val text = StringBuilder("package demo;\n\n")
+        if (lombok) {
+            text.append("@lombok.Data\n")
+        }
+        text.append("public class ").append(name)
+        superClass?.let { text.append(" extends ").append(it) }
+        text.append(" {\n")
+        for (i in 0 until fieldCount) {
+            val fieldName = if (i < sharedFields) "f$i" else "$fieldPrefix$i"
+            val type = types[i % types.size]
+            text.append("    private ").append(type).append(' ').append(fieldName).append(";\n")
+            if (!lombok) {
+                val suffix = StringUtil.capitalize(fieldName)
+                text.append("    public ").append(type).append(" get").append(suffix).append("() { return ").append(fieldName).append("; }\n")
+                text.append("    public void set").append(suffix).append('(').append(type).append(" value) { this.")
+                    .append(fieldName).append(" = value; }\n")
+            }
+        }
+        return text.append("}\n").toString()
+    }
+
+    companion object {
+        private const val METHOD_NAME = "convert"
+        private const val ATTEMPTS = 3
+        private const val TIMEOUT_MILLIS = 60_000L
+        private const val HIERARCHY_DEPTH = 8
+        private const val FIELDS_PER_LEVEL = 20
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.davisjiahao.plugin.action
+
+import com.github.davisjiahao.plugin.entity.CloneMethodPlan
+import com.github.davisjiahao.plugin.settings.CloneFieldSettings
+import com.github.davisjiahao.plugin.utils.CloneFieldBatchGenerator
+import com.github.davisjiahao.plugin.utils.CloneMethodRefresher
+import com.github.davisjiahao.plugin.utils.GeneratedMethodMarker
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiJavaFile
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.SmartPsiElementPointer
+import com.intellij.testFramework.PlatformTestUtil
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+import java.util.concurrent.TimeUnit
+
+/**
+ * 生成方法后修改类结构（或手工修改方法体），再就地刷新，检查按单元对比的结果和标记
+ */
+class RefreshCloneFieldMethodTest : LightJavaCodeInsightFixtureTestCase() {
+
+    private var maxMethodBytecodeSize = 0
+
+    override fun setUp() {
+        super.setUp()
+        maxMethodBytecodeSize = CloneFieldSettings.getInstance().maxMethodBytecodeSize
+    }
+
+    override fun tearDown() {
+        try {
+            CloneFieldSettings.getInstance().maxMethodBytecodeSize = maxMethodBytecodeSize
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    fun testNewSourcePropertyIsAdded() {
+        val source = myFixture.addClass(bean("Source", fields(3))).containingFile
+        myFixture.addClass(bean("Target", fields(4)))
+        configureMapper()
+        generate(CreateCloneFieldMatchMethodAction())
+        assertEquals(3, countSetterCalls())
+        assertTrue(marker().editedHashes.isEmpty())
+
+        replaceText(source, bean("Source", fields(4)))
+        assertEquals(1, refresh())
+
+        assertTrue(mapperClass().text.contains("newEntity.setF3(source.getF3());"))
+        assertEquals(4, countSetterCalls())
+        assertTrue(marker().editedHashes.isEmpty())
+        assertUpToDate()
+    }
+
+    fun testHandEditedUnitIsKept() {
+        myFixture.addClass(bean("Source", fields(2)))
+        val target = myFixture.addClass(bean("Target", fields(2) + "extra")).containingFile
+        configureMapper()
+        generate(CreateCloneFieldMethodAction())
+        assertTrue(mapperClass().text.contains("newEntity.setExtra();"))
+
+        replaceText(mapperClass().containingFile, mapperClass().containingFile.text
+            .replace("newEntity.setExtra();", "newEntity.setExtra(\"manual\");"))
+        replaceText(target, bean("Target", fields(3) + "extra"))
+        refresh()
+
+        val text = mapperClass().text
+        assertTrue(text.contains("newEntity.setExtra(\"manual\");"))
+        assertFalse(text.contains("newEntity.setExtra();"))
+        assertTrue(text.contains("newEntity.setF2();"))
+        assertEquals(1, marker().editedHashes.size)
+        assertUpToDate()
+    }
+
+    fun testPartsAreCreatedAndDeletedAcrossTheSplitLimit() {
+        CloneFieldSettings.getInstance().maxMethodBytecodeSize = 100
+        val source = myFixture.addClass(bean("Source", fields(5))).containingFile
+        val target = myFixture.addClass(bean("Target", fields(5))).containingFile
+        configureMapper()
+        generate(CreateCloneFieldMethodAction())
+        assertEmpty(parts())
+
+        replaceText(source, bean("Source", fields(40)))
+        replaceText(target, bean("Target", fields(40)))
+        refresh()
+
+        assertEquals(listOf("${METHOD_NAME}Part1", "${METHOD_NAME}Part2"), parts().map { it.name })
+        assertEquals(40, countSetterCalls())
+        assertTrue(marker().editedHashes.isEmpty())
+        assertUpToDate()
+
+        replaceText(source, bean("Source", fields(5)))
+        replaceText(target, bean("Target", fields(5)))
+        refresh()
+
+        assertEmpty(parts())
+        assertFalse(mapperClass().text.contains("${METHOD_NAME}Part"))
+        assertEquals(5, countSetterCalls())
+        assertUpToDate()
+    }
+
+    fun testCopyIntoMarkerSurvivesRefresh() {
+        val source = myFixture.addClass(bean("Source", fields(2))).containingFile
+        myFixture.addClass(bean("Target", fields(3)))
+        configureMapper("public void use(Source source, Target target) {\n        copy<caret>Into(source, target);\n    }")
+        generate(CreateCloneFieldMatchCopyIntoMethodAction(), COPY_INTO)
+        assertTrue(marker(COPY_INTO).isCopyInto)
+        assertFalse(mapperClass().text.contains("newEntity"))
+
+        replaceText(source, bean("Source", fields(3)))
+        assertEquals(1, refresh(COPY_INTO))
+
+        val marker = marker(COPY_INTO)
+        assertTrue(marker.isCopyInto)
+        assertTrue(marker.isMatched)
+        assertTrue(Regex("\\w+\\.setF2\\(\\w+\\.getF2\\(\\)\\);").containsMatchIn(mapperClass().text))
+        assertEquals(3, countSetterCalls())
+        assertUpToDate(COPY_INTO)
+    }
+
+    fun testBatchRefreshesOnlyStaleMethods() {
+        val source = myFixture.addClass(bean("Source", fields(2))).containingFile
+        myFixture.addClass(bean("Target", fields(3)))
+        configureMapper()
+        generate(CreateCloneFieldMatchMethodAction())
+
+        val generator = CloneFieldBatchGenerator(project, true)
+        val files = listOf(myFixture.file.virtualFile)
+        assertEmpty(computeRefreshes(generator, files))
+
+        replaceText(source, bean("Source", fields(3)))
+        val refreshes = computeRefreshes(generator, files)
+        assertEquals(1, refreshes.size)
+        assertEquals(1, generator.applyRefreshes(refreshes, "Refresh"))
+
+        assertTrue(mapperClass().text.contains("newEntity.setF2(source.getF2());"))
+        assertUpToDate()
+    }
+
+    /**
+     * 读操作让位于写操作，不能在 EDT 上计算
+     */
+    private fun computeRefreshes(generator: CloneFieldBatchGenerator, files: List<VirtualFile>) =
+        ApplicationManager.getApplication().executeOnPooledThread<Map<SmartPsiElementPointer<PsiMethod>, CloneMethodPlan>> {
+            generator.computeRefreshes(files, EmptyProgressIndicator())
+        }.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+
+    private fun configureMapper(use: String = "public Target use(Source source) {\n        return conv<caret>ert(source);\n    }") {
+        myFixture.configureByText("Mapper.java", "package demo;\n\npublic class Mapper {\n    $use\n}\n")
+    }
+
+    /**
+     * 与使用者操作相同：检查可用后调用意图，等待后台分析完成、UI 线程插入方法
+     */
+    private fun generate(action: CreateCloneFieldMethodAction, methodName: String = METHOD_NAME) {
+        val element = myFixture.file.findElementAt(myFixture.caretOffset)
+        assertTrue(action.isAvailable(project, myFixture.editor, element))
+        action.invoke(project, myFixture.editor, element!!)
+
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS
+        while (mapperClass().findMethodsByName(methodName, false).isEmpty()) {
+            assertTrue("$methodName was not generated in time", System.currentTimeMillis() < deadline)
+            PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue()
+            Thread.sleep(5)
+        }
+    }
+
+    /**
+     * 同步执行刷新的读、写两个阶段，返回变化的单元个数
+     */
+    private fun refresh(methodName: String = METHOD_NAME): Int {
+        val method = method(methodName)
+        val plan = CloneMethodRefresher.computeRefresh(method)
+        assertNotNull(plan)
+        return WriteCommandAction.runWriteCommandAction<Int>(project) { CloneMethodRefresher.applyRefresh(method, plan!!) }
+    }
+
+    private fun assertUpToDate(methodName: String = METHOD_NAME) {
+        val method = method(methodName)
+        assertTrue(CloneMethodRefresher.isUpToDate(method, CloneMethodRefresher.computeRefresh(method)!!))
+    }
+
+    private fun replaceText(file: PsiFile, text: String) {
+        val documentManager = PsiDocumentManager.getInstance(project)
+        WriteCommandAction.runWriteCommandAction(project) {
+            documentManager.getDocument(file)!!.setText(text)
+            documentManager.commitAllDocuments()
+        }
+    }
+
+    private fun mapperClass(): PsiClass = (myFixture.file as PsiJavaFile).classes.single()
+
+    private fun method(methodName: String = METHOD_NAME): PsiMethod = mapperClass().findMethodsByName(methodName, false).single()
+
+    private fun marker(methodName: String = METHOD_NAME): GeneratedMethodMarker = GeneratedMethodMarker.read(method(methodName))!!
+
+    private fun parts(): List<PsiMethod> = CloneMethodRefresher.findParts(method())
+
+    /**
+     * 主方法及拆分出的方法中的 set 调用个数（包括 full 模式下的空调用）
+     */
+    private fun countSetterCalls(): Int = Regex("\\w+\\.set\\w+\\(").findAll(mapperClass().text).count()
+
+    private fun fields(count: Int): List<String> = (0 until count).map { "f$it" }
+
+    /**
+     * 生成只有 String 属性的 Java Bean
+     */
+    private fun bean(name: String, fields: List<String>): String {
+        val text = StringBuilder("package demo;\n\npublic class ").append(name).append(" {\n")
+        for (field in fields) {
+            val suffix = StringUtil.capitalize(field)
+            text.append("    private String ").append(field).append(";\n")
+            text.append("    public String get").append(suffix).append("() { return ").append(field).append("; }\n")
+            text.append("    public void set").append(suffix).append("(String value) { this.").append(field).append(" = value; }\n")
+        }
+        return text.append("}\n").toString()
+    }
+
+    companion object {
+        private const val METHOD_NAME = "convert"
+        private const val COPY_INTO = "copyInto"
+        private const val TIMEOUT_MILLIS = 60_000L
+    }
+}
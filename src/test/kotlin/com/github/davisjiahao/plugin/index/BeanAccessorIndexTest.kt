@@ -0,0 +1,51 @@
+package com.github.davisjiahao.plugin.index
+
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+
+/**
+ * 从 LighterAST 建立的索引项与 PSI 中声明的 get、set 和注解别名一致
+ */
+class BeanAccessorIndexTest : LightJavaCodeInsightFixtureTestCase() {
+
+    fun testAccessorsAndAliasesOfDeclaredMembers() {
+        val bean = myFixture.addClass(
+            """
+            package demo.model;
+
+            public class User {
+                private static final String TABLE = "user";
+                @Alias(value = "user_name", alternate = {"uname", "login name"}) private String name;
+                private int a, b;
+                public java.util.Map<String, Integer> getScores() { return null; }
+                public boolean isActive() { return true; }
+                public Boolean isDeleted() { return null; }
+                @Alias(name = "user_id") public void setId(Long id) { }
+                public void setPair(int a, int b) { }
+
+                public static class Address {
+                    public String getCity() { return null; }
+                }
+
+                public interface Named {
+                    String getName();
+                }
+            }
+            """.trimIndent()
+        )
+
+        val entry = BeanAccessorIndex.getEntry(bean)!!
+        assertEquals(mapOf("getScores" to "java.util.Map<String, Integer>", "isActive" to "boolean"), entry.getters)
+        assertEquals(mapOf("setId" to "Long", "setPair" to ""), entry.setters)
+        assertEquals(
+            mapOf(
+                "name" to mapOf("Alias" to listOf("user_name", "uname")),
+                "id" to mapOf("Alias" to listOf("user_id"))
+            ),
+            entry.aliases
+        )
+
+        val address = BeanAccessorIndex.getEntry(bean.findInnerClassByName("Address", false)!!)!!
+        assertEquals(mapOf("getCity" to "String"), address.getters)
+        assertNull(BeanAccessorIndex.getEntry(bean.findInnerClassByName("Named", false)!!))
+    }
+}